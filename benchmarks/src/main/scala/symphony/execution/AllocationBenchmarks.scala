@@ -0,0 +1,71 @@
+package symphony.execution
+
+import org.apache.pekko.actor.*
+import org.openjdk.jmh.annotations.*
+import symphony.*
+import symphony.parser.SymphonyQLError
+import symphony.parser.SymphonyQLValue.*
+import symphony.schema.*
+
+import java.util.concurrent.TimeUnit
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+/**
+ * A list-heavy response whose leaves are mostly small integers, booleans and nulls, executed with the default scalar
+ * schemas and with scalar schemas allocating a new value and a new stage for each leaf. Run with
+ * `Jmh/run -prof gc AllocationBenchmarks` and compare `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class AllocationBenchmarks {
+  import AllocationBenchmarks.*
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  val query: String =
+    """{
+          rows {
+            id
+            rank
+            active
+            archived
+            note
+          }
+       }""".stripMargin
+
+  @TearDown
+  def shutdown(): Unit =
+    Await.result(actorSystem.terminate(), 5.seconds)
+
+  @Benchmark
+  def sharedScalars(): SymphonyQLResponse[SymphonyQLError] =
+    run(shared)
+
+  @Benchmark
+  def allocatedScalars(): SymphonyQLResponse[SymphonyQLError] =
+    run(allocated)
+
+  private def run(graphql: SymphonyQL): SymphonyQLResponse[SymphonyQLError] =
+    Await.result(graphql.runWith(SymphonyQLRequest(query)), 1.minute)
+}
+
+object AllocationBenchmarks {
+
+  final case class Row(id: Int, rank: Int, active: Boolean, archived: Boolean, note: Option[String])
+  final case class Queries(rows: List[Row])
+
+  val rows: List[Row] = (1 to 10000).toList.map(i => Row(i, i % 100, i % 2 == 0, i % 3 == 0, None))
+
+  val shared: SymphonyQL = SymphonyQL.newSymphonyQL().query(Queries(rows)).build()
+
+  val allocated: SymphonyQL = {
+    implicit val intSchema: Schema[Int]         = Schema.mkScalar("Int", None, i => new IntValue.IntNumber(i))
+    implicit val booleanSchema: Schema[Boolean] = Schema.mkScalar("Boolean", None, b => new BooleanValue(b))
+    SymphonyQL.newSymphonyQL().query(Queries(rows)).build()
+  }
+}
@@ -0,0 +1,84 @@
+package symphony.execution
+
+import org.apache.pekko.actor.*
+import org.openjdk.jmh.annotations.*
+import symphony.*
+import symphony.parser.{ SymphonyQLError, SymphonyQLInputValue }
+import symphony.parser.SymphonyQLValue.IntValue
+import symphony.schema.*
+
+import java.util.concurrent.TimeUnit
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+/**
+ * Argument extraction for the elements of a list, and aliased selections of a plain and of a memoized resolver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class MemoizationBenchmarks {
+  import MemoizationBenchmarks.*
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  val listQuery: String =
+    """query Items($count: Int!) {
+          items {
+            name
+            tags(count: $count)
+          }
+       }""".stripMargin
+
+  val aliasQuery: String =
+    """{
+          first: report(count: 100)
+          second: report(count: 100)
+          third: report(count: 100)
+          fourth: report(count: 100)
+       }""".stripMargin
+
+  val variables: Map[String, SymphonyQLInputValue] = Map("count" -> IntValue(2))
+
+  @TearDown
+  def shutdown(): Unit =
+    Await.result(actorSystem.terminate(), 5.seconds)
+
+  @Benchmark
+  def listArguments(): SymphonyQLResponse[SymphonyQLError] =
+    run(plain, SymphonyQLRequest(listQuery, variables = Some(variables)))
+
+  @Benchmark
+  def aliasedPlain(): SymphonyQLResponse[SymphonyQLError] =
+    run(plain, SymphonyQLRequest(aliasQuery))
+
+  @Benchmark
+  def aliasedMemoized(): SymphonyQLResponse[SymphonyQLError] =
+    run(memoized, SymphonyQLRequest(aliasQuery))
+
+  private def run(graphql: SymphonyQL, request: SymphonyQLRequest): SymphonyQLResponse[SymphonyQLError] =
+    Await.result(graphql.runWith(request), 1.minute)
+}
+
+object MemoizationBenchmarks {
+
+  final case class Count(count: Int)
+  final case class Item(name: String, tags: Count => List[String])
+  final case class PlainQuery(items: List[Item], report: Count => List[Int])
+  final case class MemoizedQuery(items: List[Item], report: Count => List[Int])
+
+  val items: List[Item] = (1 to 1000).toList.map(i => Item(s"item-$i", args => List("a", "b", "c").take(args.count)))
+
+  // stands for an expensive pure computation
+  def report(args: Count): List[Int] = (1 to args.count).map(i => (1 to 1000).foldLeft(i)(_ ^ _)).toList
+
+  val plain: SymphonyQL = SymphonyQL.newSymphonyQL().query(PlainQuery(items, report)).build()
+
+  val memoized: SymphonyQL = {
+    implicit val reportSchema: Schema[Count => List[Int]] = Schema.mkMemoized
+    SymphonyQL.newSymphonyQL().query(MemoizedQuery(items, report)).build()
+  }
+}
@@ -0,0 +1,116 @@
+package symphony.parser
+
+import org.openjdk.jmh.annotations.*
+
+import java.util.concurrent.TimeUnit
+
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class ParserBenchmarks {
+
+  val simpleQuery: String =
+    """{
+          characters {
+            name
+            origin
+          }
+       }""".stripMargin
+
+  val fullIntrospectionQuery: String =
+    """
+      query IntrospectionQuery {
+        __schema {
+          queryType { name }
+          mutationType { name }
+          subscriptionType { name }
+          types {
+            ...FullType
+          }
+          directives {
+            name
+            description
+            locations
+            args {
+              ...InputValue
+            }
+          }
+        }
+      }
+
+      fragment FullType on __Type {
+        kind
+        name
+        description
+        fields(includeDeprecated: true) {
+          name
+          description
+          args {
+            ...InputValue
+          }
+          type {
+            ...TypeRef
+          }
+          isDeprecated
+          deprecationReason
+        }
+        inputFields {
+          ...InputValue
+        }
+        interfaces {
+          ...TypeRef
+        }
+        enumValues(includeDeprecated: true) {
+          name
+          description
+          isDeprecated
+          deprecationReason
+        }
+        possibleTypes {
+          ...TypeRef
+        }
+      }
+
+      fragment InputValue on __InputValue {
+        name
+        description
+        type { ...TypeRef }
+        defaultValue
+      }
+
+      fragment TypeRef on __Type {
+        kind
+        name
+        ofType {
+          kind
+          name
+          ofType {
+            kind
+            name
+            ofType {
+              kind
+              name
+            }
+          }
+        }
+      }"""
+
+  @Benchmark
+  def simpleParboiled(): Either[SymphonyQLError.ParsingError, adt.Document] =
+    SymphonyQLParser.parseQuery(simpleQuery, ParserEngine.Parboiled)
+
+  @Benchmark
+  def simpleRecursiveDescent(): Either[SymphonyQLError.ParsingError, adt.Document] =
+    SymphonyQLParser.parseQuery(simpleQuery, ParserEngine.RecursiveDescent)
+
+  @Benchmark
+  def introspectionParboiled(): Either[SymphonyQLError.ParsingError, adt.Document] =
+    SymphonyQLParser.parseQuery(fullIntrospectionQuery, ParserEngine.Parboiled)
+
+  @Benchmark
+  def introspectionRecursiveDescent(): Either[SymphonyQLError.ParsingError, adt.Document] =
+    SymphonyQLParser.parseQuery(fullIntrospectionQuery, ParserEngine.RecursiveDescent)
+}
@@ -0,0 +1,65 @@
+package symphony.schema
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Analyzes a list of case classes and all of their fields with a derived schema, whose fields are read through their
+ * accessors, and with a schema reading them through `Product.productElement` as derived schemas used to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class DerivationBenchmarks {
+  import DerivationBenchmarks.*
+
+  @Benchmark
+  def derivedAccessors(blackhole: Blackhole): Unit =
+    analyzeAll(derived, blackhole)
+
+  @Benchmark
+  def productElements(blackhole: Blackhole): Unit =
+    analyzeAll(productElement, blackhole)
+
+  private def analyzeAll(schema: Schema[Row], blackhole: Blackhole): Unit =
+    rows.foreach { row =>
+      schema.analyze(row) match {
+        case Stage.ObjectStage(_, fields) => fields.keysIterator.foreach(name => blackhole.consume(fields.get(name)))
+        case stage                        => blackhole.consume(stage)
+      }
+    }
+}
+
+object DerivationBenchmarks {
+
+  final case class Row(id: Int, name: String, score: Double, active: Boolean, tags: List[String], parent: Option[Int])
+
+  val rows: List[Row] =
+    (1 to 10000).toList.map(i => Row(i, s"row-$i", i / 10.0, i % 2 == 0, List("a", "b"), Option.when(i > 1)(i - 1)))
+
+  val derived: Schema[Row] = Schema.derived[Row]
+
+  val productElement: Schema[Row] = {
+    val schemas   = List[Schema[?]](
+      Schema.IntSchema,
+      Schema.StringSchema,
+      Schema.DoubleSchema,
+      Schema.BooleanSchema,
+      Schema.mkList(Schema.StringSchema),
+      Schema.mkOption(Schema.IntSchema)
+    )
+    val resolvers = List("id", "name", "score", "active", "tags", "parent").zip(schemas).zipWithIndex.map {
+      case ((name, schema), index) =>
+        name -> ((row: Row) => schema.asInstanceOf[Schema[Any]].analyze(row.productElement(index)))
+    }.toMap
+    new Schema[Row] {
+      override def tpe(isInput: Boolean) = derived.tpe(isInput)
+      override def analyze(value: Row)   = Stage.ObjectStage("Row", LazyFields(value, resolvers))
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package symphony.annotations.java;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation used to provide the cost of a field for query complexity analysis, the cost of its selections is
+ * multiplied by the value of the first {@code multipliers} argument present in the query (e.g. {@code first}).
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface GQLCost {
+  int weight() default 1;
+
+  String[] multipliers() default {};
+}
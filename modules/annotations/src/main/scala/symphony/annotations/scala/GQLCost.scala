@@ -0,0 +1,9 @@
+package symphony.annotations.scala
+
+import scala.annotation.StaticAnnotation
+
+/**
+ * Annotation used to provide the cost of a field for query complexity analysis, the cost of its selections is
+ * multiplied by the value of the first `multipliers` argument present in the query (e.g. `first` or `limit`).
+ */
+case class GQLCost(weight: Int, multipliers: String*) extends StaticAnnotation
@@ -0,0 +1,43 @@
+package symphony
+
+import org.apache.pekko.actor.ActorSystem
+import symphony.execution.{ ExecutionPlan, RequestScope }
+import symphony.parser.*
+import symphony.parser.adt.{ Document, OperationType }
+
+import java.util.concurrent.CompletionStage
+import scala.concurrent.Future
+import scala.jdk.CollectionConverters.*
+import scala.jdk.FutureConverters.*
+
+/**
+ * An operation that has been parsed, validated and planned by [[SymphonyQL.prepare]].
+ *
+ * Executing it only coerces the variables and runs the resolvers. It is immutable and can be executed concurrently.
+ */
+final class PreparedQuery private[symphony] (
+  symphonyQL: SymphonyQL,
+  val query: String,
+  val operationName: Option[String],
+  val document: Document,
+  val plan: ExecutionPlan
+) {
+
+  def operationType: OperationType = plan.operationType
+
+  def execute(
+    variables: Map[String, SymphonyQLInputValue] = Map.empty
+  )(implicit actorSystem: ActorSystem): Future[SymphonyQLResponse[SymphonyQLError]] = {
+    import actorSystem.dispatcher
+    symphonyQL.execute(plan, SymphonyQLRequest(query, operationName, Some(variables)), new RequestScope())
+  }
+
+  /**
+   * Java API
+   */
+  def execute(
+    variables: java.util.Map[String, SymphonyQLInputValue],
+    actorSystem: ActorSystem
+  ): CompletionStage[SymphonyQLResponse[SymphonyQLError]] =
+    execute(variables.asScala.toMap)(actorSystem).asJava
+}
@@ -1,31 +1,54 @@
 package symphony
 
-import org.apache.pekko.NotUsed
 import org.apache.pekko.actor.ActorSystem
 import org.apache.pekko.stream.scaladsl.*
+import symphony.cache.*
 import symphony.execution.*
 import symphony.parser.*
+import symphony.parser.SymphonyQLOutputValue.ObjectValue
 import symphony.parser.adt.Definition.TypeSystemDefinition.*
 import symphony.parser.adt.Document
+import symphony.parser.adt.introspection.__Directive
 import symphony.schema.*
+import symphony.validator.*
 
 import scala.jdk.FutureConverters.*
+import scala.jdk.OptionConverters.*
+import java.util.Optional
 import java.util.concurrent.CompletionStage
 import scala.concurrent.*
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.DurationConverters.*
 import scala.util.*
 import symphony.parser.adt.Definition.ExecutableDefinition.*
 import symphony.parser.adt.OperationType
 
-final class SymphonyQL private (rootSchema: RootSchema) {
+final class SymphonyQL private (
+  rootSchema: RootSchema,
+  documentCache: DocumentCache,
+  persistedQueries: PersistedQueryCache,
+  introspectionCacheSize: Int,
+  complexityLimits: ComplexityLimits,
+  reportComplexity: Boolean,
+  blockingExecutor: BlockingExecutor,
+  scheduler: ExecutionScheduler,
+  timeout: Option[FiniteDuration],
+  operationTimeouts: Map[String, FiniteDuration]
+) extends AutoCloseable {
+
+  // the directives of the schema that are not built in
+  private lazy val additionalDirectives: List[__Directive] =
+    if (rootSchema.collectTypes.exists(_.allFields.exists(CostDirective.isDefined))) List(CostDirective.definition)
+    else Nil
 
   private lazy val _document: Document = Document(
-    SchemaDefinition(
+    additionalDirectives.map(_.toDirectiveDefinition) ++ (SchemaDefinition(
       Nil,
       rootSchema.query.flatMap(_.opType.name),
       rootSchema.mutation.flatMap(_.opType.name),
       rootSchema.subscription.flatMap(_.opType.name),
       None
-    ) :: rootSchema.collectTypes.flatMap(_.toTypeDefinition),
+    ) :: rootSchema.collectTypes.flatMap(_.toTypeDefinition)),
     SourceMapper.empty
   )
 
@@ -36,40 +59,226 @@ final class SymphonyQL private (rootSchema: RootSchema) {
       RootType(
         query.opType,
         rootSchema.mutation.map(_.opType),
-        rootSchema.subscription.map(_.opType)
+        rootSchema.subscription.map(_.opType),
+        additionalDirectives
       )
     )
   )
 
+  private lazy val schemaView: Either[SymphonyQLError.ExecutionError, SchemaView] =
+    rootType.map(Introspector.schemaView)
+
+  private lazy val introspectionRootSchema: Either[SymphonyQLError.ExecutionError, RootSchema] =
+    rootType.map(Introspector.introspect)
+
+  // introspection results only depend on the schema, responses to operations without variables are reused
+  private val introspectionCache: Option[LruCache[(String, Option[String]), SymphonyQLResponse[SymphonyQLError]]] =
+    if (introspectionCacheSize > 0) Some(LruCache(introspectionCacheSize)) else None
+
   def document: Document = _document
 
   def render: String = DocumentRenderer.render(_document)
 
+  def documentCacheStats: CacheStats = documentCache.stats
+
+  def persistedQueryCacheStats: CacheStats = persistedQueries.stats
+
+  /**
+   * The number of list elements and fields of all the requests waiting on asynchronous resolvers.
+   */
+  def executionInFlight: Int = scheduler.inFlight
+
+  /**
+   * Stops the virtual threads running blocking resolvers, once the blocking calls in progress have completed.
+   */
+  def close(): Unit = blockingExecutor.close()
+
   def run(request: SymphonyQLRequest, actorSystem: ActorSystem): CompletionStage[SymphonyQLResponse[SymphonyQLError]] =
     runWith(request)(actorSystem).asJava
 
+  /**
+   * Java API
+   */
+  def run(
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    actorSystem: ActorSystem
+  ): CompletionStage[SymphonyQLResponse[SymphonyQLError]] =
+    runWith(request, scope)(actorSystem).asJava
+
   def runWith(
     request: SymphonyQLRequest
   )(implicit
     actorSystem: ActorSystem
+  ): Future[SymphonyQLResponse[SymphonyQLError]] =
+    runWith(request, new RequestScope())
+
+  /**
+   * Runs `request` within `scope`, which can be cancelled while the request is executed. The fields that are not
+   * resolved before the cancellation or the timeout of the operation are `null` in the response and reported in its
+   * errors.
+   */
+  def runWith(
+    request: SymphonyQLRequest,
+    scope: RequestScope
+  )(implicit
+    actorSystem: ActorSystem
+  ): Future[SymphonyQLResponse[SymphonyQLError]] =
+    runRequest(request, scope, incremental = false, streaming = false)
+
+  /**
+   * Java API
+   */
+  def runIncremental(
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    actorSystem: ActorSystem
+  ): CompletionStage[SymphonyQLResponse[SymphonyQLError]] =
+    runIncrementalWith(request, scope)(actorSystem).asJava
+
+  /**
+   * Runs `request` like `runWith`, except that the fragments deferred with `@defer` and the list elements streamed
+   * with `@stream` are not part of `data`: the response is returned once the rest of the operation is resolved, and
+   * its `incremental` stream delivers them afterwards. Subscriptions are executed like with `runWith`.
+   */
+  def runIncrementalWith(
+    request: SymphonyQLRequest,
+    scope: RequestScope = new RequestScope()
+  )(implicit
+    actorSystem: ActorSystem
+  ): Future[SymphonyQLResponse[SymphonyQLError]] =
+    runRequest(request, scope, incremental = true, streaming = false)
+
+  /**
+   * Java API
+   */
+  def runStreaming(
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    actorSystem: ActorSystem
+  ): CompletionStage[SymphonyQLResponse[SymphonyQLError]] =
+    runStreamingWith(request, scope)(actorSystem).asJava
+
+  /**
+   * Runs `request` like `runWith`, except that the `Source` fields of queries and mutations are not collected into
+   * lists: they are `StreamValue`s in `data`, whose elements are resolved while they are pulled. The response has to be
+   * written as it is streamed, see `JsonOutputWriter.stream`, so exporting large lists does not hold them in memory.
+   * The timeout of the request also bounds the streams, they fail once it has expired.
+   */
+  def runStreamingWith(
+    request: SymphonyQLRequest,
+    scope: RequestScope = new RequestScope()
+  )(implicit
+    actorSystem: ActorSystem
+  ): Future[SymphonyQLResponse[SymphonyQLError]] =
+    runRequest(request, scope, incremental = false, streaming = true)
+
+  private def runRequest(
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    incremental: Boolean,
+    streaming: Boolean
+  )(implicit
+    actorSystem: ActorSystem
   ): Future[SymphonyQLResponse[SymphonyQLError]] =
     import actorSystem.dispatcher
+    lookupDocument(request).flatMap { persisted =>
+      val resolved = if (persisted.query eq request.query) request else request.copy(query = persisted.query)
+      val cached   = persisted.document
+      cached
+        .validate(validate)
+        .flatMap(_ => cached.plan(resolved.operationName)(compilePlan(resolved.operationName, _))) match
+        case Left(ex)    => Future.failed(ex)
+        case Right(plan) => execute(plan, resolved, scope, incremental, streaming)
+    }
+
+  /**
+   * Parses, validates and plans `query` once, the returned [[PreparedQuery]] can then be executed many times with
+   * different variables.
+   */
+  def prepare(query: String, operationName: Option[String] = None): Either[SymphonyQLError, PreparedQuery] = {
+    val cached = documentCache.parse(query)
     for {
-      doc  <- Future(SymphonyQLParser.parseQuery(request.query))
-      resp <- doc match
-                case Left(ex)        => Future.failed(ex)
-                case Right(document) =>
-                  compileRequest(document, request)
-                    .map(SymphonyQLResponse(_, List.empty))
-                    .runWith[Future[SymphonyQLResponse[SymphonyQLError]]](Sink.head)
-    } yield resp
+      document <- cached.validate(validate)
+      plan     <- cached.plan(operationName)(compilePlan(operationName, _))
+    } yield new PreparedQuery(this, query, operationName, document, plan)
+  }
+
+  /**
+   * Java API
+   */
+  def prepare(query: String, operationName: Optional[String]): CompletionStage[PreparedQuery] =
+    Future.fromTry(prepare(query, operationName.toScala).toTry).asJava
+
+  private[symphony] def execute(
+    plan: ExecutionPlan,
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    incremental: Boolean = false,
+    streaming: Boolean = false
+  )(implicit
+    actorSystem: ActorSystem,
+    ec: ExecutionContext
+  ): Future[SymphonyQLResponse[SymphonyQLError]] =
+    analyzeComplexity(plan, request) match {
+      case Left(error)       => Future.failed(error)
+      case Right(complexity) =>
+        val timer    = deadline(plan, scope).map(d => actorSystem.scheduler.scheduleOnce(d)(scope.timedOut(d)))
+        scope.retain()
+        val response = executeCached(plan, request, scope, incremental, streaming).map { response =>
+          complexity.fold(response)(c =>
+            response.copy(extensions = Some(ObjectValue(List("complexity" -> c.toOutputValue))))
+          )
+        }
+        // the incremental payloads are still resolved once the response is complete
+        response.onComplete(_ => scope.release())(ExecutionContext.parasitic)
+        timer.foreach(t => scope.completed.onComplete(_ => t.cancel())(ExecutionContext.parasitic))
+        response
+    }
+
+  /**
+   * The timeout of the request, or of its operation, subscriptions are only stopped by cancelling their scope.
+   */
+  private def deadline(plan: ExecutionPlan, scope: RequestScope): Option[FiniteDuration] =
+    if (plan.operationType == OperationType.Subscription) None
+    else scope.timeout.orElse(plan.definition.name.flatMap(operationTimeouts.get)).orElse(timeout)
+
+  /**
+   * Finds the document of a request, from the text of its query or from the hash of an automatic persisted query.
+   */
+  private def lookupDocument(request: SymphonyQLRequest)(implicit ec: ExecutionContext): Future[PersistedQuery] =
+    PersistedQueryCache.requestedHash(request) match {
+      case None              => parse(request.query)
+      case Some(Left(error)) => Future.failed(error)
+      case Some(Right(hash)) =>
+        if (!persistedQueries.isEnabled)
+          if (request.query.isEmpty) Future.failed(PersistedQueryCache.NotSupported) else parse(request.query)
+        else if (request.query.isEmpty)
+          persistedQueries.lookup(hash) match {
+            case Some(persisted) => Future.successful(persisted)
+            case None            => Future.failed(PersistedQueryCache.NotFound)
+          }
+        else if (!PersistedQueryCache.sha256(request.query).equalsIgnoreCase(hash))
+          Future.failed(PersistedQueryCache.HashMismatch)
+        else
+          parse(request.query).map { persisted =>
+            if (persisted.document.document.isRight)
+              persistedQueries.register(hash, persisted.query, persisted.document)
+            persisted
+          }
+    }
+
+  private def parse(query: String)(implicit ec: ExecutionContext): Future[PersistedQuery] =
+    documentCache.lookup(query) match {
+      case Some(cached) => Future.successful(PersistedQuery(query, cached))
+      case None         => Future(PersistedQuery(query, documentCache.parseAndStore(query)))
+    }
 
   private def resolveOperation(
     operationName: Option[String] = None,
     document: Document
   ): Either[SymphonyQLError, (OperationDefinition, Operation)] = {
-    lazy val introspectionRootSchema = rootType.map(Introspector.introspect)
-    lazy val rootSchemaToValidate    =
+    lazy val rootSchemaToValidate =
       if (Introspector.isIntrospection(document)) introspectionRootSchema else Right(rootSchema)
 
     val op = operationName match {
@@ -105,26 +314,90 @@ final class SymphonyQL private (rootSchema: RootSchema) {
     op.flatMap(d => operation.map(o => d -> o))
   }
 
-  private def compileRequest(doc: Document, request: SymphonyQLRequest)(implicit
+  private def validate(document: Document): Either[SymphonyQLError, Unit] =
+    schemaView.flatMap(Validator.validate(document, _))
+
+  private def analyzeComplexity(
+    plan: ExecutionPlan,
+    request: SymphonyQLRequest
+  ): Either[SymphonyQLError, Option[QueryComplexity]] =
+    if (plan.isIntrospection || (complexityLimits.isEmpty && !reportComplexity)) Right(None)
+    else {
+      val complexity = ComplexityAnalyzer.analyze(plan, request.variables.getOrElse(Map.empty))
+      complexityLimits.check(complexity).map(c => if (reportComplexity) Some(c) else None)
+    }
+
+  private def executeCached(
+    plan: ExecutionPlan,
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    incremental: Boolean,
+    streaming: Boolean
+  )(implicit
     actorSystem: ActorSystem,
     ec: ExecutionContext
-  ): Source[SymphonyQLOutputValue, NotUsed] = {
-    val fragments = doc.definitions.collect { case fragment: FragmentDefinition =>
-      fragment.name -> fragment
-    }.toMap
-    resolveOperation(request.operationName, doc) match
-      case Left(ex)            => Source.failed(ex)
-      case Right((define, op)) =>
-        Executor.executeRequest(
-          ExecutionRequest(
-            op.stage,
-            define.selectionSet,
-            fragments,
-            define.variableDefinitions,
-            request.variables.getOrElse(Map.empty),
-            define.operationType
-          )
-        )
+  ): Future[SymphonyQLResponse[SymphonyQLError]] = {
+    val delivery = Option.when(incremental && plan.operationType != OperationType.Subscription)(
+      new IncrementalDelivery(scope)
+    )
+
+    def response(data: SymphonyQLOutputValue): SymphonyQLResponse[SymphonyQLError] =
+      SymphonyQLResponse(
+        data,
+        scope.fieldErrors,
+        incremental = delivery.filter(_.nonEmpty).map(d => SymphonyQLOutputValue.StreamValue(scope.retaining(d.stream)))
+      )
+
+    introspectionCache.filter(_ => isCacheable(plan, request)) match {
+      case Some(cache) =>
+        val key = request.query -> request.operationName
+        cache.get(key).fold(
+          executePlan(plan, request, scope, delivery, streaming).map { data =>
+            val executed = response(data)
+            if (executed.errors.isEmpty && executed.incremental.isEmpty) cache.put(key, executed)
+            executed
+          }
+        )(Future.successful)
+      case None        => executePlan(plan, request, scope, delivery, streaming).map(response)
+    }
+  }
+
+  private def isCacheable(plan: ExecutionPlan, request: SymphonyQLRequest): Boolean =
+    plan.isIntrospection && plan.definition.variableDefinitions.isEmpty && request.variables.forall(_.isEmpty)
+
+  private def compilePlan(
+    operationName: Option[String],
+    document: Document
+  ): Either[SymphonyQLError, ExecutionPlan] =
+    resolveOperation(operationName, document).map { case (definition, operation) =>
+      ExecutionPlan.compile(document, definition, operation)
+    }
+
+  private def executePlan(
+    plan: ExecutionPlan,
+    request: SymphonyQLRequest,
+    scope: RequestScope,
+    incremental: Option[IncrementalDelivery],
+    streaming: Boolean
+  )(implicit
+    actorSystem: ActorSystem,
+    ec: ExecutionContext
+  ): Future[SymphonyQLOutputValue] = {
+    val executionRequest = ExecutionRequest(
+      plan.operation.stage,
+      plan.selectionSet,
+      request.variables.getOrElse(Map.empty),
+      plan.operationType,
+      blockingExecutor,
+      scheduler,
+      scope,
+      incremental,
+      streaming
+    )
+    plan.operationType match {
+      case OperationType.Subscription => Executor.executeRequest(executionRequest).runWith(Sink.head)
+      case _                          => Executor.executeQuery(executionRequest)
+    }
   }
 }
 
@@ -144,6 +417,18 @@ object SymphonyQL {
     private var query: Option[Operation]        = None
     private var mutation: Option[Operation]     = None
     private var subscription: Option[Operation] = None
+    private var documentCacheSize: Int          = 1024
+    private var persistedQueryCacheSize: Int    = 1024
+    private var introspectionCacheSize: Int     = 16
+    private var complexityLimits                = ComplexityLimits()
+    private var reportComplexity: Boolean       = false
+    private var parserEngine: ParserEngine      = ParserEngine.Parboiled
+    private var blockingConcurrency: Int        = 256
+    private var maxRequestInFlight: Int         = 1024
+    private var maxGlobalInFlight: Int          = Int.MaxValue
+    private var executionChunkSize: Int         = 128
+    private var timeout: Option[FiniteDuration] = None
+    private var operationTimeouts               = Map.empty[String, FiniteDuration]
 
     def query[Q: Schema](query: Q): this.type = {
       this.query = mergeOperation(this.query, query, summon[Schema[Q]])
@@ -195,9 +480,145 @@ object SymphonyQL {
       this
     }
 
+    /**
+     * Maximum number of parsed documents (including parsing errors) kept in memory, 0 disables the cache.
+     */
+    def documentCacheSize(documentCacheSize: Int): this.type = {
+      this.documentCacheSize = documentCacheSize
+      this
+    }
+
+    /**
+     * Maximum number of automatic persisted queries kept in memory, 0 disables automatic persisted queries.
+     */
+    def persistedQueryCacheSize(persistedQueryCacheSize: Int): this.type = {
+      this.persistedQueryCacheSize = persistedQueryCacheSize
+      this
+    }
+
+    /**
+     * Maximum number of introspection responses kept in memory, 0 disables the cache.
+     */
+    def introspectionCacheSize(introspectionCacheSize: Int): this.type = {
+      this.introspectionCacheSize = introspectionCacheSize
+      this
+    }
+
+    /**
+     * Rejects operations nested deeper than `maxDepth` before they are executed.
+     */
+    def maxDepth(maxDepth: Int): this.type = {
+      this.complexityLimits = complexityLimits.copy(maxDepth = Some(maxDepth))
+      this
+    }
+
+    /**
+     * Rejects operations selecting more than `maxBreadth` fields in a single selection set before they are executed.
+     */
+    def maxBreadth(maxBreadth: Int): this.type = {
+      this.complexityLimits = complexityLimits.copy(maxBreadth = Some(maxBreadth))
+      this
+    }
+
+    /**
+     * Rejects operations whose cost exceeds `maxCost` before they are executed, see `GQLCost` and `FieldBuilder.cost`.
+     */
+    def maxCost(maxCost: Long): this.type = {
+      this.complexityLimits = complexityLimits.copy(maxCost = Some(maxCost))
+      this
+    }
+
+    /**
+     * Adds the computed depth, breadth and cost of each operation to the `complexity` response extension.
+     */
+    def reportComplexity(reportComplexity: Boolean): this.type = {
+      this.reportComplexity = reportComplexity
+      this
+    }
+
+    /**
+     * Parses queries with `parserEngine`, see [[ParserEngine]].
+     */
+    def parserEngine(parserEngine: ParserEngine): this.type = {
+      this.parserEngine = parserEngine
+      this
+    }
+
+    /**
+     * Maximum number of blocking resolvers running at the same time, see `Schema.mkBlocking`.
+     */
+    def blockingConcurrency(blockingConcurrency: Int): this.type = {
+      this.blockingConcurrency = blockingConcurrency
+      this
+    }
+
+    /**
+     * Maximum number of list elements and sibling fields of a request waiting on asynchronous resolvers at the same
+     * time, see [[ExecutionScheduler]].
+     */
+    def maxRequestInFlight(maxRequestInFlight: Int): this.type = {
+      this.maxRequestInFlight = maxRequestInFlight
+      this
+    }
+
+    /**
+     * Maximum number of list elements and sibling fields waiting on asynchronous resolvers at the same time in all the
+     * requests, see [[ExecutionScheduler]].
+     */
+    def maxGlobalInFlight(maxGlobalInFlight: Int): this.type = {
+      this.maxGlobalInFlight = maxGlobalInFlight
+      this
+    }
+
+    /**
+     * Number of list elements and sibling fields started together once the in-flight limits have been reached.
+     */
+    def executionChunkSize(executionChunkSize: Int): this.type = {
+      this.executionChunkSize = executionChunkSize
+      this
+    }
+
+    /**
+     * Maximum duration of the execution of queries and mutations, see [[RequestScope]].
+     */
+    def timeout(timeout: FiniteDuration): this.type = {
+      this.timeout = Some(timeout)
+      this
+    }
+
+    /**
+     * Java API
+     */
+    def timeout(timeout: java.time.Duration): this.type = this.timeout(timeout.toScala)
+
+    /**
+     * Maximum duration of the execution of the operation named `operationName`, instead of `timeout`.
+     */
+    def operationTimeout(operationName: String, timeout: FiniteDuration): this.type = {
+      this.operationTimeouts += operationName -> timeout
+      this
+    }
+
+    /**
+     * Java API
+     */
+    def operationTimeout(operationName: String, timeout: java.time.Duration): this.type =
+      operationTimeout(operationName, timeout.toScala)
+
     def build(): SymphonyQL = {
       val allSchemas = RootSchema(query, mutation, subscription) ++ rootSchema
-      new SymphonyQL(allSchemas)
+      new SymphonyQL(
+        allSchemas,
+        new DocumentCache(documentCacheSize, parserEngine),
+        new PersistedQueryCache(persistedQueryCacheSize),
+        introspectionCacheSize,
+        complexityLimits,
+        reportComplexity,
+        new BlockingExecutor(blockingConcurrency),
+        new ExecutionScheduler(maxRequestInFlight, maxGlobalInFlight, executionChunkSize),
+        timeout,
+        operationTimeouts
+      )
     }
   }
 
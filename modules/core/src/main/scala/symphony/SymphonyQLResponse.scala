@@ -3,25 +3,31 @@ package symphony
 import symphony.parser.SymphonyQLError
 import symphony.parser.SymphonyQLOutputValue
 import symphony.parser.SymphonyQLOutputValue.*
-import symphony.parser.SymphonyQLValue.StringValue
+import symphony.parser.SymphonyQLValue.{ BooleanValue, NullValue, StringValue }
 
+/**
+ * The result of a request. When the request deferred fragments or streamed lists, `data` is its initial payload and
+ * `incremental` streams the subsequent payloads, see [[symphony.execution.IncrementalDelivery]].
+ */
 final case class SymphonyQLResponse[+E](
   data: SymphonyQLOutputValue,
   errors: List[E],
-  extensions: Option[ObjectValue] = None
+  extensions: Option[ObjectValue] = None,
+  incremental: Option[StreamValue] = None
 ) {
 
   def toOutputValue: SymphonyQLOutputValue =
     ObjectValue(
       List(
-        "data"       -> (if (errors.isEmpty) Some(data) else None),
+        "data"       -> (if (errors.isEmpty || data != NullValue) Some(data) else None),
         "errors"     -> (if (errors.nonEmpty)
                        Some(ListValue(errors.map {
                          case e: SymphonyQLError => e.toOutputValue
                          case e                  => ObjectValue(List("message" -> StringValue(e.toString)))
                        }))
                      else None),
-        "extensions" -> extensions
+        "extensions" -> extensions,
+        "hasNext"    -> incremental.map(_ => BooleanValue(true))
       ).collect { case (name, Some(v)) => name -> v }
     )
 }
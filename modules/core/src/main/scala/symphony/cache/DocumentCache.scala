@@ -0,0 +1,67 @@
+package symphony.cache
+
+import symphony.execution.ExecutionPlan
+import symphony.parser.SymphonyQLError
+import symphony.parser.SymphonyQLError.ParsingError
+import symphony.parser.{ ParserEngine, SymphonyQLParser }
+import symphony.parser.adt.Document
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Caches the result of parsing a query text, including parsing errors, together with the execution plans compiled
+ * from it. A `maximumSize` of zero or less disables caching.
+ */
+final class DocumentCache(maximumSize: Int, parserEngine: ParserEngine = ParserEngine.Parboiled) {
+
+  private val cache: Option[LruCache[String, CachedDocument]] =
+    if (maximumSize > 0) Some(LruCache(maximumSize)) else None
+
+  def lookup(query: String): Option[CachedDocument] = cache.flatMap(_.get(query))
+
+  def parse(query: String): CachedDocument =
+    lookup(query).getOrElse(parseAndStore(query))
+
+  def parseAndStore(query: String): CachedDocument = {
+    val result = new CachedDocument(SymphonyQLParser.parseQuery(query, parserEngine))
+    cache.foreach(_.put(query, result))
+    result
+  }
+
+  def clear(): Unit = cache.foreach(_.clear())
+
+  def stats: CacheStats = cache.fold(CacheStats(0, 0, 0, 0))(_.stats)
+}
+
+final class CachedDocument(val document: Either[ParsingError, Document]) {
+
+  private val plans = new ConcurrentHashMap[Option[String], Either[SymphonyQLError, ExecutionPlan]]()
+
+  @volatile private var validation: Either[SymphonyQLError, Unit] = null
+
+  /**
+   * Validates the document once, later calls return the same result.
+   */
+  def validate(validator: Document => Either[SymphonyQLError, Unit]): Either[SymphonyQLError, Document] =
+    document.flatMap { doc =>
+      var result = validation
+      if (result eq null) {
+        result = validator(doc)
+        validation = result
+      }
+      result.map(_ => doc)
+    }
+
+  def plan(operationName: Option[String])(
+    compile: Document => Either[SymphonyQLError, ExecutionPlan]
+  ): Either[SymphonyQLError, ExecutionPlan] =
+    document.flatMap { doc =>
+      val cached = plans.get(operationName)
+      if (cached ne null) cached
+      else {
+        val compiled = compile(doc)
+        val existing = plans.putIfAbsent(operationName, compiled)
+        if (existing ne null) existing else compiled
+      }
+    }
+}
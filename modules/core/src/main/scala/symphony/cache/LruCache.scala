@@ -0,0 +1,101 @@
+package symphony.cache
+
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * A bounded, thread-safe LRU cache.
+ *
+ * Entries are spread over independently locked segments, so concurrent readers and writers only contend when their keys
+ * hash to the same segment. Values are computed outside of the segment lock.
+ */
+final class LruCache[K, V] private (maximumSize: Int, segmentCount: Int) {
+
+  private val hits      = new LongAdder
+  private val misses    = new LongAdder
+  private val evictions = new LongAdder
+
+  private val segmentMask = segmentCount - 1
+  private val segments    = Array.fill(segmentCount)(new LruCache.Segment[K, V](segmentCapacity, evictions))
+
+  private def segmentCapacity: Int = math.max(1, (maximumSize + segmentCount - 1) / segmentCount)
+
+  private def segmentFor(key: K): LruCache.Segment[K, V] = {
+    val h = key.hashCode
+    segments((h ^ (h >>> 16)) & segmentMask)
+  }
+
+  def get(key: K): Option[V] = {
+    val value = segmentFor(key).get(key)
+    if (value == null) {
+      misses.increment()
+      None
+    } else {
+      hits.increment()
+      Some(value)
+    }
+  }
+
+  def put(key: K, value: V): Unit = segmentFor(key).put(key, value)
+
+  def getOrElseUpdate(key: K, compute: => V): V = {
+    val segment = segmentFor(key)
+    val cached  = segment.get(key)
+    if (cached != null) {
+      hits.increment()
+      cached
+    } else {
+      misses.increment()
+      segment.putIfAbsent(key, compute)
+    }
+  }
+
+  def remove(key: K): Unit = segmentFor(key).remove(key)
+
+  def clear(): Unit = segments.foreach(_.clear())
+
+  def size: Int = segments.foldLeft(0)(_ + _.size)
+
+  def stats: CacheStats = CacheStats(hits.sum(), misses.sum(), evictions.sum(), size.toLong)
+}
+
+object LruCache {
+
+  def apply[K, V](maximumSize: Int): LruCache[K, V] = {
+    val parallelism = Runtime.getRuntime.availableProcessors() * 2
+    val target      = math.max(1, math.min(parallelism, maximumSize / 16))
+    new LruCache[K, V](maximumSize, Integer.highestOneBit(target))
+  }
+
+  private final class Segment[K, V](maxEntries: Int, evictions: LongAdder) {
+
+    private val entries = new java.util.LinkedHashMap[K, V](16, 0.75f, true) {
+      override def removeEldestEntry(eldest: java.util.Map.Entry[K, V]): Boolean = {
+        val evict = this.size() > maxEntries
+        if (evict) evictions.increment()
+        evict
+      }
+    }
+
+    def get(key: K): V = synchronized(entries.get(key))
+
+    def put(key: K, value: V): Unit = synchronized(entries.put(key, value))
+
+    def putIfAbsent(key: K, value: V): V = synchronized {
+      val existing = entries.putIfAbsent(key, value)
+      if (existing == null) value else existing
+    }
+
+    def remove(key: K): Unit = synchronized(entries.remove(key))
+
+    def clear(): Unit = synchronized(entries.clear())
+
+    def size: Int = synchronized(entries.size())
+  }
+}
+
+final case class CacheStats(hitCount: Long, missCount: Long, evictionCount: Long, size: Long) {
+
+  def requestCount: Long = hitCount + missCount
+
+  def hitRate: Double = if (requestCount == 0) 1.0 else hitCount.toDouble / requestCount
+}
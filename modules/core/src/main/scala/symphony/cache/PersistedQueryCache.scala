@@ -0,0 +1,77 @@
+package symphony.cache
+
+import symphony.SymphonyQLRequest
+import symphony.parser.SymphonyQLError
+import symphony.parser.SymphonyQLError.ValidationError
+import symphony.parser.SymphonyQLInputValue.ObjectValue
+import symphony.parser.SymphonyQLOutputValue
+import symphony.parser.SymphonyQLValue.{ IntValue, StringValue }
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+
+/**
+ * Keeps the documents of automatic persisted queries under the SHA-256 hash of their text.
+ *
+ * Clients send the hash alone in `extensions.persistedQuery.sha256Hash`. On a miss the request fails with
+ * [[PersistedQueryCache.NotFound]] and the client sends the hash again together with the query, which is registered
+ * once its hash has been verified. A `maximumSize` of zero or less disables persisted queries.
+ */
+final class PersistedQueryCache(maximumSize: Int) {
+
+  private val cache: Option[LruCache[String, PersistedQuery]] =
+    if (maximumSize > 0) Some(LruCache(maximumSize)) else None
+
+  def isEnabled: Boolean = cache.isDefined
+
+  def lookup(hash: String): Option[PersistedQuery] = cache.flatMap(_.get(hash))
+
+  def register(hash: String, query: String, document: CachedDocument): Unit =
+    cache.foreach(_.put(hash, PersistedQuery(query, document)))
+
+  def clear(): Unit = cache.foreach(_.clear())
+
+  def stats: CacheStats = cache.fold(CacheStats(0, 0, 0, 0))(_.stats)
+}
+
+final case class PersistedQuery(query: String, document: CachedDocument)
+
+object PersistedQueryCache {
+
+  val NotFound: ValidationError = error("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND")
+
+  val NotSupported: ValidationError = error("PersistedQueryNotSupported", "PERSISTED_QUERY_NOT_SUPPORTED")
+
+  val HashMismatch: ValidationError =
+    error("provided sha does not match query", "INVALID_PERSISTED_QUERY_HASH")
+
+  /**
+   * The hash of the persisted query a request refers to, if its extensions contain a `persistedQuery`.
+   */
+  def requestedHash(request: SymphonyQLRequest): Option[Either[SymphonyQLError, String]] =
+    request.extensions.flatMap(_.get("persistedQuery")).map {
+      case ObjectValue(fields) =>
+        (fields.get("version"), fields.get("sha256Hash")) match {
+          case (Some(IntValue.IntNumber(1)) | None, Some(StringValue(hash))) => Right(hash)
+          case (Some(IntValue.IntNumber(1)) | None, _)                       =>
+            Left(error("The persisted query hash is missing.", "INVALID_PERSISTED_QUERY"))
+          case _                                                             =>
+            Left(error("Unsupported persisted query version.", "INVALID_PERSISTED_QUERY"))
+        }
+      case _                   => Left(error("Invalid persisted query extension.", "INVALID_PERSISTED_QUERY"))
+    }
+
+  def sha256(query: String): String = {
+    val digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8))
+    val hex    = new java.lang.StringBuilder(digest.length * 2)
+    digest.foreach(b => hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16)))
+    hex.toString
+  }
+
+  private def error(msg: String, code: String): ValidationError =
+    ValidationError(
+      msg,
+      "Automatic persisted queries are identified by the SHA-256 hash of their text.",
+      extensions = Some(SymphonyQLOutputValue.ObjectValue(List("code" -> StringValue(code))))
+    )
+}
@@ -0,0 +1,114 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import symphony.schema.DataLoader
+
+import java.util.concurrent.atomic.AtomicInteger
+import scala.collection.mutable
+import scala.concurrent.*
+import scala.concurrent.duration.Duration
+import scala.jdk.CollectionConverters.*
+import scala.util.*
+
+/**
+ * The `DataLoader` state of a single request: keys waiting to be dispatched and the results of keys already requested.
+ *
+ * The executor counts the continuations it is waiting on, except the ones waiting on keys that were not dispatched
+ * yet. Keys are only dispatched once none is left, so the keys requested by continuations completing one after the
+ * other, like the fields of the elements of a list whose parents are resolved asynchronously, are loaded together.
+ */
+private[execution] final class BatchContext(implicit actorSystem: ActorSystem, ec: ExecutionContext) {
+
+  private val loaders = new java.util.IdentityHashMap[DataLoader[?, ?], BatchContext.LoaderState[?, ?]]()
+  private val active  = new AtomicInteger
+
+  /**
+   * Continues with `f` once the value of `key` is loaded.
+   */
+  def load[K, V, A](loader: DataLoader[K, V], key: K)(f: Option[V] => Future[A]): Future[A] = {
+    val state = loaders.synchronized {
+      loaders.computeIfAbsent(loader, _ => new BatchContext.LoaderState(loader, active))
+    }
+    state.asInstanceOf[BatchContext.LoaderState[K, V]].load(key) match {
+      case Left(value)  => value.flatMap(v => Try(f(v))).fold(Future.failed, identity)
+      case Right(value) => continue(value)(f)
+    }
+  }
+
+  /**
+   * Continues with `f` once `future` is completed, the keys are not dispatched in the meantime.
+   */
+  def await[A, B](future: Future[A])(f: A => Future[B]): Future[B] = {
+    active.incrementAndGet()
+    continue(future)(f)
+  }
+
+  /**
+   * Sends the pending keys of every loader without a collection window, unless a continuation is still expected.
+   */
+  def dispatch(): Unit =
+    if (active.get == 0) {
+      val states = loaders.synchronized(List.from(loaders.values().iterator().asScala))
+      states.foreach(state => if (state.loader.window == Duration.Zero) state.dispatch())
+    }
+
+  private def continue[A, B](future: Future[A])(f: A => Future[B]): Future[B] =
+    future.transformWith { result =>
+      try result.fold(Future.failed, f)
+      finally if (active.decrementAndGet() == 0) dispatch()
+    }
+}
+
+private object BatchContext {
+
+  private final class LoaderState[K, V](val loader: DataLoader[K, V], active: AtomicInteger)(implicit
+    actorSystem: ActorSystem,
+    ec: ExecutionContext
+  ) {
+    private val results   = mutable.HashMap.empty[K, Future[Option[V]]]
+    private val listeners = mutable.HashMap.empty[K, Int]
+    private var pending   = mutable.ArrayBuffer.empty[(K, Promise[Option[V]])]
+
+    /**
+     * The value of `key` if it is already loaded, or its future, whose continuation is counted as active once `key`
+     * has been dispatched.
+     */
+    def load(key: K): Either[Try[Option[V]], Future[Option[V]]] = {
+      var startWindow = false
+      val result      = synchronized {
+        results.get(key) match {
+          case Some(result) if result.isCompleted => Left(result.value.get)
+          case Some(result)                       =>
+            if (listeners.contains(key)) listeners(key) += 1 else active.incrementAndGet()
+            Right(result)
+          case None                               =>
+            val promise = Promise[Option[V]]()
+            startWindow = pending.isEmpty && loader.window > Duration.Zero
+            pending += key -> promise
+            listeners(key) = 1
+            results(key) = promise.future
+            Right(promise.future)
+        }
+      }
+      if (startWindow) actorSystem.scheduler.scheduleOnce(loader.window)(dispatch())
+      result
+    }
+
+    def dispatch(): Unit = {
+      val batch = synchronized {
+        val keys = pending
+        if (keys.nonEmpty) {
+          pending = mutable.ArrayBuffer.empty
+          active.addAndGet(keys.iterator.map((key, _) => listeners.remove(key).getOrElse(0)).sum)
+        }
+        keys
+      }
+      batch.grouped(loader.maxBatchSize).foreach { group =>
+        Try(loader.load(group.map(_._1).toSeq)).fold(Future.failed, identity).onComplete {
+          case Success(values) => group.foreach((key, promise) => promise.success(values.get(key)))
+          case Failure(error)  => group.foreach((_, promise) => promise.failure(error))
+        }(ExecutionContext.parasitic)
+      }
+    }
+  }
+}
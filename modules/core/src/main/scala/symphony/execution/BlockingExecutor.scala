@@ -0,0 +1,43 @@
+package symphony.execution
+
+import java.util.concurrent.*
+import scala.concurrent.{ Future, Promise }
+import scala.util.Try
+
+/**
+ * Runs blocking resolvers, see `Schema.mkBlocking`, on a virtual thread per call.
+ *
+ * At most `maxConcurrency` calls run at the same time, the others wait on their own virtual thread for a permit, so
+ * neither the actor dispatcher nor any platform thread is blocked.
+ */
+final class BlockingExecutor(maxConcurrency: Int) extends AutoCloseable {
+
+  private val executor =
+    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("symphonyql-blocking-", 0).factory())
+  private val permits  = new Semaphore(math.max(1, maxConcurrency))
+
+  def submit[A](run: () => A): Future[A] = {
+    val promise = Promise[A]()
+    try
+      executor.execute { () =>
+        var acquired = false
+        try {
+          permits.acquire()
+          acquired = true
+          promise.complete(Try(run()))
+        } catch {
+          // not caught by Try, raised by an interrupted wait for a permit or by the call itself
+          case e: InterruptedException => promise.tryFailure(e)
+        } finally if (acquired) permits.release()
+      }
+    catch {
+      case e: RejectedExecutionException => promise.failure(e)
+    }
+    promise.future
+  }
+
+  /**
+   * Stops accepting calls and waits for the running ones to complete.
+   */
+  def close(): Unit = executor.close()
+}
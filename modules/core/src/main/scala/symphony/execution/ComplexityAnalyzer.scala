@@ -0,0 +1,109 @@
+package symphony.execution
+
+import symphony.parser.*
+import symphony.parser.SymphonyQLOutputValue.ObjectValue
+import symphony.parser.SymphonyQLValue.IntValue
+import symphony.parser.adt.introspection.*
+import symphony.schema.{ CostDirective, Types }
+
+/**
+ * The static complexity of an operation.
+ *
+ * `depth` is the deepest level of nested fields, `breadth` the largest number of fields selected in a single selection
+ * set and `cost` the sum of the field weights, where the cost of the selections of a field is multiplied by the value
+ * of its multiplier argument.
+ */
+final case class QueryComplexity(depth: Int, breadth: Int, cost: Long) {
+
+  def toOutputValue: ObjectValue =
+    ObjectValue(List("depth" -> IntValue(depth), "breadth" -> IntValue(breadth), "cost" -> IntValue(cost)))
+}
+
+object QueryComplexity {
+  val empty: QueryComplexity = QueryComplexity(0, 0, 0L)
+}
+
+final case class ComplexityLimits(
+  maxDepth: Option[Int] = None,
+  maxBreadth: Option[Int] = None,
+  maxCost: Option[Long] = None
+) {
+
+  def isEmpty: Boolean = maxDepth.isEmpty && maxBreadth.isEmpty && maxCost.isEmpty
+
+  def check(complexity: QueryComplexity): Either[SymphonyQLError, QueryComplexity] = {
+    def exceeded(what: String, value: Long, max: Long) =
+      SymphonyQLError.ValidationError(
+        s"Query $what $value exceeds the maximum $what $max.",
+        "The operation is rejected before execution because it is too expensive.",
+        extensions = Some(ObjectValue(List("complexity" -> complexity.toOutputValue)))
+      )
+
+    maxDepth
+      .filter(complexity.depth > _)
+      .map(exceeded("depth", complexity.depth, _))
+      .orElse(maxBreadth.filter(complexity.breadth > _).map(exceeded("breadth", complexity.breadth, _)))
+      .orElse(maxCost.filter(complexity.cost > _).map(exceeded("cost", complexity.cost, _)))
+      .toLeft(complexity)
+  }
+}
+
+object ComplexityAnalyzer {
+
+  def analyze(plan: ExecutionPlan, variableValues: Map[String, SymphonyQLInputValue]): QueryComplexity =
+    loop(plan.selectionSet, plan.operation.opType, variableValues)
+
+  private def loop(
+    selectionSet: SelectionPlan,
+    tpe: __Type,
+    variableValues: Map[String, SymphonyQLInputValue]
+  ): QueryComplexity =
+    if (selectionSet.isEmpty) QueryComplexity.empty
+    else
+      tpe.kind match {
+        case __TypeKind.INTERFACE | __TypeKind.UNION =>
+          tpe.possibleTypes
+            .getOrElse(Nil)
+            .map(objectComplexity(selectionSet, _, variableValues))
+            .foldLeft(QueryComplexity.empty)(max)
+        case _                                       => objectComplexity(selectionSet, tpe, variableValues)
+      }
+
+  private def objectComplexity(
+    selectionSet: SelectionPlan,
+    tpe: __Type,
+    variableValues: Map[String, SymphonyQLInputValue]
+  ): QueryComplexity = {
+    val fields      = selectionSet.fieldsFor(tpe.name.getOrElse(""))
+    val definitions = tpe.allFields.map(f => f.name -> f).toMap
+    fields.foldLeft(QueryComplexity(0, fields.size, 0L)) { (acc, field) =>
+      definitions.get(field.name) match {
+        case Some(definition) =>
+          val (weight, multipliers) = CostDirective.of(definition)
+          val children              = loop(field.selectionSet, Types.innerType(definition._type), variableValues)
+          val arguments             = if (multipliers.isEmpty) Map.empty else field.arguments.bind(variableValues)
+          val multiplier            = multipliers.iterator
+            .flatMap(arguments.get)
+            .collectFirst { case v: IntValue => math.max(0L, v.toLong) }
+            .getOrElse(1L)
+          QueryComplexity(
+            math.max(acc.depth, children.depth + 1),
+            math.max(acc.breadth, children.breadth),
+            saturatedAdd(acc.cost, saturatedAdd(weight.toLong, saturatedMultiply(multiplier, children.cost)))
+          )
+        case None             => acc.copy(depth = math.max(acc.depth, 1))
+      }
+    }
+  }
+
+  private def max(a: QueryComplexity, b: QueryComplexity): QueryComplexity =
+    QueryComplexity(math.max(a.depth, b.depth), math.max(a.breadth, b.breadth), math.max(a.cost, b.cost))
+
+  private def saturatedAdd(a: Long, b: Long): Long = {
+    val sum = a + b
+    if (sum < 0) Long.MaxValue else sum
+  }
+
+  private def saturatedMultiply(a: Long, b: Long): Long =
+    if (a != 0 && b > Long.MaxValue / a) Long.MaxValue else a * b
+}
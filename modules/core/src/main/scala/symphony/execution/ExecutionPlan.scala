@@ -0,0 +1,255 @@
+package symphony.execution
+
+import symphony.parser.*
+import symphony.parser.adt.*
+import symphony.parser.adt.Definition.ExecutableDefinition.*
+import symphony.parser.adt.Selection.*
+import symphony.schema.{ Introspector, Operation }
+
+import java.util.concurrent.ConcurrentHashMap
+import scala.collection.mutable
+
+/**
+ * The compiled form of an operation: fragments are inlined, fields are merged by response key for each object type
+ * and arguments are turned into templates, so executing the plan only has to bind variables.
+ */
+final case class ExecutionPlan(
+  definition: OperationDefinition,
+  operation: Operation,
+  selectionSet: SelectionPlan,
+  isIntrospection: Boolean = false
+) {
+  def operationType: OperationType = definition.operationType
+}
+
+object ExecutionPlan {
+
+  def compile(document: Document, definition: OperationDefinition, operation: Operation): ExecutionPlan = {
+    val fragments           = document.fragmentDefinitions.map(f => f.name -> f).toMap
+    val variableDefinitions = definition.variableDefinitions.map(v => v.name -> v).toMap
+    ExecutionPlan(
+      definition,
+      operation,
+      SelectionPlan(definition.selectionSet, new SelectionPlan.Context(fragments, variableDefinitions)),
+      Introspector.isIntrospection(document)
+    )
+  }
+}
+
+/**
+ * A selection set whose fields are merged lazily, once per concrete object type.
+ */
+final class SelectionPlan private (val selections: List[Selection], context: SelectionPlan.Context) {
+
+  private val fieldsByType      = new ConcurrentHashMap[String, SelectionPlan.MergedFields]()
+  private val incrementalByType = new ConcurrentHashMap[String, SelectionPlan.Incremental]()
+
+  def isEmpty: Boolean = selections.isEmpty
+
+  /**
+   * The fields selected on any of the possible object types, merged by response key.
+   */
+  lazy val allFields: List[FieldPlan] = mergeFields(_ => true, SelectionPlan.inline)
+
+  def fieldsFor(typeName: String): List[FieldPlan] = mergedFieldsFor(typeName).fields
+
+  /**
+   * The fields selected on `typeName` with their response keys, shared by all the objects of that type in a response.
+   */
+  def mergedFieldsFor(typeName: String): SelectionPlan.MergedFields = {
+    val cached = fieldsByType.get(typeName)
+    if (cached ne null) cached
+    else {
+      val fields   = new SelectionPlan.MergedFields(mergeFields(_ == typeName, SelectionPlan.inline))
+      val existing = fieldsByType.putIfAbsent(typeName, fields)
+      if (existing ne null) existing else fields
+    }
+  }
+
+  /**
+   * The fields selected on `typeName` outside of the fragments deferred with `@defer`, and the deferred fragments. The
+   * split is only cached when the `if` and `label` arguments of `@defer` do not reference variables.
+   */
+  def incrementalFor(
+    typeName: String,
+    variableValues: Map[String, SymphonyQLInputValue]
+  ): SelectionPlan.Incremental = {
+    val cached = incrementalByType.get(typeName)
+    if (cached ne null) cached
+    else {
+      val deferred      = List.newBuilder[DeferredPlan]
+      var usesVariables = false
+      val fields        = mergeFields(
+        _ == typeName,
+        (directives, selections) =>
+          directives.find(_.name == "defer") match {
+            case Some(directive) =>
+              val arguments = ArgumentsPlan(directive.arguments, context.variableDefinitions)
+              usesVariables ||= arguments.hasVariables
+              val bound = arguments.bind(variableValues)
+              if (bound.get("if").contains(SymphonyQLValue.BooleanValue(false))) false
+              else {
+                val label = bound.get("label").collect { case SymphonyQLValue.StringValue(label) => label }
+                deferred += DeferredPlan(label, SelectionPlan(selections, context))
+                true
+              }
+            case None            => false
+          }
+      )
+      val incremental   = SelectionPlan.Incremental(new SelectionPlan.MergedFields(fields), deferred.result())
+      if (usesVariables) incremental
+      else {
+        val existing = incrementalByType.putIfAbsent(typeName, incremental)
+        if (existing ne null) existing else incremental
+      }
+    }
+  }
+
+  /**
+   * Merges the fields of the selections matching the type condition, the fragments for which `defer` returns `true`
+   * are left out.
+   */
+  private def mergeFields(
+    matches: String => Boolean,
+    defer: (List[Directive], List[Selection]) => Boolean
+  ): List[FieldPlan] = {
+    val merged = mutable.LinkedHashMap.empty[String, Field]
+    def loop(selections: List[Selection]): Unit =
+      selections.foreach {
+        case field: Field                           =>
+          val responseKey = field.alias.getOrElse(field.name)
+          merged.get(responseKey) match {
+            case Some(existing) =>
+              merged.update(responseKey, existing.copy(selectionSet = existing.selectionSet ++ field.selectionSet))
+            case None           => merged.update(responseKey, field)
+          }
+        case InlineFragment(tpc, dirs, select)      =>
+          if (tpc.forall(t => matches(t.name)) && !defer(dirs, select)) loop(select)
+        case FragmentSpread(spreadName, directives) =>
+          context.fragments.get(spreadName) match {
+            case Some(fragment) if matches(fragment.typeCondition.name) =>
+              if (!defer(directives, fragment.selectionSet)) loop(fragment.selectionSet)
+            case _                                                      => ()
+          }
+      }
+    loop(selections)
+    merged.iterator.map { case (responseKey, field) =>
+      FieldPlan(
+        responseKey,
+        field.name,
+        ArgumentsPlan(field.arguments, context.variableDefinitions),
+        SelectionPlan(field.selectionSet, context),
+        field,
+        field.directives.find(_.name == "stream").map(d => ArgumentsPlan(d.arguments, context.variableDefinitions))
+      )
+    }.toList
+  }
+}
+
+object SelectionPlan {
+
+  private[execution] final class Context(
+    val fragments: Map[String, FragmentDefinition],
+    val variableDefinitions: Map[String, VariableDefinition]
+  )
+
+  private val emptyContext = new Context(Map.empty, Map.empty)
+
+  val empty: SelectionPlan = new SelectionPlan(Nil, emptyContext)
+
+  /**
+   * Fields merged by response key, `responseKeys(i)` is the response key of the field `i`.
+   */
+  final class MergedFields(val fields: List[FieldPlan]) {
+    val responseKeys: IArray[String] = IArray.from(fields.map(_.responseKey))
+  }
+
+  /**
+   * The fields executed with the payload of an object, and the fragments delivered later.
+   */
+  final case class Incremental(fields: MergedFields, deferred: List[DeferredPlan])
+
+  private val inline: (List[Directive], List[Selection]) => Boolean = (_, _) => false
+
+  private[execution] def apply(selections: List[Selection], context: Context): SelectionPlan =
+    if (selections.isEmpty) empty else new SelectionPlan(selections, context)
+}
+
+final case class FieldPlan(
+  responseKey: String,
+  name: String,
+  arguments: ArgumentsPlan,
+  selectionSet: SelectionPlan,
+  field: Field,
+  stream: Option[ArgumentsPlan] = None
+) {
+  val isTypeName: Boolean = name == "__typename"
+}
+
+/**
+ * A fragment deferred with `@defer`, executed on the same object as the selection set it belongs to.
+ */
+final case class DeferredPlan(label: Option[String], selectionSet: SelectionPlan)
+
+/**
+ * Field arguments with slots for the variables they reference.
+ */
+final class ArgumentsPlan private (
+  val arguments: Map[String, SymphonyQLInputValue],
+  variableDefinitions: Map[String, VariableDefinition]
+) {
+
+  val hasVariables: Boolean = arguments.values.exists(ArgumentsPlan.containsVariable)
+
+  /**
+   * The arguments with their variables replaced by `variableValues`.
+   */
+  def bind(variableValues: Map[String, SymphonyQLInputValue]): Map[String, SymphonyQLInputValue] =
+    if (!hasVariables) arguments
+    else
+      arguments.flatMap { (name, value) =>
+        value match {
+          case SymphonyQLInputValue.VariableValue(variable) => lookup(variable, variableValues).map(name -> _)
+          case value                                        => Some(name -> resolve(value, variableValues))
+        }
+      }
+
+  private def lookup(
+    variable: String,
+    variableValues: Map[String, SymphonyQLInputValue]
+  ): Option[SymphonyQLInputValue] =
+    variableValues.get(variable) orElse variableDefinitions.get(variable).flatMap(_.defaultValue)
+
+  private def resolve(
+    value: SymphonyQLInputValue,
+    variableValues: Map[String, SymphonyQLInputValue]
+  ): SymphonyQLInputValue =
+    value match {
+      case SymphonyQLInputValue.VariableValue(variable) =>
+        lookup(variable, variableValues).getOrElse(SymphonyQLValue.NullValue)
+      case SymphonyQLInputValue.ListValue(values)       =>
+        SymphonyQLInputValue.ListValue(values.map(resolve(_, variableValues)))
+      case SymphonyQLInputValue.ObjectValue(fields)     =>
+        SymphonyQLInputValue.ObjectValue(fields.map((k, v) => k -> resolve(v, variableValues)))
+      case value                                        => value
+    }
+}
+
+object ArgumentsPlan {
+
+  val empty: ArgumentsPlan = new ArgumentsPlan(Map.empty, Map.empty)
+
+  def apply(
+    arguments: Map[String, SymphonyQLInputValue],
+    variableDefinitions: Map[String, VariableDefinition]
+  ): ArgumentsPlan =
+    if (arguments.isEmpty) empty else new ArgumentsPlan(arguments, variableDefinitions)
+
+  private def containsVariable(value: SymphonyQLInputValue): Boolean =
+    value match {
+      case SymphonyQLInputValue.VariableValue(_)    => true
+      case SymphonyQLInputValue.ListValue(values)   => values.exists(containsVariable)
+      case SymphonyQLInputValue.ObjectValue(fields) => fields.values.exists(containsVariable)
+      case _                                        => false
+    }
+}
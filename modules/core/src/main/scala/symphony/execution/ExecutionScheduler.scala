@@ -0,0 +1,110 @@
+package symphony.execution
+
+import java.util.concurrent.atomic.AtomicInteger
+import scala.collection.immutable.ArraySeq
+import scala.concurrent.*
+import scala.util.*
+import scala.util.control.NonFatal
+
+/**
+ * Limits how many list elements and sibling fields wait on asynchronous resolvers at the same time.
+ *
+ * Elements are started in order until `maxRequestInFlight` of them are waiting in the request, or `maxGlobalInFlight`
+ * in all the requests of the `SymphonyQL` instance. Once `chunkSize` of them have completed, the next chunk of elements
+ * is started, so the keys that they request from a `DataLoader` are still loaded in batches. A list or an object with
+ * nothing in flight always starts its next element, which keeps nested lists from starving each other. Elements that
+ * are resolved synchronously do not count, and results keep the order of the elements.
+ */
+final class ExecutionScheduler(maxRequestInFlight: Int, maxGlobalInFlight: Int, chunkSize: Int) {
+
+  private val globalInFlight = new AtomicInteger
+  private val chunk          = math.max(1, math.min(chunkSize, math.min(maxRequestInFlight, maxGlobalInFlight)))
+
+  /**
+   * The number of elements of all the requests waiting on asynchronous resolvers.
+   */
+  def inFlight: Int = globalInFlight.get
+
+  private[execution] def newRequest()(implicit ec: ExecutionContext): ExecutionScheduler.Request =
+    new ExecutionScheduler.Request(this)
+
+  private def available(requestInFlight: Int, count: Int): Boolean =
+    maxRequestInFlight - requestInFlight >= count && maxGlobalInFlight - globalInFlight.get >= count
+}
+
+object ExecutionScheduler {
+
+  val unbounded: ExecutionScheduler = new ExecutionScheduler(Int.MaxValue, Int.MaxValue, Int.MaxValue)
+
+  private[execution] final class Request(scheduler: ExecutionScheduler)(implicit ec: ExecutionContext) {
+
+    private val inFlight = new AtomicInteger
+
+    /**
+     * Runs `run` on each item and its index and collects the results in order, `resumed` is called whenever elements
+     * were started after an asynchronous completion. The results are wrapped without being copied.
+     */
+    def traverse[A, B](items: List[A])(run: (A, Int) => Future[B])(resumed: () => Unit): Future[IndexedSeq[B]] =
+      items match {
+        case Nil         => Future.successful(IndexedSeq.empty)
+        case item :: Nil =>
+          try run(item, 0).map(IndexedSeq(_))(ExecutionContext.parasitic)
+          catch { case NonFatal(e) => Future.failed(e) }
+        case _           => new Traversal(items, run, resumed).start()
+      }
+
+    private final class Traversal[A, B](items: List[A], run: (A, Int) => Future[B], resumed: () => Unit) {
+      private val results   = new Array[Any](items.size)
+      private val promise   = Promise[IndexedSeq[B]]()
+      private var remaining = items
+      private var index     = 0
+      private var pending   = 0
+      private var blocked   = false
+
+      def start(): Future[IndexedSeq[B]] = {
+        pump()
+        promise.future
+      }
+
+      private def pump(): Unit = synchronized {
+        while (
+          remaining.nonEmpty && !promise.isCompleted &&
+          (pending == 0 || scheduler.available(inFlight.get, if (blocked) scheduler.chunk else 1))
+        ) {
+          blocked = false
+          val i      = index
+          val future =
+            try run(remaining.head, i)
+            catch { case NonFatal(e) => Future.failed(e) }
+          remaining = remaining.tail
+          index += 1
+          future.value match {
+            case Some(Success(value)) => results(i) = value
+            case Some(Failure(error)) => promise.tryFailure(error)
+            case None                 =>
+              pending += 1
+              inFlight.incrementAndGet()
+              scheduler.globalInFlight.incrementAndGet()
+              future.onComplete(complete(i, _))
+          }
+        }
+        if (remaining.nonEmpty) blocked = true
+        else if (pending == 0) promise.trySuccess(ArraySeq.unsafeWrapArray(results).asInstanceOf[IndexedSeq[B]])
+      }
+
+      private def complete(i: Int, result: Try[B]): Unit = {
+        inFlight.decrementAndGet()
+        scheduler.globalInFlight.decrementAndGet()
+        synchronized {
+          pending -= 1
+          result match {
+            case Success(value) => results(i) = value
+            case Failure(error) => promise.tryFailure(error)
+          }
+        }
+        pump()
+        resumed()
+      }
+    }
+  }
+}
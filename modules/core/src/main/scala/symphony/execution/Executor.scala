@@ -6,144 +6,373 @@ import org.apache.pekko.stream.scaladsl.*
 import symphony.parser.*
 import symphony.parser.SymphonyQLValue.*
 import symphony.parser.adt.*
-import symphony.parser.adt.Definition.ExecutableDefinition.*
-import symphony.parser.adt.OperationType.*
-import symphony.parser.adt.Selection.*
 import symphony.schema.*
 
-import scala.collection.immutable.ListMap
-import scala.concurrent.ExecutionContext
+import scala.concurrent.*
+import scala.util.*
 
 object Executor {
 
+  /**
+   * Executes a query or mutation by folding the stages directly into a `Future`, without materializing a stream.
+   * Stages that are already available are resolved synchronously, `Source` fields are collected into lists. The keys
+   * of `BatchStage`s are sent to their `DataLoader` once the executor has no work left besides waiting on them. Once
+   * the request scope is cancelled, the fields that are not resolved yet are `null`, see [[RequestScope]]. When the
+   * request has an [[IncrementalDelivery]], the fragments deferred with `@defer` and the elements after the
+   * `initialCount` of the lists streamed with `@stream` are left out and registered as incremental payloads. In
+   * streaming mode, `Source` fields are not collected: they are `StreamValue`s whose elements are resolved while the
+   * response is written.
+   */
+  def executeQuery(
+    request: ExecutionRequest
+  )(implicit actorSystem: ActorSystem, ec: ExecutionContext): Future[SymphonyQLOutputValue] = {
+    val variableValues = request.variableValues
+    val batches        = new BatchContext
+    val memoized       = new ResolverCache
+    val scheduled      = request.scheduler.newRequest()
+    val scope          = request.scope
+    val incremental    = request.incremental
+    val root           = incremental.fold(noPayloads)(_.payloads)
+
+    // the fields abandoned while resolving an incremental payload are reported with it
+    def abandoned(path: List[SymphonyQLPathValue], payloads: IncrementalDelivery.Payloads): Unit =
+      if (payloads eq root) scope.abandoned(path) else scope.abandonedError(path).foreach(payloads.abandoned)
+
+    // keys requested while running a continuation are dispatched once no other continuation is expected
+    def continueWith[A](future: Future[A])(f: A => Future[SymphonyQLOutputValue]): Future[SymphonyQLOutputValue] =
+      if (future.isCompleted) flatMapNow(future)(f)
+      else batches.await(scope.guard(future))(f)
+
+    def continueWithBatch[K, V](batch: Stage.BatchStage[K, V])(
+      f: Option[V] => Future[SymphonyQLOutputValue]
+    ): Future[SymphonyQLOutputValue] =
+      scope.guard(batches.load(batch.loader, batch.key)(f))
+
+    def loopExecuteStage(
+      stage: Stage,
+      selectionSet: SelectionPlan,
+      arguments: Map[String, SymphonyQLInputValue],
+      path: List[SymphonyQLPathValue],
+      payloads: IncrementalDelivery.Payloads
+    ): Future[SymphonyQLOutputValue] =
+      stage match
+        case p: PureStage                     => completed(resolveTypeName(p, selectionSet).value)
+        case Stage.FunctionStage(stage)       =>
+          loopExecuteStage(memoized.call(stage, arguments), selectionSet, Map(), path, payloads)
+        case Stage.MemoizedStage(stage)       => loopExecuteStage(stage(arguments), selectionSet, Map(), path, payloads)
+        case Stage.LookaheadStage(stage)      =>
+          val lookahead = new Lookahead(selectionSet, variableValues)
+          loopExecuteStage(stage(arguments, lookahead), selectionSet, Map(), path, payloads)
+        case Stage.FutureStage(future)        =>
+          continueWith(future)(loopExecuteStage(_, selectionSet, arguments, path, payloads))
+        case batch: Stage.BatchStage[k, v]    =>
+          continueWithBatch(batch)(v => loopExecuteStage(batch.stage(v), selectionSet, arguments, path, payloads))
+        case Stage.BlockingStage(run)         =>
+          continueWith(request.blockingExecutor.submit(run))(
+            loopExecuteStage(_, selectionSet, arguments, path, payloads)
+          )
+        case Stage.ScalaSourceStage(source)   =>
+          if (request.streaming) Future.successful(streamSource(source, selectionSet, arguments, path, payloads))
+          else
+            continueWith(source.via(scope.killSwitch.flow).runWith(Sink.seq[Stage]))(s =>
+              loopExecuteStage(Stage.ListStage(s.toList), selectionSet, arguments, path, payloads)
+            )
+        case Stage.JavaSourceStage(source)    =>
+          loopExecuteStage(Stage.ScalaSourceStage(source.asScala), selectionSet, arguments, path, payloads)
+        case Stage.ListStage(stages)          =>
+          val values = scheduled.traverse(stages) { (stage, i) =>
+            loopExecuteStage(stage, selectionSet, arguments, SymphonyQLPathValue.Index(i) :: path, payloads)
+          }(batches.dispatch)
+          mapNow(values)(SymphonyQLOutputValue.ListValue.indexed(_))
+        case Stage.ObjectStage(name, _fields) =>
+          val merged = incremental match {
+            case None    => selectionSet.mergedFieldsFor(name)
+            case Some(_) =>
+              val split = selectionSet.incrementalFor(name, variableValues)
+              split.deferred.foreach(defer(Stage.ObjectStage(name, _fields), _, path, payloads))
+              split.fields
+          }
+          val values = scheduled.traverse(merged.fields) { (field, _) =>
+            if (field.isTypeName) Future.successful(StringValue(name))
+            else {
+              val fieldPath = SymphonyQLPathValue.Key(field.responseKey) :: path
+              if (scope.isCancelled) {
+                abandoned(fieldPath, payloads)
+                NullFuture
+              } else {
+                val arguments = memoized.bind(field.arguments, variableValues)
+                val value     = _fields.get(field.name) match {
+                  case Some(Stage.MemoizedStage(stage)) =>
+                    val resolved = memoized.resolve(LazyFields.parentOf(_fields), field.name, arguments, stage)
+                    executeField(resolved, field, Map(), fieldPath, payloads)
+                  case Some(stage)                      => executeField(stage, field, arguments, fieldPath, payloads)
+                  case None                             => NullFuture
+                }
+                // an abandoned field is null, the fields that were already resolved are kept
+                if (value.isCompleted && value.value.get.isSuccess) value
+                else
+                  value.recover {
+                    case error if scope.isCancellation(error) =>
+                      abandoned(fieldPath, payloads)
+                      NullValue
+                  }
+              }
+            }
+          }(batches.dispatch)
+          mapNow(values)(SymphonyQLOutputValue.ObjectValue.indexed(merged.responseKeys, _))
+
+    def streamSource(
+      source: Source[Stage, NotUsed],
+      selectionSet: SelectionPlan,
+      arguments: Map[String, SymphonyQLInputValue],
+      path: List[SymphonyQLPathValue],
+      payloads: IncrementalDelivery.Payloads
+    ): SymphonyQLOutputValue =
+      // written after the response is complete, the deadline of the request lasts until the stream has been run
+      SymphonyQLOutputValue.StreamValue(
+        scope.retaining(source.via(scope.killSwitch.flow).zipWithIndex.mapAsync(StreamParallelism) { (stage, i) =>
+          try loopExecuteStage(stage, selectionSet, arguments, SymphonyQLPathValue.Index(i.toInt) :: path, payloads)
+          finally batches.dispatch()
+        })
+      )
+
+    def executeField(
+      stage: Stage,
+      field: FieldPlan,
+      arguments: Map[String, SymphonyQLInputValue],
+      path: List[SymphonyQLPathValue],
+      payloads: IncrementalDelivery.Payloads
+    ): Future[SymphonyQLOutputValue] =
+      field.stream.filter(_ => incremental.isDefined).map(_.bind(variableValues)) match {
+        case Some(stream) if !stream.get("if").contains(BooleanValue(false)) =>
+          val initialCount = stream.get("initialCount").collect { case count: IntValue => count.toInt }.getOrElse(0)
+          val label        = stream.get("label").collect { case StringValue(label) => label }
+          loopStreamStage(stage, field.selectionSet, arguments, path, payloads, initialCount, label)
+        case _                                                               =>
+          loopExecuteStage(stage, field.selectionSet, arguments, path, payloads)
+      }
+
+    // a deferred fragment runs with the rest of the request, its payload is delivered after the one of its parent
+    def defer(
+      stage: Stage,
+      deferred: DeferredPlan,
+      path: List[SymphonyQLPathValue],
+      payloads: IncrementalDelivery.Payloads
+    ): Unit = {
+      val children = new IncrementalDelivery.Payloads
+      val data     = loopExecuteStage(stage, deferred.selectionSet, Map(), path, children)
+      payloads.add(
+        data.transform { data =>
+          Success(IncrementalDelivery.deferred(deferred.label, path, data, children.fieldErrors) -> children)
+        }
+      )
+    }
+
+    // the elements of a streamed list after `initialCount` are delivered once the list has been
+    def loopStreamStage(
+      stage: Stage,
+      selectionSet: SelectionPlan,
+      arguments: Map[String, SymphonyQLInputValue],
+      path: List[SymphonyQLPathValue],
+      payloads: IncrementalDelivery.Payloads,
+      initialCount: Int,
+      label: Option[String]
+    ): Future[SymphonyQLOutputValue] = {
+      def loop(stage: Stage, arguments: Map[String, SymphonyQLInputValue]): Future[SymphonyQLOutputValue] =
+        loopStreamStage(stage, selectionSet, arguments, path, payloads, initialCount, label)
+
+      def item(stage: Stage, index: Int, children: IncrementalDelivery.Payloads): Future[SymphonyQLOutputValue] =
+        loopExecuteStage(stage, selectionSet, arguments, SymphonyQLPathValue.Index(index) :: path, children)
+
+      stage match
+        case Stage.FunctionStage(stage)     => loop(memoized.call(stage, arguments), Map())
+        case Stage.MemoizedStage(stage)     => loop(stage(arguments), Map())
+        case Stage.LookaheadStage(stage)    =>
+          loop(stage(arguments, new Lookahead(selectionSet, variableValues)), Map())
+        case Stage.FutureStage(future)      => continueWith(future)(loop(_, arguments))
+        case batch: Stage.BatchStage[k, v]  =>
+          continueWithBatch(batch)(v => loop(batch.stage(v), arguments))
+        case Stage.BlockingStage(run)       => continueWith(request.blockingExecutor.submit(run))(loop(_, arguments))
+        case Stage.JavaSourceStage(source)  => loop(Stage.ScalaSourceStage(source.asScala), arguments)
+        case Stage.ListStage(stages)        =>
+          val (initial, rest) = stages.splitAt(initialCount)
+          if (rest.nonEmpty) {
+            val children = new IncrementalDelivery.Payloads
+            val itemPath = SymphonyQLPathValue.Index(initialCount) :: path
+            val items    = scheduled.traverse(rest) { (stage, i) =>
+              item(stage, initialCount + i, children)
+            }(batches.dispatch)
+            payloads.add(items.transform { items =>
+              Success(IncrementalDelivery.items(label, itemPath, items, children.fieldErrors) -> children)
+            })
+          }
+          loopExecuteStage(Stage.ListStage(initial), selectionSet, arguments, path, payloads)
+        case Stage.ScalaSourceStage(source) =>
+          // the elements are pulled from a queue, so the rest of the source can wait for its payload to be delivered
+          val queue = source.via(scope.killSwitch.flow).runWith(Sink.queue[Stage]())
+          continueWith(take(queue, initialCount)) { initial =>
+            if (initial.size == initialCount)
+              payloads.add(
+                Source.unfoldAsync(queue)(queue => queue.pull().map(_.map(queue -> _))).zipWithIndex.mapAsync(1) {
+                  (stage, i) =>
+                    val index    = initialCount + i.toInt
+                    val children = new IncrementalDelivery.Payloads
+                    val itemPath = SymphonyQLPathValue.Index(index) :: path
+                    val value    = try item(stage, index, children) finally batches.dispatch()
+                    value.transform { v =>
+                      val items = IncrementalDelivery.items(label, itemPath, v.map(IndexedSeq(_)), children.fieldErrors)
+                      Success(items -> children)
+                    }
+                }
+              )
+            loopExecuteStage(Stage.ListStage(initial), selectionSet, arguments, path, payloads)
+          }
+        case _                              => loopExecuteStage(stage, selectionSet, arguments, path, payloads)
+    }
+
+    try loopExecuteStage(request.stage, request.selectionSet, Map(), Nil, root)
+    finally batches.dispatch()
+  }
+
   def executeRequest(
     request: ExecutionRequest
   )(implicit actorSystem: ActorSystem, ec: ExecutionContext): Source[SymphonyQLOutputValue, NotUsed] = {
-    val fragments           = request.fragments
-    val variableDefinitions = request.variableDefinitions
-    val variableValues      = request.variableValues
-    val operationType       = request.operationType
+    val variableValues = request.variableValues
+    val operationType  = request.operationType
+    val memoized       = new ResolverCache
+    val scheduled      = request.scheduler.newRequest()
+    val scope          = request.scope
+
+    def drain(stage: ExecutionStage): Future[SymphonyQLOutputValue] =
+      stage match
+        case PureStage(value)                        => Future.successful(value)
+        case ExecutionStage.FutureStage(future)      => scope.guard(future).flatMap(drain)
+        case ExecutionStage.ScalaSourceStage(source) =>
+          Future.successful(SymphonyQLOutputValue.StreamValue(source.via(scope.killSwitch.flow).mapAsync(1)(drain)))
+        case ExecutionStage.JavaSourceStage(source)  => drain(ExecutionStage.ScalaSourceStage(source.asScala))
+        case ExecutionStage.ListStage(stages)        =>
+          scheduled.traverse(stages)((stage, _) => drain(stage))(noop).map(SymphonyQLOutputValue.ListValue.indexed)
+        case ExecutionStage.ObjectStage(fields)      =>
+          scheduled.traverse(fields)((field, _) => drain(field._2).map(field._1 -> _))(noop).map(fields =>
+            SymphonyQLOutputValue.ObjectValue(fields.toList)
+          )
+
+    // list elements and fields are started by the scheduler, the stage is only deferred if one of them is pending
+    def scheduledStage(future: Future[SymphonyQLOutputValue]): ExecutionStage =
+      future.value match
+        case Some(Success(value)) => PureStage(value)
+        case _                    => ExecutionStage.FutureStage(future.map(PureStage(_)))
 
     def loopExecuteStage(
       stage: Stage,
-      selections: List[Selection],
+      selectionSet: SelectionPlan,
       arguments: Map[String, SymphonyQLInputValue]
     ): ExecutionStage =
       stage match
         case Stage.FutureStage(future)        =>
-          ExecutionStage.FutureStage(future.map(loopExecuteStage(_, selections, arguments)))
+          ExecutionStage.FutureStage(future.map(loopExecuteStage(_, selectionSet, arguments)))
         case Stage.ScalaSourceStage(source)   =>
           if (operationType == OperationType.Subscription) {
-            ExecutionStage.ScalaSourceStage(source.map(loopExecuteStage(_, selections, arguments)))
+            ExecutionStage.ScalaSourceStage(source.map(loopExecuteStage(_, selectionSet, arguments)))
           } else {
-            val future = source.runWith(Sink.seq[Stage]).map(s => Stage.ListStage(s.toList))
+            val future = source.via(scope.killSwitch.flow).runWith(Sink.seq[Stage]).map(s => Stage.ListStage(s.toList))
             loopExecuteStage(
               Stage.FutureStage(future),
-              selections,
+              selectionSet,
               arguments
             )
           }
         case Stage.JavaSourceStage(source)    =>
-          loopExecuteStage(Stage.ScalaSourceStage(source.asScala), selections, arguments)
-        case Stage.FunctionStage(stage)       => loopExecuteStage(stage(arguments), selections, Map())
+          loopExecuteStage(Stage.ScalaSourceStage(source.asScala), selectionSet, arguments)
+        case batch: Stage.BatchStage[k, v]    =>
+          val future = batch.loader.load(Seq(batch.key)).map(values => batch.stage(values.get(batch.key)))
+          loopExecuteStage(Stage.FutureStage(future), selectionSet, arguments)
+        case Stage.BlockingStage(run)         =>
+          loopExecuteStage(Stage.FutureStage(request.blockingExecutor.submit(run)), selectionSet, arguments)
+        case Stage.FunctionStage(stage)       => loopExecuteStage(memoized.call(stage, arguments), selectionSet, Map())
+        case Stage.MemoizedStage(stage)       => loopExecuteStage(stage(arguments), selectionSet, Map())
+        case Stage.LookaheadStage(stage)      =>
+          loopExecuteStage(stage(arguments, new Lookahead(selectionSet, variableValues)), selectionSet, Map())
         case Stage.ListStage(stages)          =>
           if (stages.forall(_.isInstanceOf[PureStage]))
             PureStage(SymphonyQLOutputValue.ListValue(stages.asInstanceOf[List[PureStage]].map(_.value)))
-          else ExecutionStage.ListStage(stages.map(loopExecuteStage(_, selections, arguments)))
-        case Stage.ObjectStage(name, _fields) =>
-          val mergedSelections = mergeSelections(selections, name, fragments, variableValues)
-          val fields           = mergedSelections.map {
-            case Selection.Field(alias, name @ "__typename", _, _, _) =>
-              alias.getOrElse(name) -> PureStage(StringValue(name))
-            case Selection.Field(alias, name, args, _, selectionSet)  =>
-              val arguments = extractVariables(args, variableDefinitions, variableValues)
-              alias.getOrElse(name) -> _fields
-                .get(name)
-                .map(loopExecuteStage(_, selectionSet, arguments))
-                .getOrElse(Stage.NullStage)
-          }
-          if (fields.map(_._2).forall(_.isInstanceOf[PureStage]))
-            PureStage(
-              SymphonyQLOutputValue.ObjectValue(
-                fields.asInstanceOf[List[(String, PureStage)]].map(kv => kv._1 -> kv._2.value)
-              )
+          else
+            scheduledStage(
+              scheduled
+                .traverse(stages)((stage, _) => drain(loopExecuteStage(stage, selectionSet, arguments)))(noop)
+                .map(SymphonyQLOutputValue.ListValue.indexed)(ExecutionContext.parasitic)
             )
-          else ExecutionStage.ObjectStage(fields)
-        case p @ PureStage(value)             =>
-          value match {
-            case EnumValue(v) if selections.collectFirst { case Selection.Field(_, "__typename", _, _, _) =>
-                  true
-                }.nonEmpty =>
-              val mergedSelections = mergeSelections(selections, v, fragments, variableValues)
-              val obj              = mergedSelections.collectFirst { case Selection.Field(alias, name @ "__typename", _, _, _) =>
-                SymphonyQLOutputValue.ObjectValue(List(alias.getOrElse(name) -> StringValue(v)))
-              }
-              obj.fold(p)(PureStage(_))
-            case _ => p
-          }
+        case Stage.ObjectStage(name, _fields) =>
+          val merged = selectionSet.mergedFieldsFor(name)
+          val values = scheduled.traverse(merged.fields) { (field, _) =>
+            if (field.isTypeName) Future.successful(StringValue(name))
+            else {
+              val arguments = memoized.bind(field.arguments, variableValues)
+              drain(_fields.get(field.name) match {
+                case Some(Stage.MemoizedStage(stage)) =>
+                  val resolved = memoized.resolve(LazyFields.parentOf(_fields), field.name, arguments, stage)
+                  loopExecuteStage(resolved, field.selectionSet, Map())
+                case Some(stage)                      => loopExecuteStage(stage, field.selectionSet, arguments)
+                case None                             => Stage.NullStage
+              })
+            }
+          }(noop)
+          scheduledStage(
+            values.map(SymphonyQLOutputValue.ObjectValue.indexed(merged.responseKeys, _))(ExecutionContext.parasitic)
+          )
+        case p: PureStage                     => resolveTypeName(p, selectionSet)
 
-    val executionStage = loopExecuteStage(request.stage, request.selectionSet, Map())
-    drainExecutionStages(executionStage)
+    Source.future(drain(loopExecuteStage(request.stage, request.selectionSet, Map())))
   }
 
-  private def drainExecutionStages(stage: ExecutionStage): Source[SymphonyQLOutputValue, NotUsed] =
-    stage match
-      case ExecutionStage.FutureStage(future)                                 =>
-        Source.future(future).flatMapConcat(drainExecutionStages)
-      case ExecutionStage.ScalaSourceStage(source)                            =>
-        val sourceStage = source.flatMapConcat(drainExecutionStages)
-        Source.single(SymphonyQLOutputValue.StreamValue(sourceStage))
-      case ExecutionStage.JavaSourceStage(source)                             =>
-        drainExecutionStages(ExecutionStage.ScalaSourceStage(source.asScala))
-      case ExecutionStage.ListStage(stages)                                   =>
-        val sourceList = stages.map(drainExecutionStages)
-        Source.zipN(sourceList).map(s => SymphonyQLOutputValue.ListValue(s.toList))
-      case ExecutionStage.ObjectStage(stages: List[(String, ExecutionStage)]) =>
-        val sourceList = stages.map(kv => drainExecutionStages(kv._2).map(s => kv._1 -> s))
-        Source.zipN(sourceList).map(s => SymphonyQLOutputValue.ObjectValue(s.toList))
-      case PureStage(value)                                                   => Source.single(value)
-
-  private def extractVariables(
-    arguments: Map[String, SymphonyQLInputValue],
-    variableDefinitions: List[VariableDefinition],
-    variableValues: Map[String, SymphonyQLInputValue]
-  ): Map[String, SymphonyQLInputValue] =
-    arguments.map { (k, v) =>
-      k -> (v match {
-        case SymphonyQLInputValue.VariableValue(name) =>
-          variableValues.get(name) orElse variableDefinitions.find(_.name == name).flatMap(_.defaultValue) getOrElse v
-        case value                                    => value
-      })
-    }
+  private val noop: () => Unit = () => ()
+
+  private val NullFuture: Future[SymphonyQLOutputValue]  = Future.successful(NullValue)
+  private val TrueFuture: Future[SymphonyQLOutputValue]  = Future.successful(BooleanValue.True)
+  private val FalseFuture: Future[SymphonyQLOutputValue] = Future.successful(BooleanValue.False)
+
+  // the leaves holding a shared value are returned without allocating a future
+  private def completed(value: SymphonyQLOutputValue): Future[SymphonyQLOutputValue] =
+    if (value eq NullValue) NullFuture
+    else if (value eq BooleanValue.True) TrueFuture
+    else if (value eq BooleanValue.False) FalseFuture
+    else Future.successful(value)
+
+  // the number of elements of a streamed source resolved ahead of the one being written
+  private val StreamParallelism = 16
+
+  // never added to, the requests without incremental delivery execute deferred fragments inline
+  private val noPayloads = new IncrementalDelivery.Payloads
+
+  private def take[A](queue: SinkQueueWithCancel[A], count: Int)(implicit ec: ExecutionContext): Future[List[A]] =
+    if (count <= 0) Future.successful(Nil)
+    else
+      queue.pull().flatMap {
+        case Some(head) => take(queue, count - 1).map(head :: _)
+        case None       => Future.successful(Nil)
+      }
 
-  private def mergeSelections(
-    selections: List[Selection],
-    name: String,
-    fragments: Map[String, FragmentDefinition],
-    variableValues: Map[String, SymphonyQLInputValue]
-  ): List[Field] = {
-    val fields = selections.flatMap {
-      case field: Field                   => List(field)
-      case InlineFragment(tpc, _, select) =>
-        val isAvailableType = tpc.fold(true)(_.name == name)
-        if (isAvailableType) mergeSelections(select, name, fragments, variableValues) else List.empty
-      case FragmentSpread(spreadName, _)  =>
-        fragments.get(spreadName) match {
-          case Some(fragment) if fragment.typeCondition.name == name =>
-            mergeSelections(fragment.selectionSet, name, fragments, variableValues)
-          case _                                                     => List.empty
+  private def resolveTypeName(stage: PureStage, selectionSet: SelectionPlan): PureStage =
+    stage.value match {
+      case EnumValue(v) if !selectionSet.isEmpty =>
+        val typeNames = selectionSet.fieldsFor(v).collect {
+          case field if field.isTypeName => field.responseKey -> StringValue(v)
         }
+        if (typeNames.isEmpty) stage else PureStage(SymphonyQLOutputValue.ObjectValue(typeNames))
+      case _                                     => stage
+    }
+
+  private def mapNow[A, B](future: Future[A])(f: A => B)(implicit ec: ExecutionContext): Future[B] =
+    future.value match {
+      case Some(Success(value)) => Future.fromTry(Try(f(value)))
+      case Some(Failure(error)) => Future.failed(error)
+      case None                 => future.map(f)
+    }
+
+  private def flatMapNow[A, B](future: Future[A])(f: A => Future[B])(implicit ec: ExecutionContext): Future[B] =
+    future.value match {
+      case Some(Success(value)) => Try(f(value)).fold(Future.failed, identity)
+      case Some(Failure(error)) => Future.failed(error)
+      case None                 => future.flatMap(f)
     }
-    fields
-      .foldLeft(ListMap.empty[String, Field]) { (result, field) =>
-        result.updated(
-          field.name,
-          result
-            .get(field.name)
-            .fold(field)(f => f.copy(selectionSet = f.selectionSet ++ field.selectionSet))
-        )
-      }
-      .values
-      .toList
-  }
 }
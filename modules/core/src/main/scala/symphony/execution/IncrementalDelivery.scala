@@ -0,0 +1,182 @@
+package symphony.execution
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.stream.Materializer
+import org.apache.pekko.stream.scaladsl.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLOutputValue.*
+import symphony.parser.SymphonyQLValue.*
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import scala.collection.mutable
+import scala.concurrent.*
+import scala.jdk.CollectionConverters.*
+import scala.util.*
+
+/**
+ * The payloads of the fragments deferred with `@defer` and of the list elements streamed with `@stream`.
+ *
+ * Deferred fragments start executing with the rest of the request, the remaining elements of a `Source` are only pulled
+ * once the payload of their list has been delivered. A payload is delivered after the payload it belongs to, the ones
+ * completed in the meantime are sent together as `{"incremental": [...], "hasNext": ...}`. The fields abandoned while a
+ * payload is resolved are reported in its `errors`.
+ */
+final class IncrementalDelivery private[symphony] (scope: RequestScope) {
+
+  private val root    = new IncrementalDelivery.Payloads
+  private val ready   = mutable.ArrayBuffer.empty[SymphonyQLOutputValue]
+  private var pending = 0
+  private var waiting = Option.empty[Promise[Unit]]
+  private var done    = false
+
+  private[execution] def payloads: IncrementalDelivery.Payloads = root
+
+  /**
+   * Whether the request deferred anything.
+   */
+  def nonEmpty: Boolean = !root.isEmpty
+
+  /**
+   * The incremental payloads, to be sent after the initial one.
+   */
+  private[symphony] def stream(implicit materializer: Materializer): Source[SymphonyQLOutputValue, NotUsed] =
+    Source
+      .lazySource { () =>
+        run(synchronized(register(root)))
+        Source.unfoldAsync(())(_ => next())
+      }
+      .mapMaterializedValue(_ => NotUsed)
+
+  // counted as pending before the payload they belong to is ready, so that it is not sent with `hasNext: false`
+  private def register(payloads: IncrementalDelivery.Payloads): List[IncrementalDelivery.Pending] = {
+    val drained = payloads.drain()
+    pending += drained.size
+    drained
+  }
+
+  private def run(drained: List[IncrementalDelivery.Pending])(implicit materializer: Materializer): Unit =
+    drained.foreach {
+      // not guarded, once the request is cancelled the fields of the payload are abandoned and reported with it
+      case Left(payload)  =>
+        payload.onComplete(payload => release(payload.toOption, last = true))(ExecutionContext.parasitic)
+      case Right(payload) =>
+        payload
+          .via(scope.killSwitch.flow)
+          .runForeach(payload => release(Some(payload), last = false))
+          .onComplete(_ => release(None, last = true))(ExecutionContext.parasitic)
+    }
+
+  // a payload and the completion of its source are recorded together, the payloads nested in it are delivered after it
+  private def release(
+    payload: Option[(SymphonyQLOutputValue, IncrementalDelivery.Payloads)],
+    last: Boolean
+  )(implicit materializer: Materializer): Unit = {
+    val (children, promise) = synchronized {
+      payload.foreach(ready += _._1)
+      if (last) pending -= 1
+      val children = payload.fold(Nil)(payload => register(payload._2))
+      val promise  = waiting
+      waiting = None
+      children -> promise
+    }
+    run(children)
+    promise.foreach(_.trySuccess(()))
+  }
+
+  private def next(): Future[Option[(Unit, SymphonyQLOutputValue)]] = {
+    val next: Either[Future[Unit], Option[SymphonyQLOutputValue]] = synchronized {
+      if (done) Right(None)
+      else if (ready.nonEmpty || pending == 0) {
+        val incremental = ready.toList
+        ready.clear()
+        done = pending == 0
+        val hasNext = "hasNext" -> BooleanValue(!done)
+        val fields  = if (incremental.isEmpty) List(hasNext) else List("incremental" -> ListValue(incremental), hasNext)
+        Right(Some(ObjectValue(fields)))
+      } else {
+        val promise = Promise[Unit]()
+        waiting = Some(promise)
+        Left(promise.future)
+      }
+    }
+    next match {
+      case Right(payload) => Future.successful(payload.map(() -> _))
+      case Left(offered)  => offered.flatMap(_ => this.next())(ExecutionContext.parasitic)
+    }
+  }
+}
+
+object IncrementalDelivery {
+
+  /**
+   * A payload that is computed once, or a source of payloads, each with the payloads nested in it.
+   */
+  private[execution] type Pending =
+    Either[Future[(SymphonyQLOutputValue, Payloads)], Source[(SymphonyQLOutputValue, Payloads), NotUsed]]
+
+  /**
+   * The deferred payloads registered while executing a payload.
+   */
+  private[execution] final class Payloads {
+    private val pending = new ConcurrentLinkedQueue[Pending]()
+    private val errors  = new ConcurrentLinkedQueue[SymphonyQLError]()
+
+    def isEmpty: Boolean = pending.isEmpty
+
+    def abandoned(error: SymphonyQLError): Unit = errors.add(error)
+
+    /**
+     * The errors of the fields abandoned while executing the payload.
+     */
+    def fieldErrors: List[SymphonyQLError] = errors.asScala.toList
+
+    def add(payload: Future[(SymphonyQLOutputValue, Payloads)]): Unit = pending.add(Left(payload))
+
+    def add(source: Source[(SymphonyQLOutputValue, Payloads), NotUsed]): Unit = pending.add(Right(source))
+
+    /**
+     * Removes the registered payloads, a payload registered concurrently is either returned or kept for the next call.
+     */
+    def drain(): List[Pending] = {
+      val drained = List.newBuilder[Pending]
+      var next    = pending.poll()
+      while (next ne null) {
+        drained += next
+        next = pending.poll()
+      }
+      drained.result()
+    }
+  }
+
+  private[execution] def pathValue(path: List[SymphonyQLPathValue]): SymphonyQLOutputValue = ListValue(path.reverse)
+
+  private[execution] def deferred(
+    label: Option[String],
+    path: List[SymphonyQLPathValue],
+    data: Try[SymphonyQLOutputValue],
+    fieldErrors: List[SymphonyQLError]
+  ): SymphonyQLOutputValue =
+    ObjectValue(
+      List("data" -> data.getOrElse(NullValue)) ++ errors(data.failed.toOption, fieldErrors) ++
+        List("path" -> pathValue(path)) ++ label.map(l => "label" -> StringValue(l))
+    )
+
+  private[execution] def items(
+    label: Option[String],
+    path: List[SymphonyQLPathValue],
+    items: Try[IndexedSeq[SymphonyQLOutputValue]],
+    fieldErrors: List[SymphonyQLError]
+  ): SymphonyQLOutputValue =
+    ObjectValue(
+      List("items" -> items.fold(_ => NullValue, ListValue.indexed(_))) ++ errors(items.failed.toOption, fieldErrors) ++
+        List("path" -> pathValue(path)) ++ label.map(l => "label" -> StringValue(l))
+    )
+
+  private def errors(error: Option[Throwable], fieldErrors: List[SymphonyQLError]): Option[(String, ListValue)] = {
+    val all = error.map {
+      case e: SymphonyQLError => e
+      case e                  => SymphonyQLError.ExecutionError(e.getMessage, innerThrowable = Some(e))
+    } ++: fieldErrors
+    Option.when(all.nonEmpty)("errors" -> ListValue(all.map(_.toOutputValue)))
+  }
+}
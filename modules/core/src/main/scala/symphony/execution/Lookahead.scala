@@ -0,0 +1,81 @@
+package symphony.execution
+
+import symphony.parser.SymphonyQLInputValue
+
+import scala.jdk.CollectionConverters.*
+import scala.jdk.OptionConverters.*
+
+/**
+ * The fields selected on the value returned by a resolver, see `Schema.mkLookaheadFunction`.
+ *
+ * Fragments are merged and variables are bound, so a resolver can for instance only fetch the columns that are queried
+ * or join the relations that are selected. `__typename` is not part of the selected fields.
+ */
+final class Lookahead private[symphony] (
+  selectionSet: SelectionPlan,
+  variableValues: Map[String, SymphonyQLInputValue]
+) {
+  import Lookahead.SelectedField
+
+  /**
+   * The fields selected on any of the possible object types of the value.
+   */
+  lazy val fields: List[SelectedField] = selected(selectionSet.allFields)
+
+  /**
+   * The fields selected when the value is of the object type `typeName`.
+   */
+  def fieldsFor(typeName: String): List[SelectedField] = selected(selectionSet.fieldsFor(typeName))
+
+  def isEmpty: Boolean = fields.isEmpty
+
+  def names: Set[String] = fields.iterator.map(_.name).toSet
+
+  def contains(name: String): Boolean = fields.exists(_.name == name)
+
+  def field(name: String): Option[SelectedField] = fields.find(_.name == name)
+
+  /**
+   * Java API
+   */
+  def getFields: java.util.List[SelectedField] = fields.asJava
+
+  /**
+   * Java API
+   */
+  def getField(name: String): java.util.Optional[SelectedField] = field(name).toJava
+
+  private def selected(fields: List[FieldPlan]): List[SelectedField] =
+    fields.collect {
+      case field if !field.isTypeName =>
+        SelectedField(
+          field.name,
+          field.responseKey,
+          field.arguments.bind(variableValues),
+          new Lookahead(field.selectionSet, variableValues)
+        )
+    }
+
+  override def toString: String = fields.mkString("Lookahead(", ", ", ")")
+}
+
+object Lookahead {
+
+  val empty: Lookahead = new Lookahead(SelectionPlan.empty, Map.empty)
+
+  /**
+   * A selected field, `responseKey` is its alias if it has one, otherwise its name.
+   */
+  final case class SelectedField(
+    name: String,
+    responseKey: String,
+    arguments: Map[String, SymphonyQLInputValue],
+    selection: Lookahead
+  ) {
+
+    /**
+     * Java API
+     */
+    def getArguments: java.util.Map[String, SymphonyQLInputValue] = arguments.asJava
+  }
+}
@@ -0,0 +1,94 @@
+package symphony.execution
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.stream.scaladsl.Source
+import org.apache.pekko.stream.{ KillSwitches, SharedKillSwitch }
+import symphony.parser.SymphonyQLError.ExecutionError
+import symphony.parser.{ SymphonyQLError, SymphonyQLPathValue }
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.{ AtomicBoolean, AtomicInteger }
+import scala.concurrent.*
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.CollectionConverters.*
+import scala.jdk.DurationConverters.*
+
+/**
+ * The lifetime of the execution of a request, which can be cancelled with `cancel` or by a deadline.
+ *
+ * Once cancelled, no more fields are started, the resolvers that are still pending are abandoned and the `Source`s
+ * being run are stopped. The fields that could not be resolved are `null` and reported as errors next to the partial
+ * data. `timeout` overrides the timeouts configured on the `SymphonyQL` instance, the deadline of a request lasts until
+ * its response and the incremental payloads or the streamed values written after it are complete.
+ */
+final class RequestScope(val timeout: Option[FiniteDuration] = None) {
+
+  private val cancellation = Promise[ExecutionError]()
+  private val errors       = new ConcurrentLinkedQueue[SymphonyQLError]()
+  private val running      = new AtomicInteger
+  private val finished     = Promise[Unit]()
+
+  private lazy val cancelled: Future[Nothing] =
+    cancellation.future.flatMap(Future.failed)(ExecutionContext.parasitic)
+
+  private[execution] val killSwitch: SharedKillSwitch = KillSwitches.shared("symphonyql-request")
+
+  /**
+   * Java API
+   */
+  def this(timeout: java.time.Duration) = this(Some(timeout.toScala))
+
+  def isCancelled: Boolean = cancellation.isCompleted
+
+  def cancel(): Unit = cancel(ExecutionError("The request was cancelled."))
+
+  private[symphony] def cancel(error: ExecutionError): Unit =
+    if (cancellation.trySuccess(error)) killSwitch.abort(error)
+
+  private[symphony] def timedOut(timeout: FiniteDuration): Unit =
+    cancel(ExecutionError(s"The request timed out after $timeout."))
+
+  /**
+   * The errors of the fields that were abandoned.
+   */
+  def fieldErrors: List[SymphonyQLError] = errors.asScala.toList
+
+  private[execution] def cancellationError: Option[ExecutionError] = cancellation.future.value.flatMap(_.toOption)
+
+  private[execution] def isCancellation(error: Throwable): Boolean =
+    cancellationError.exists(_ eq error)
+
+  /**
+   * `future`, or the cancellation error if the request is cancelled first.
+   */
+  private[execution] def guard[A](future: Future[A]): Future[A] =
+    if (future.isCompleted) future
+    else Future.firstCompletedOf(List(future, cancelled))(ExecutionContext.parasitic)
+
+  private[execution] def abandoned(path: List[SymphonyQLPathValue]): Unit =
+    abandonedError(path).foreach(errors.add)
+
+  private[execution] def abandonedError(path: List[SymphonyQLPathValue]): Option[ExecutionError] =
+    cancellationError.map(_.copy(path = path.reverse))
+
+  /**
+   * Completed once everything the request was retained for is complete.
+   */
+  private[symphony] def completed: Future[Unit] = finished.future
+
+  private[symphony] def retain(): Unit = running.incrementAndGet()
+
+  private[symphony] def release(): Unit = if (running.decrementAndGet() == 0) finished.trySuccess(())
+
+  /**
+   * `source`, the request is retained until it has been run.
+   */
+  private[symphony] def retaining[A](source: Source[A, NotUsed]): Source[A, NotUsed] = {
+    val released = new AtomicBoolean
+    retain()
+    source.watchTermination() { (_, done) =>
+      done.onComplete(_ => if (released.compareAndSet(false, true)) release())(ExecutionContext.parasitic)
+      NotUsed
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package symphony.execution
+
+import symphony.parser.{ SymphonyQLError, SymphonyQLInputValue }
+import symphony.schema.Stage
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * The results of the memoized resolvers of a request, see `Schema.mkMemoized`, by parent value, field name and
+ * arguments, and the field arguments bound and decoded for the request.
+ */
+private[execution] final class ResolverCache {
+
+  private val results   = new ConcurrentHashMap[ResolverCache.Key, Stage]()
+  private val bound     = new ConcurrentHashMap[ArgumentsPlan, Map[String, SymphonyQLInputValue]]()
+  private val extracted = new ConcurrentHashMap[ResolverCache.Extraction, Either[SymphonyQLError, Any]]()
+
+  def resolve(
+    parent: AnyRef,
+    field: String,
+    arguments: Map[String, SymphonyQLInputValue],
+    resolver: Map[String, SymphonyQLInputValue] => Stage
+  ): Stage =
+    results.computeIfAbsent(new ResolverCache.Key(parent, field, arguments), _ => call(resolver, arguments))
+
+  /**
+   * The arguments of a field with their variables replaced, a field is bound once for all the elements of a list.
+   */
+  def bind(
+    arguments: ArgumentsPlan,
+    variableValues: Map[String, SymphonyQLInputValue]
+  ): Map[String, SymphonyQLInputValue] =
+    if (!arguments.hasVariables) arguments.arguments
+    else bound.computeIfAbsent(arguments, _.bind(variableValues))
+
+  /**
+   * Calls `function` with `arguments`, the arguments that it decodes are decoded once for the same bound arguments.
+   */
+  def call(function: Map[String, SymphonyQLInputValue] => Stage, arguments: Map[String, SymphonyQLInputValue]): Stage =
+    function match {
+      case function: Stage.ArgumentsFunction[a] =>
+        val key = new ResolverCache.Extraction(function.extract, arguments)
+        val input = extracted.computeIfAbsent(key, _ => function.extract(arguments))
+        function.run(input.asInstanceOf[Either[SymphonyQLError, a]])
+      case function                             => function(arguments)
+    }
+}
+
+private[execution] object ResolverCache {
+
+  // parents are compared by identity, two equal values are still resolved separately
+  final class Key(val parent: AnyRef, val field: String, val arguments: Map[String, SymphonyQLInputValue]) {
+
+    override def equals(other: Any): Boolean =
+      other match {
+        case key: Key => (key.parent eq parent) && key.field == field && key.arguments == arguments
+        case _        => false
+      }
+
+    override val hashCode: Int = (System.identityHashCode(parent) * 31 + field.hashCode) * 31 + arguments.hashCode
+  }
+
+  // bound arguments are shared by the elements of a list, so they are compared by identity like the extractors
+  final class Extraction(val extract: AnyRef, val arguments: AnyRef) {
+
+    override def equals(other: Any): Boolean =
+      other match {
+        case extraction: Extraction => (extraction.extract eq extract) && (extraction.arguments eq arguments)
+        case _                      => false
+      }
+
+    override val hashCode: Int = System.identityHashCode(extract) * 31 + System.identityHashCode(arguments)
+  }
+}
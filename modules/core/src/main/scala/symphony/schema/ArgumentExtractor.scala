@@ -30,6 +30,17 @@ trait ArgumentExtractor[T] { self =>
 
   def extract(input: SymphonyQLInputValue): Either[ArgumentError, T]
 
+  /**
+   * The extracted value, or [[ArgumentExtractor.Invalid]] when `extract` fails. Derived extractors decode the fields of
+   * an input object with it and only call `extract` to report an error, the built-in extractors override it so that the
+   * fields decoded successfully do not allocate an `Either`.
+   */
+  private[schema] def extractOrInvalid(input: SymphonyQLInputValue): Any =
+    extract(input) match {
+      case Right(value) => value
+      case Left(_)      => ArgumentExtractor.Invalid
+    }
+
   def map[A](f: T => A): ArgumentExtractor[A] = (input: SymphonyQLInputValue) => self.extract(input).map(f)
 
   def flatMap[A](f: T => Either[ArgumentError, A]): ArgumentExtractor[A] = (input: SymphonyQLInputValue) =>
@@ -40,6 +51,12 @@ trait ArgumentExtractor[T] { self =>
 object ArgumentExtractor extends GenericArgExtractor with ArgExtractorFactory {
   def apply[T](implicit ae: ArgumentExtractor[T]): ArgumentExtractor[T] = ae
 
+  /**
+   * Returned by `extractOrInvalid` instead of a value that cannot be extracted.
+   */
+  private[schema] object Invalid
+
+  private[schema] def isInvalid(value: Any): Boolean = value.asInstanceOf[AnyRef] eq Invalid
 }
 trait ArgExtractorFactory { self: GenericArgExtractor =>
 
@@ -126,70 +143,131 @@ trait GenericArgExtractor extends ArgExtractorDerivation {
 
   implicit lazy val UnitArg: ArgumentExtractor[Unit] = (_: SymphonyQLInputValue) => Right(())
 
-  implicit lazy val IntArg: ArgumentExtractor[Int] = (input: SymphonyQLInputValue) =>
-    LongArg.extract(input).map(_.toInt)
-
-  implicit lazy val ShortArg: ArgumentExtractor[Short] = (input: SymphonyQLInputValue) =>
-    LongArg.extract(input).map(_.toShort)
+  implicit lazy val IntArg: ArgumentExtractor[Int] = scalar("Cannot build an Long") {
+    case value: IntValue => value.toLong.toInt
+    case _               => ArgumentExtractor.Invalid
+  }
 
-  implicit lazy val LongArg: ArgumentExtractor[Long] = {
-    case value: IntValue => Right(value.toLong)
-    case other           => Left(ArgumentError(s"Cannot build an Long from input $other"))
+  implicit lazy val ShortArg: ArgumentExtractor[Short] = scalar("Cannot build an Long") {
+    case value: IntValue => value.toLong.toShort
+    case _               => ArgumentExtractor.Invalid
   }
 
-  implicit lazy val DoubleArg: ArgumentExtractor[Double] = {
-    case value: IntValue   => Right(value.toLong.toDouble)
-    case value: FloatValue => Right(value.toDouble)
-    case other             => Left(ArgumentError(s"Cannot build a Double from input $other"))
+  implicit lazy val LongArg: ArgumentExtractor[Long] = scalar("Cannot build an Long") {
+    case value: IntValue => value.toLong
+    case _               => ArgumentExtractor.Invalid
   }
 
-  implicit lazy val FloatArg: ArgumentExtractor[Float] = (input: SymphonyQLInputValue) =>
-    DoubleArg.extract(input).map(_.toFloat)
+  implicit lazy val DoubleArg: ArgumentExtractor[Double] = scalar("Cannot build a Double") {
+    case value: IntValue   => value.toLong.toDouble
+    case value: FloatValue => value.toDouble
+    case _                 => ArgumentExtractor.Invalid
+  }
 
-  implicit lazy val StringArg: ArgumentExtractor[String] = {
-    case StringValue(value) => Right(value)
-    case other              => Left(ArgumentError(s"Cannot build a String from input $other"))
+  implicit lazy val FloatArg: ArgumentExtractor[Float] = scalar("Cannot build a Double") {
+    case value: IntValue   => value.toLong.toDouble.toFloat
+    case value: FloatValue => value.toDouble.toFloat
+    case _                 => ArgumentExtractor.Invalid
   }
 
-  implicit lazy val BooleanArg: ArgumentExtractor[Boolean] = {
-    case BooleanValue(value) => Right(value)
-    case other               => Left(ArgumentError(s"Cannot build a Boolean from input $other"))
+  implicit lazy val StringArg: ArgumentExtractor[String] = scalar("Cannot build a String") {
+    case StringValue(value) => value
+    case _                  => ArgumentExtractor.Invalid
   }
 
-  implicit lazy val BigIntArg: ArgumentExtractor[BigInt] = {
-    case value: IntValue => Right(value.toBigInt)
-    case other           => Left(ArgumentError(s"Cannot build a BigInt from input $other"))
+  implicit lazy val BooleanArg: ArgumentExtractor[Boolean] = scalar("Cannot build a Boolean") {
+    case BooleanValue(value) => value
+    case _                   => ArgumentExtractor.Invalid
   }
 
-  implicit lazy val BigIntegerArg: ArgumentExtractor[java.math.BigInteger] = BigIntArg.map(_.underlying())
+  implicit lazy val BigIntArg: ArgumentExtractor[BigInt] = scalar("Cannot build a BigInt") {
+    case value: IntValue => value.toBigInt
+    case _               => ArgumentExtractor.Invalid
+  }
 
-  implicit lazy val BigDecimalArg: ArgumentExtractor[BigDecimal] = {
-    case value: IntValue   => Right(scala.math.BigDecimal(value.toBigInt))
-    case value: FloatValue => Right(value.toBigDecimal)
-    case other             => Left(ArgumentError(s"Cannot build a BigDecimal from input $other"))
+  implicit lazy val BigIntegerArg: ArgumentExtractor[java.math.BigInteger] = scalar("Cannot build a BigInt") {
+    case value: IntValue => value.toBigInt.underlying()
+    case _               => ArgumentExtractor.Invalid
   }
 
-  implicit lazy val JavaBigDecimalArg: ArgumentExtractor[java.math.BigDecimal] = BigDecimalArg.map(_.underlying())
+  implicit lazy val BigDecimalArg: ArgumentExtractor[BigDecimal] = scalar("Cannot build a BigDecimal") {
+    case value: IntValue   => scala.math.BigDecimal(value.toBigInt)
+    case value: FloatValue => value.toBigDecimal
+    case _                 => ArgumentExtractor.Invalid
+  }
 
-  implicit def mkOption[A](implicit ae: ArgumentExtractor[A]): ArgumentExtractor[Option[A]] = {
-    case SymphonyQLValue.NullValue => Right(None)
-    case value                     => ae.extract(value).map(Some(_))
+  implicit lazy val JavaBigDecimalArg: ArgumentExtractor[java.math.BigDecimal] = scalar("Cannot build a BigDecimal") {
+    case value: IntValue   => scala.math.BigDecimal(value.toBigInt).underlying()
+    case value: FloatValue => value.toBigDecimal.underlying()
+    case _                 => ArgumentExtractor.Invalid
   }
 
-  implicit def mkList[A](implicit ae: ArgumentExtractor[A]): ArgumentExtractor[List[A]] = {
-    case SymphonyQLInputValue.ListValue(values) =>
-      values
-        .foldLeft[Either[ArgumentError, List[A]]](Right(Nil)) {
-          case (res @ Left(_), _)  => res
-          case (Right(res), value) =>
-            ae.extract(value) match {
-              case Left(error)  => Left(error)
-              case Right(value) => Right(value :: res)
+  /**
+   * An extractor of the values decoded by `decode`, which returns [[ArgumentExtractor.Invalid]] for the other inputs.
+   */
+  private def scalar[A](error: String)(decode: SymphonyQLInputValue => Any): ArgumentExtractor[A] =
+    new ArgumentExtractor[A] {
+      override def extract(input: SymphonyQLInputValue): Either[ArgumentError, A] = {
+        val value = decode(input)
+        if (ArgumentExtractor.isInvalid(value)) Left(ArgumentError(s"$error from input $input"))
+        else Right(value.asInstanceOf[A])
+      }
+
+      override private[schema] def extractOrInvalid(input: SymphonyQLInputValue): Any = decode(input)
+    }
+
+  implicit def mkOption[A](implicit ae: ArgumentExtractor[A]): ArgumentExtractor[Option[A]] =
+    new ArgumentExtractor[Option[A]] {
+      override def extract(input: SymphonyQLInputValue): Either[ArgumentError, Option[A]] =
+        input match {
+          case SymphonyQLValue.NullValue => Right(None)
+          case value                     => ae.extract(value).map(Some(_))
+        }
+
+      override private[schema] def extractOrInvalid(input: SymphonyQLInputValue): Any =
+        input match {
+          case SymphonyQLValue.NullValue => None
+          case value                     =>
+            val extracted = ae.extractOrInvalid(value)
+            if (ArgumentExtractor.isInvalid(extracted)) extracted else Some(extracted)
+        }
+    }
+
+  implicit def mkList[A](implicit ae: ArgumentExtractor[A]): ArgumentExtractor[List[A]] =
+    new ArgumentExtractor[List[A]] {
+      override def extract(input: SymphonyQLInputValue): Either[ArgumentError, List[A]] =
+        input match {
+          case SymphonyQLInputValue.ListValue(values) =>
+            values
+              .foldLeft[Either[ArgumentError, List[A]]](Right(Nil)) {
+                case (res @ Left(_), _)  => res
+                case (Right(res), value) =>
+                  ae.extract(value) match {
+                    case Left(error)  => Left(error)
+                    case Right(value) => Right(value :: res)
+                  }
+              }
+              .map(_.reverse)
+          case other                                  => ae.extract(other).map(List(_))
+        }
+
+      override private[schema] def extractOrInvalid(input: SymphonyQLInputValue): Any =
+        input match {
+          case SymphonyQLInputValue.ListValue(values) =>
+            val builder   = List.newBuilder[A]
+            var remaining = values
+            var invalid   = false
+            while (!invalid && remaining.nonEmpty) {
+              val extracted = ae.extractOrInvalid(remaining.head)
+              if (ArgumentExtractor.isInvalid(extracted)) invalid = true else builder += extracted.asInstanceOf[A]
+              remaining = remaining.tail
             }
+            if (invalid) ArgumentExtractor.Invalid else builder.result()
+          case other                                  =>
+            val extracted = ae.extractOrInvalid(other)
+            if (ArgumentExtractor.isInvalid(extracted)) extracted else List(extracted)
         }
-        .map(_.reverse)
-    case other                                  => ae.extract(other).map(List(_))
-  }
+    }
 
   implicit def mkSeq[A](implicit ae: ArgumentExtractor[A]): ArgumentExtractor[Seq[A]] = new ArgumentExtractor[Seq[A]] {
     private lazy val _list = mkList(ae)
@@ -0,0 +1,62 @@
+package symphony.schema
+
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.parser.adt.Directive
+import symphony.parser.adt.introspection.*
+
+/**
+ * The `@cost` directive carrying the weight and the multiplier arguments of a field, see `GQLCost`.
+ */
+object CostDirective {
+
+  val name = "cost"
+
+  val defaultWeight = 1
+
+  /**
+   * The definition of the directive, part of the schema as soon as one of its fields has a cost.
+   */
+  val definition: __Directive = __Directive(
+    name,
+    Some("The weight of a field in the cost of an operation, multiplied by the values of the multipliers arguments."),
+    Set(__DirectiveLocation.FIELD_DEFINITION),
+    _ =>
+      List(
+        __InputValue("weight", None, () => Types.int.nonNull, None),
+        __InputValue("multipliers", None, () => Types.mkList(Types.string.nonNull), None)
+      ),
+    isRepeatable = false
+  )
+
+  /**
+   * Whether `field` has a cost.
+   */
+  def isDefined(field: __Field): Boolean =
+    field.directives.exists(_.exists(_.name == name))
+
+  def apply(weight: Int, multipliers: List[String]): Directive =
+    Directive(
+      name,
+      if (multipliers.isEmpty) Map("weight" -> IntValue(weight))
+      else
+        Map(
+          "weight"      -> IntValue(weight),
+          "multipliers" -> SymphonyQLInputValue.ListValue(multipliers.map(StringValue.apply))
+        )
+    )
+
+  /**
+   * The weight and multiplier arguments of `field`, defaults to `defaultWeight` without multipliers.
+   */
+  def of(field: __Field): (Int, List[String]) =
+    field.directives.getOrElse(Nil).collectFirst {
+      case Directive(`name`, arguments) =>
+        val weight      = arguments.get("weight").collect { case v: IntValue => v.toInt }.getOrElse(defaultWeight)
+        val multipliers = arguments.get("multipliers").toList.flatMap {
+          case SymphonyQLInputValue.ListValue(values) => values.collect { case StringValue(v) => v }
+          case _                                      => Nil
+        }
+        weight -> multipliers
+    }.getOrElse(defaultWeight -> Nil)
+}
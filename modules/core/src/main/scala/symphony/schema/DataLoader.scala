@@ -0,0 +1,51 @@
+package symphony.schema
+
+import scala.concurrent.Future
+import scala.concurrent.duration.*
+import scala.jdk.CollectionConverters.*
+import scala.jdk.DurationConverters.*
+import scala.jdk.FutureConverters.*
+
+/**
+ * Loads the values of many keys with a single call.
+ *
+ * While a query or mutation executes, the keys requested through a loader are collected and passed to `load` together
+ * once the executor has no other work left, at most `maxBatchSize` keys per call. With a positive `window`, keys are
+ * collected for that long instead. Keys are deduplicated within a request, keys missing from the result resolve to
+ * `null`.
+ */
+final class DataLoader[K, V] private (
+  val load: Seq[K] => Future[Map[K, V]],
+  val maxBatchSize: Int,
+  val window: FiniteDuration
+) {
+
+  def withMaxBatchSize(maxBatchSize: Int): DataLoader[K, V] = {
+    require(maxBatchSize > 0, "maxBatchSize must be positive")
+    new DataLoader(load, maxBatchSize, window)
+  }
+
+  def withWindow(window: FiniteDuration): DataLoader[K, V] = {
+    require(window >= Duration.Zero, "window must not be negative")
+    new DataLoader(load, maxBatchSize, window)
+  }
+
+  /**
+   * Java API
+   */
+  def withWindow(window: java.time.Duration): DataLoader[K, V] = withWindow(window.toScala)
+}
+
+object DataLoader {
+
+  def apply[K, V](load: Seq[K] => Future[Map[K, V]]): DataLoader[K, V] =
+    new DataLoader(load, Int.MaxValue, Duration.Zero)
+
+  /**
+   * Java API
+   */
+  def create[K, V](
+    load: java.util.function.Function[java.util.List[K], java.util.concurrent.CompletionStage[java.util.Map[K, V]]]
+  ): DataLoader[K, V] =
+    apply(keys => load.apply(keys.asJava).asScala.map(_.asScala.toMap)(scala.concurrent.ExecutionContext.parasitic))
+}
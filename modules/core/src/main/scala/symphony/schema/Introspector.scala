@@ -8,6 +8,7 @@ import symphony.parser.adt.Definition.ExecutableDefinition.*
 import symphony.parser.adt.Selection.Field
 import symphony.parser.adt.introspection.*
 import symphony.schema.Stage.*
+import symphony.validator.SchemaView
 
 object Introspector extends IntrospectionSchemaDerivation {
 
@@ -38,6 +39,33 @@ object Introspector extends IntrospectionSchemaDerivation {
       Set(__DirectiveLocation.SCALAR),
       _ => List(__InputValue("url", None, () => Types.string.nonNull, None)),
       isRepeatable = false
+    ),
+    __Directive(
+      "defer",
+      Some(
+        "The @defer directive may be provided for fragment spreads and inline fragments to inform the executor to delay the execution of the current fragment to indicate deprioritization of the current fragment."
+      ),
+      Set(__DirectiveLocation.FRAGMENT_SPREAD, __DirectiveLocation.INLINE_FRAGMENT),
+      _ =>
+        List(
+          __InputValue("if", None, () => Types.boolean.nonNull, Some("true")),
+          __InputValue("label", None, () => Types.string, None)
+        ),
+      isRepeatable = false
+    ),
+    __Directive(
+      "stream",
+      Some(
+        "The @stream directive may be provided for a field of List type so that the backend can leverage technology such as asynchronous iterators to provide a partial list in the initial response, and additional list items in subsequent responses."
+      ),
+      Set(__DirectiveLocation.FIELD),
+      _ =>
+        List(
+          __InputValue("if", None, () => Types.boolean.nonNull, Some("true")),
+          __InputValue("label", None, () => Types.string, None),
+          __InputValue("initialCount", None, () => Types.int, Some("0"))
+        ),
+      isRepeatable = false
     )
   )
 
@@ -45,8 +73,9 @@ object Introspector extends IntrospectionSchemaDerivation {
   private val root = RootType(tpe, None, None)
 
   def introspect(rootType: RootType): RootSchema = {
-    val types    = (rootType.types ++ root.types - "__Introspection").values.toList.sortBy(_.name.getOrElse(""))
-    val resolver = __Introspection(
+    val typesByName = rootType.types ++ root.types - "__Introspection"
+    val types       = typesByName.values.toList.sortBy(_.name.getOrElse(""))
+    val resolver    = __Introspection(
       __Schema(
         rootType.description,
         types,
@@ -55,7 +84,7 @@ object Introspector extends IntrospectionSchemaDerivation {
         rootType.subscriptionType,
         directives ++ rootType.additionalDirectives
       ),
-      args => types.find(_.name.contains(args.name))
+      args => typesByName.get(args.name)
     )
 
     RootSchema(
@@ -70,6 +99,19 @@ object Introspector extends IntrospectionSchemaDerivation {
     )
   }
 
+  /**
+   * The schema used to validate documents, including the introspection types and the `__schema` and `__type` fields.
+   */
+  def schemaView(rootType: RootType): SchemaView =
+    new SchemaView(
+      rootType.queryType,
+      rootType.mutationType,
+      rootType.subscriptionType,
+      rootType.types ++ root.types - "__Introspection",
+      directives ++ rootType.additionalDirectives,
+      introspection.lazyType().allFields
+    )
+
   def isIntrospection(document: Document): Boolean =
     document.definitions.forall {
       case OperationDefinition(_, _, _, _, selectionSet) =>
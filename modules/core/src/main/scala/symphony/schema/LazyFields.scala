@@ -0,0 +1,114 @@
+package symphony.schema
+
+import scala.collection.immutable.AbstractMap
+
+/**
+ * The fields of an `ObjectStage`, computed from the parent value only when they are looked up.
+ *
+ * The executor only calls `get` for the fields a query selects, so the resolvers of unselected fields are never
+ * invoked. A field is resolved once per parent value, even when it is selected under several response keys. Iterating
+ * over the map evaluates every field.
+ */
+final class LazyFields[A] private (value: A, resolvers: LazyFields.Resolvers[A]) extends AbstractMap[String, Stage] {
+
+  private val resolved = new Array[Stage](resolvers.size)
+
+  override def get(key: String): Option[Stage] = {
+    val index = resolvers.indexOf(key)
+    if (index < 0) None else Some(resolve(index))
+  }
+
+  // stages are immutable, a stage resolved by another thread is either seen whole or resolved again under the lock
+  private def resolve(index: Int): Stage = {
+    val stage = resolved(index)
+    if (stage ne null) stage
+    else
+      synchronized {
+        if (resolved(index) eq null) resolved(index) = resolvers.functions(index)(value)
+        resolved(index)
+      }
+  }
+
+  private[symphony] def parent: Any = value
+
+  override def contains(key: String): Boolean = resolvers.indexOf(key) >= 0
+
+  override def knownSize: Int = resolvers.size
+
+  override def keySet: Set[String] = resolvers.names.keySet
+
+  override def keysIterator: Iterator[String] = resolvers.names.keysIterator
+
+  override def iterator: Iterator[(String, Stage)] =
+    resolvers.names.iterator.map((name, index) => name -> resolve(index))
+
+  override def removed(key: String): Map[String, Stage] =
+    if (!contains(key)) this else new LazyFields(value, new LazyFields.Resolvers(resolvers.map.removed(key)))
+
+  override def updated[V1 >: Stage](key: String, value: V1): Map[String, V1] = Map.from(iterator).updated(key, value)
+}
+
+object LazyFields {
+
+  /**
+   * The resolvers of the fields of a type, indexed once for all of its values.
+   */
+  final class Resolvers[A] private[LazyFields] (private[LazyFields] val map: Map[String, A => Stage]) {
+    private[LazyFields] val names: Map[String, Int]      = map.keysIterator.zipWithIndex.toMap
+    private[LazyFields] val functions: Array[A => Stage] = {
+      val functions = new Array[A => Stage](names.size)
+      map.foreach((name, resolver) => functions(names(name)) = resolver)
+      functions
+    }
+
+    private[LazyFields] def size: Int = functions.length
+
+    private[LazyFields] def indexOf(name: String): Int = names.getOrElse(name, -1)
+  }
+
+  def resolvers[A](resolvers: Map[String, A => Stage]): Resolvers[A] = new Resolvers(resolvers)
+
+  def apply[A](value: A, resolvers: Resolvers[A]): Map[String, Stage] = new LazyFields(value, resolvers)
+
+  def apply[A](value: A, resolvers: Map[String, A => Stage]): Map[String, Stage] =
+    new LazyFields(value, new Resolvers(resolvers))
+
+  /**
+   * The value whose fields are `fields`, or `fields` itself when they were not built from a single value.
+   */
+  private[symphony] def parentOf(fields: Map[String, Stage]): AnyRef =
+    fields match {
+      case fields: LazyFields[?] => fields.parent.asInstanceOf[AnyRef]
+      case fields                => fields
+    }
+
+  /**
+   * Merges two field maps without evaluating them, fields of `second` take precedence.
+   */
+  def merge(first: Map[String, Stage], second: Map[String, Stage]): Map[String, Stage] =
+    if (first.isEmpty) second
+    else if (second.isEmpty) first
+    else new MergedFields(first, second)
+
+  private final class MergedFields(first: Map[String, Stage], second: Map[String, Stage])
+      extends AbstractMap[String, Stage] {
+
+    override def get(key: String): Option[Stage] = if (second.contains(key)) second.get(key) else first.get(key)
+
+    override def contains(key: String): Boolean = second.contains(key) || first.contains(key)
+
+    override def isEmpty: Boolean = false
+
+    override def keysIterator: Iterator[String] = first.keysIterator.filterNot(second.contains) ++ second.keysIterator
+
+    override def keySet: Set[String] = first.keySet ++ second.keySet
+
+    override def size: Int = keySet.size
+
+    override def iterator: Iterator[(String, Stage)] = keysIterator.flatMap(key => get(key).map(key -> _))
+
+    override def removed(key: String): Map[String, Stage] = merge(first.removed(key), second.removed(key))
+
+    override def updated[V1 >: Stage](key: String, value: V1): Map[String, V1] = Map.from(iterator).updated(key, value)
+  }
+}
@@ -2,6 +2,7 @@ package symphony.schema
 
 import org.apache.pekko.NotUsed
 import org.apache.pekko.stream.{ javadsl, scaladsl }
+import symphony.execution.Lookahead
 import symphony.parser.*
 import symphony.parser.SymphonyQLError.*
 import symphony.parser.SymphonyQLOutputValue.*
@@ -12,7 +13,7 @@ import symphony.schema.Stage.*
 import symphony.schema.derivation.*
 
 import scala.annotation.*
-import scala.concurrent.Future
+import scala.concurrent.*
 import scala.jdk.CollectionConverters.*
 import scala.jdk.FunctionConverters.*
 import scala.jdk.FutureConverters.*
@@ -85,6 +86,49 @@ trait SchemaFactory {
   ): Schema[java.util.function.Function[A, B]] =
     mkFunction(argumentExtractor, inputSchema, outputSchema).contramap(_.asScala)
 
+  /**
+   * Java API
+   */
+  @unused
+  def createMemoizedFunction[A, B](
+    inputSchema: Schema[A],
+    argumentExtractor: ArgumentExtractor[A],
+    outputSchema: Schema[B]
+  ): Schema[java.util.function.Function[A, B]] =
+    mkMemoized(argumentExtractor, inputSchema, outputSchema).contramap(_.asScala)
+
+  /**
+   * Java API
+   */
+  @unused
+  def createLookaheadFunction[A, B](
+    inputSchema: Schema[A],
+    argumentExtractor: ArgumentExtractor[A],
+    outputSchema: Schema[B]
+  ): Schema[java.util.function.BiFunction[A, Lookahead, B]] =
+    mkLookaheadFunction(argumentExtractor, inputSchema, outputSchema).contramap(f => f.apply)
+
+  /**
+   * Java API
+   */
+  @unused
+  def createLookahead[A](schema: Schema[A]): Schema[java.util.function.Function[Lookahead, A]] =
+    mkLookahead(schema).contramap(_.asScala)
+
+  /**
+   * Java API
+   */
+  @unused
+  def createBatched[K, V](loader: DataLoader[K, V], schema: Schema[V]): Schema[K] =
+    mkBatched(loader)(schema)
+
+  /**
+   * Java API
+   */
+  @unused
+  def createBlocking[A](schema: Schema[A]): Schema[java.util.function.Supplier[A]] =
+    mkBlocking(schema).contramap(_.asScala)
+
   @unused
   def createSource[A](schema: Schema[A]): Schema[javadsl.Source[A, NotUsed]] =
     mkSource(schema).contramap(_.asScala)
@@ -176,14 +220,16 @@ trait SchemaFactory {
 }
 trait GenericSchema extends SchemaDerivation {
 
-  implicit val UnitSchema: Schema[Unit]                           = mkScalar("Unit", None, _ => ObjectValue(Nil))
-  implicit val BooleanSchema: Schema[Boolean]                     = mkScalar("Boolean", None, BooleanValue.apply)
+  private val UnitStage = PureStage(ObjectValue(Nil))
+
+  implicit val UnitSchema: Schema[Unit]                           = mkScalarStage("Unit", None, _ => UnitStage)
+  implicit val BooleanSchema: Schema[Boolean]                     = mkScalarStage("Boolean", None, PureStage.boolean)
   implicit val StringSchema: Schema[String]                       = mkScalar("String", None, StringValue.apply)
-  implicit val IntSchema: Schema[Int]                             = mkScalar("Int", None, IntValue(_))
+  implicit val IntSchema: Schema[Int]                             = mkScalarStage("Int", None, PureStage.int)
   implicit val LongSchema: Schema[Long]                           = mkScalar("Long", None, IntValue(_))
   implicit val DoubleSchema: Schema[Double]                       = mkScalar("Float", None, FloatValue(_))
   implicit val FloatSchema: Schema[Float]                         = mkScalar("Float", None, FloatValue(_))
-  implicit val ShortSchema: Schema[Short]                         = mkScalar("Short", None, IntValue(_))
+  implicit val ShortSchema: Schema[Short]                         = mkScalarStage("Short", None, s => PureStage.int(s))
   implicit val BigIntSchema: Schema[BigInt]                       = mkScalar("BigInt", None, IntValue(_))
   implicit val BigIntegerSchema: Schema[java.math.BigInteger]     = mkScalar("BigInt", None, IntValue(_))
   implicit val BigDecimalSchema: Schema[BigDecimal]               = mkScalar("BigDecimal", None, FloatValue(_))
@@ -213,6 +259,15 @@ trait GenericSchema extends SchemaDerivation {
       override def analyze(value: A): Stage      = PureStage(toOutput(value))
     }
 
+  /**
+   * A scalar whose values are analyzed straight into their stage, which lets it return shared stages for common values.
+   */
+  def mkScalarStage[A](name: String, description: Option[String], toStage: A => PureStage): Schema[A] =
+    new Schema[A] {
+      override def tpe(isInput: Boolean): __Type = Types.mkScalar(name, description)
+      override def analyze(value: A): Stage      = toStage(value)
+    }
+
   def mkInterface[A](
     name: Option[String],
     description: Option[String],
@@ -221,11 +276,9 @@ trait GenericSchema extends SchemaDerivation {
     directives: List[Directive] = List.empty
   ): Schema[A] =
     new Schema[A] {
-      override def analyze(value: A): Stage = {
-        val name   = value.getClass.getSimpleName
-        val schema = subSchemas.toMap.get(name)
-        schema.map(s => s.analyze(value)).getOrElse(Stage.NullStage)
-      }
+      private val dispatch = new SubSchemaDispatch(subSchemas)
+
+      override def analyze(value: A): Stage = dispatch.analyze(value)
 
       override def tpe(isInput: Boolean): __Type =
         val impl         = subSchemas.map(_._2.lazyType(isInput).copy(interfaces = () => Some(List(tpe(isInput)))))
@@ -260,11 +313,9 @@ trait GenericSchema extends SchemaDerivation {
     directives: List[Directive] = List.empty
   ): Schema[A] =
     new Schema[A] {
-      override def analyze(value: A): Stage = {
-        val name   = value.getClass.getSimpleName
-        val schema = subSchemas.toMap.get(name)
-        schema.map(s => s.analyze(value)).getOrElse(Stage.NullStage)
-      }
+      private val dispatch = new SubSchemaDispatch(subSchemas)
+
+      override def analyze(value: A): Stage = dispatch.analyze(value)
 
       override def tpe(isInput: Boolean): __Type =
         Types.mkUnion(name, description, subSchemas.map(_._2.lazyType(isInput)), origin, Some(directives))
@@ -290,13 +341,10 @@ trait GenericSchema extends SchemaDerivation {
         else
           Types.mkObject(Some(name), description, fields(isInput).map(_._1), directives)
 
-      override def analyze(value: A): Stage =
-        ObjectStage(
-          name,
-          fields(false).map { case (f, aToStage) =>
-            f.name -> aToStage(value)
-          }.toMap
-        )
+      private lazy val resolvers: LazyFields.Resolvers[A] =
+        LazyFields.resolvers(fields(false).map { case (f, aToStage) => f.name -> aToStage }.toMap)
+
+      override def analyze(value: A): Stage = ObjectStage(name, LazyFields(value, resolvers))
     }
 
   implicit def mkOption[A](implicit schema: Schema[A]): Schema[Option[A]] = new Schema[Option[A]] {
@@ -324,8 +372,31 @@ trait GenericSchema extends SchemaDerivation {
     override def analyze(value: List[A]): Stage = ListStage(value.map(schema.analyze))
   }
 
-  implicit def mkFuture[A](implicit schema: Schema[A]): Schema[Future[A]] =
-    mkSource[A](schema).contramap[Future[A]](scaladsl.Source.future)
+  implicit def mkFuture[A](implicit schema: Schema[A]): Schema[Future[A]] = new Schema[Future[A]] {
+    override def optional: Boolean                = true
+    override def tpe(isInput: Boolean): __Type    = schema.lazyType(isInput)
+    override def analyze(value: Future[A]): Stage =
+      FutureStage(value.map(schema.analyze)(ExecutionContext.parasitic))
+  }
+
+  /**
+   * A schema for keys that are resolved through `loader`, keys missing from the loaded values are rendered as `null`.
+   */
+  def mkBatched[K, V](loader: DataLoader[K, V])(implicit schema: Schema[V]): Schema[K] = new Schema[K] {
+    override def optional: Boolean             = true
+    override def tpe(isInput: Boolean): __Type = schema.lazyType(isInput)
+    override def analyze(value: K): Stage      =
+      BatchStage[K, V](loader, value, _.fold(NullStage)(schema.analyze))
+  }
+
+  /**
+   * A schema for suppliers that block, such as JDBC calls, they are run on virtual threads instead of the dispatcher.
+   */
+  def mkBlocking[A](implicit schema: Schema[A]): Schema[() => A] = new Schema[() => A] {
+    override def optional: Boolean              = schema.optional
+    override def tpe(isInput: Boolean): __Type  = schema.lazyType(isInput)
+    override def analyze(value: () => A): Stage = BlockingStage(() => schema.analyze(value()))
+  }
 
   implicit def mkFunction[A, B](implicit
     argumentExtractor: ArgumentExtractor[A],
@@ -354,23 +425,73 @@ trait GenericSchema extends SchemaDerivation {
       override def optional: Boolean                     = outputSchema.optional
       override def tpe(isInput: Boolean = false): __Type = outputSchema.lazyType(isInput)
       override def analyze(value: A => B): Stage         =
-        FunctionStage { args =>
-          val builder    = argumentExtractor.extract(SymphonyQLInputValue.ObjectValue(args))
-          val fixBuilder = inputType.kind match {
-            case __TypeKind.SCALAR | __TypeKind.ENUM | __TypeKind.LIST =>
-              builder.fold(
-                error => args.get("value").fold[Either[ArgumentError, A]](Left(error))(argumentExtractor.extract),
-                Right(_)
-              )
-            case _                                                     => builder
+        FunctionStage(new ArgumentsFunction(extract, input => outputSchema.analyze(value(input))))
+
+      private val extract: Map[String, SymphonyQLInputValue] => Either[ArgumentError, A] = { args =>
+        val builder = argumentExtractor.extract(SymphonyQLInputValue.ObjectValue(args))
+        inputType.kind match {
+          case __TypeKind.SCALAR | __TypeKind.ENUM | __TypeKind.LIST =>
+            builder.fold(
+              error => args.get("value").fold[Either[ArgumentError, A]](Left(error))(argumentExtractor.extract),
+              Right(_)
+            )
+          case _                                                     => builder
+        }
+      }
+    }
+
+  /**
+   * A schema for pure resolvers, they are only called once per request for the same parent value and arguments, for
+   * instance when a field is selected several times under different aliases.
+   */
+  def mkMemoized[A, B](implicit
+    argumentExtractor: ArgumentExtractor[A],
+    inputSchema: Schema[A],
+    outputSchema: Schema[B]
+  ): Schema[A => B] = {
+    val function = mkFunction[A, B]
+    new Schema[A => B] {
+      override def arguments: List[__InputValue] = function.arguments
+      override def optional: Boolean             = function.optional
+      override def tpe(isInput: Boolean): __Type = function.lazyType(isInput)
+      override def analyze(value: A => B): Stage =
+        function.analyze(value) match {
+          case FunctionStage(stage) => MemoizedStage(stage)
+          case stage                => stage
+        }
+    }
+  }
+
+  /**
+   * A schema for resolvers that also receive the fields selected on their result, see [[Lookahead]].
+   */
+  implicit def mkLookaheadFunction[A, B](implicit
+    argumentExtractor: ArgumentExtractor[A],
+    inputSchema: Schema[A],
+    outputSchema: Schema[B]
+  ): Schema[(A, Lookahead) => B] =
+    new Schema[(A, Lookahead) => B] {
+      private lazy val function                               = mkFunction[A, B]
+      override def arguments: List[__InputValue]              = function.arguments
+      override def optional: Boolean                          = outputSchema.optional
+      override def tpe(isInput: Boolean = false): __Type      = outputSchema.lazyType(isInput)
+      override def analyze(value: (A, Lookahead) => B): Stage =
+        LookaheadStage { (args, lookahead) =>
+          function.analyze(value(_, lookahead)) match {
+            case FunctionStage(stage) => stage(args)
+            case stage                => stage
           }
-          fixBuilder.fold(
-            error => ScalaSourceStage(scaladsl.Source.failed(error)),
-            input => outputSchema.analyze(value(input))
-          )
         }
     }
 
+  implicit def mkLookahead[A](implicit schema: Schema[A]): Schema[Lookahead => A] =
+    new Schema[Lookahead => A] {
+      override def optional: Boolean                     = schema.optional
+      override def tpe(isInput: Boolean): __Type         = schema.lazyType(isInput)
+      override def analyze(value: Lookahead => A): Stage =
+        LookaheadStage((_, lookahead) => schema.analyze(value(lookahead)))
+    }
+
   implicit def mkSource[A](implicit schema: Schema[A]): Schema[scaladsl.Source[A, NotUsed]] =
     new Schema[scaladsl.Source[A, NotUsed]] {
       override def optional: Boolean                                  = true
@@ -4,8 +4,9 @@ import scala.concurrent.Future
 import org.apache.pekko.NotUsed
 import org.apache.pekko.stream.scaladsl
 import org.apache.pekko.stream.javadsl
+import symphony.execution.Lookahead
 import symphony.parser.*
-import symphony.parser.SymphonyQLValue.NullValue
+import symphony.parser.SymphonyQLValue.{ BooleanValue, IntValue, NullValue }
 
 import java.util
 import scala.jdk.CollectionConverters.*
@@ -18,8 +19,7 @@ object Stage {
   def mergeStages(stage1: Stage, stage2: Stage): Stage =
     (stage1, stage2) match {
       case (ObjectStage(name, fields1), ObjectStage(_, fields2)) =>
-        val r = fields1 ++ fields2
-        ObjectStage(name, r)
+        ObjectStage(name, LazyFields.merge(fields1, fields2))
       case (ObjectStage(_, _), _)                                => stage1
       case _                                                     => stage2
     }
@@ -33,6 +33,41 @@ object Stage {
   final case class ListStage(stages: List[Stage])                                   extends Stage
   final case class ObjectStage(name: String, fields: Map[String, Stage])            extends Stage
 
+  /**
+   * A value loaded through a `DataLoader`, keys are batched with the keys of other `BatchStage`s of the same loader.
+   */
+  final case class BatchStage[K, V](loader: DataLoader[K, V], key: K, stage: Option[V] => Stage) extends Stage
+
+  /**
+   * A value computed by a blocking call, which is run on the virtual threads of the executing `SymphonyQL` instance.
+   */
+  final case class BlockingStage(run: () => Stage) extends Stage
+
+  /**
+   * A function of the field arguments that has no side effects, its result is shared by the selections of the same
+   * field with the same arguments on the same parent.
+   */
+  final case class MemoizedStage(stage: Map[String, SymphonyQLInputValue] => Stage) extends Stage
+
+  /**
+   * A function of the field arguments and of the fields selected on its result.
+   */
+  final case class LookaheadStage(stage: (Map[String, SymphonyQLInputValue], Lookahead) => Stage) extends Stage
+
+  /**
+   * The function of a `FunctionStage` that decodes the field arguments with `extract` first, the executor only decodes
+   * the same arguments once per request.
+   */
+  private[symphony] final class ArgumentsFunction[A](
+    val extract: Map[String, SymphonyQLInputValue] => Either[SymphonyQLError, A],
+    resolve: A => Stage
+  ) extends (Map[String, SymphonyQLInputValue] => Stage) {
+
+    def run(input: Either[SymphonyQLError, A]): Stage = input.fold(error => FutureStage(Future.failed(error)), resolve)
+
+    override def apply(arguments: Map[String, SymphonyQLInputValue]): Stage = run(extract(arguments))
+  }
+
   def createNull(): Stage                                                                                           = NullStage
   def createPure(value: SymphonyQLOutputValue): Stage                                                               = PureStage(value)
   def createSource(value: javadsl.Source[Stage, NotUsed]): Stage                                                    = JavaSourceStage(value)
@@ -62,3 +97,21 @@ object ExecutionStage {
 }
 
 final case class PureStage(value: SymphonyQLOutputValue) extends Stage with ExecutionStage
+
+/**
+ * Shared stages for the scalar values that are the most common in responses, so that analyzing them allocates nothing.
+ */
+object PureStage {
+  private final val CacheLow  = -128
+  private final val CacheHigh = 1023
+
+  val True: PureStage  = PureStage(BooleanValue.True)
+  val False: PureStage = PureStage(BooleanValue.False)
+
+  private val ints = Array.tabulate(CacheHigh - CacheLow + 1)(i => PureStage(IntValue.IntNumber(i + CacheLow)))
+
+  def boolean(value: Boolean): PureStage = if (value) True else False
+
+  def int(value: Int): PureStage =
+    if (value >= CacheLow && value <= CacheHigh) ints(value - CacheLow) else PureStage(IntValue.IntNumber(value))
+}
@@ -0,0 +1,40 @@
+package symphony.schema
+
+import scala.collection.mutable
+
+/**
+ * Finds the sub-schema of an interface or a union for the runtime class of a value.
+ *
+ * The sub-schema of a class is resolved the first time a value of that class is analyzed and cached with the class,
+ * later values only cost a `ClassValue` lookup. A sub-schema whose type originates from the class is preferred over one
+ * with the simple name of the class, which only breaks ties between classes of different packages. When the class
+ * itself matches nothing, its superclasses and interfaces are tried, closest first, so that the values of subclasses
+ * and of nested interfaces are dispatched too.
+ */
+private[schema] final class SubSchemaDispatch(subSchemas: List[(String, Schema[Any])])
+    extends ClassValue[Option[Schema[Any]]] {
+
+  private lazy val byName   = subSchemas.toMap
+  private lazy val byOrigin = subSchemas.flatMap((_, schema) => schema.lazyType().origin.map(_ -> schema)).toMap
+
+  def analyze(value: Any): Stage =
+    get(value.getClass) match {
+      case Some(schema) => schema.analyze(value)
+      case None         => Stage.NullStage
+    }
+
+  override protected def computeValue(cls: Class[?]): Option[Schema[Any]] = {
+    val visited = mutable.Set[Class[?]](classOf[Object])
+    var level   = List[Class[?]](cls)
+    var found   = Option.empty[Schema[Any]]
+    while (found.isEmpty && level.nonEmpty) {
+      found = level.iterator.flatMap(find).nextOption()
+      level = level.flatMap(c => Option(c.getSuperclass).toList ++ c.getInterfaces).filter(visited.add)
+    }
+    found
+  }
+
+  // `Outer$Inner` and the `Module$` class of a Scala object are matched as `Outer.Inner` and `Module`
+  private def find(cls: Class[?]): Option[Schema[Any]] =
+    byOrigin.get(cls.getName.replace('$', '.').stripSuffix(".")).orElse(byName.get(cls.getSimpleName.stripSuffix("$")))
+}
@@ -21,6 +21,7 @@ final class FieldBuilder private {
   private var deprecationReason: Option[String] = None
   private var hasArgs: Boolean                  = false
   private var isInput: Boolean                  = false
+  private var cost: Option[Directive]           = None
 
   def name(name: String): this.type = {
     this.name = name
@@ -65,6 +66,16 @@ final class FieldBuilder private {
     this
   }
 
+  /**
+   * The cost of this field for query complexity analysis, the cost of its selections is multiplied by the value of the
+   * first `multipliers` argument present in the query.
+   */
+  @varargs
+  def cost(weight: Int, multipliers: String*): this.type = {
+    this.cost = Some(CostDirective(weight, multipliers.toList))
+    this
+  }
+
   def build(): __Field =
     Types.mkField(
       name,
@@ -73,7 +84,7 @@ final class FieldBuilder private {
       () => if (schema.optional) schema.lazyType(isInput) else Types.mkNonNull(schema.lazyType(isInput)),
       isDeprecated,
       deprecationReason,
-      Some(directives)
+      Some(directives ++ cost.toList)
     )
 
 }
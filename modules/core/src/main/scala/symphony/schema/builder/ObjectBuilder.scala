@@ -17,6 +17,8 @@ final class ObjectBuilder[A] private {
   private var description: Option[String]                                                    = None
   private var fieldWithArgs: List[(JavaFunction[FieldBuilder, __Field], JavaFunction[A, ?])] = List.empty
   private var fields: List[(JavaFunction[FieldBuilder, __Field], JavaFunction[A, ?])]        = List.empty
+  private var batchFields: List[(JavaFunction[FieldBuilder, __Field], DataLoader[?, ?], JavaFunction[A, ?])] =
+    List.empty
   private var directives: List[Directive]                                                    = List.empty
   private var isNullable: Boolean                                                            = false
 
@@ -46,6 +48,19 @@ final class ObjectBuilder[A] private {
     this
   }
 
+  /**
+   * A field whose value is loaded through `loader` from the key returned by `fieldKey`, the schema set on the
+   * `FieldBuilder` is the schema of the loaded value.
+   */
+  def batchField[K, V](
+    builder: JavaFunction[FieldBuilder, __Field],
+    loader: DataLoader[K, V],
+    fieldKey: JavaFunction[A, K]
+  ): this.type = {
+    this.batchFields = (builder, loader, fieldKey) :: batchFields
+    this
+  }
+
   @varargs
   def directives(directives: Directive*): this.type = {
     this.directives = directives.toList
@@ -57,52 +72,34 @@ final class ObjectBuilder[A] private {
     this
   }
 
-  def build(): Schema[A] =
-    if (isNullable)
-      Schema.createNullable(
-        Schema.mkObject(
-          name,
-          description,
-          _ =>
-            fieldWithArgs.reverse.map { kv =>
-              val builder = FieldBuilder.newField().hasArgs(true)
-              kv._1(builder) -> new Function[A, Stage]() {
-                override def apply(v1: A): Stage =
-                  builder.getSchema.analyze(kv._2.apply(v1))
-              }
-
-            } ++
-              fields.reverse.map { kv =>
-                val builder = FieldBuilder.newField().hasArgs(false)
-                kv._1(builder) -> new Function[A, Stage]() {
-                  override def apply(v1: A): Stage =
-                    builder.getSchema.analyze(kv._2.apply(v1))
-                }
-              },
-          directives
-        )
-      )
-    else
-      Schema.mkObject(
-        name,
-        description,
-        _ =>
-          fieldWithArgs.reverse.map { kv =>
-            val builder = FieldBuilder.newField().hasArgs(true)
-            kv._1(builder) -> new Function[A, Stage]() {
-              override def apply(v1: A): Stage =
-                builder.getSchema.analyze(kv._2.apply(v1))
-            }
+  def build(): Schema[A] = {
+    val schema = Schema.mkObject(name, description, _ => fieldList, directives)
+    if (isNullable) Schema.createNullable(schema) else schema
+  }
 
-          } ++
-            fields.reverse.map { kv =>
-              val builder = FieldBuilder.newField().hasArgs(false)
-              kv._1(builder) -> new Function[A, Stage]() {
-                override def apply(v1: A): Stage =
-                  builder.getSchema.analyze(kv._2.apply(v1))
-              }
-            },
-        directives
-      )
+  private def fieldList: List[(__Field, A => Stage)] =
+    fieldWithArgs.reverse.map { kv =>
+      val builder = FieldBuilder.newField().hasArgs(true)
+      kv._1(builder) -> new Function[A, Stage]() {
+        override def apply(v1: A): Stage =
+          builder.getSchema.analyze(kv._2.apply(v1))
+      }
+    } ++
+      fields.reverse.map { kv =>
+        val builder = FieldBuilder.newField().hasArgs(false)
+        kv._1(builder) -> new Function[A, Stage]() {
+          override def apply(v1: A): Stage =
+            builder.getSchema.analyze(kv._2.apply(v1))
+        }
+      } ++
+      batchFields.reverse.map { case (field, loader, fieldKey) =>
+        val builder = FieldBuilder.newField().hasArgs(false)
+        val result  = field(builder)
+        val schema  = Schema.mkBatched(loader.asInstanceOf[DataLoader[Any, Any]])(builder.getSchema[Any])
+        result -> new Function[A, Stage]() {
+          override def apply(v1: A): Stage =
+            schema.analyze(fieldKey.apply(v1))
+        }
+      }
 
 }
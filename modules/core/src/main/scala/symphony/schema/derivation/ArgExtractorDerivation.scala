@@ -66,7 +66,12 @@ trait ArgExtractorDerivation extends BaseDerivation {
     traitLabel: String,
     _subTypes: => List[(String, List[Any], ArgumentExtractor[Any])]
   ) = new ArgumentExtractor[A] {
-    private lazy val subTypes = _subTypes
+    // by label and by GQLName, the first matching sub type wins
+    private lazy val subTypes: Map[String, ArgumentExtractor[A]] =
+      _subTypes.reverse.flatMap { (label, annotations, builder) =>
+        val names = label :: annotations.collect { case GQLName(name) => name }
+        names.map(_ -> builder.asInstanceOf[ArgumentExtractor[A]])
+      }.toMap
 
     def extract(input: SymphonyQLInputValue): Either[ArgumentError, A] =
       input.match {
@@ -74,16 +79,10 @@ trait ArgExtractorDerivation extends BaseDerivation {
         case StringValue(value) => Right(value)
         case _                  => Left(ArgumentError(s"Cannot build a trait from input $input"))
       }.flatMap { value =>
-        subTypes.collectFirst {
-          case (
-                label,
-                annotations,
-                builder: ArgumentExtractor[A @unchecked]
-              ) if label == value || annotations.exists { case GQLName(name) => name == value } =>
-            builder
-        }
+        subTypes
+          .get(value)
           .toRight(ArgumentError(s"Invalid SymphonyQL value $value for trait $traitLabel"))
-          .flatMap(_.extract(SymphonyQLInputValue.ObjectValue(Map.empty)))
+          .flatMap(_.extract(ArgExtractorDerivation.emptyObject))
       }
   }
 
@@ -91,23 +90,74 @@ trait ArgExtractorDerivation extends BaseDerivation {
     _fields: => List[(String, ArgumentExtractor[Any])],
     annotations: Map[String, List[Any]]
   )(fromProduct: Product => A) = new ArgumentExtractor[A] {
-    private lazy val fields = _fields
+    private lazy val fields     = _fields
+    private lazy val names      = fields.map { (label, _) =>
+      annotations.get(label).flatMap(_.collectFirst { case GQLName(name) => name }).getOrElse(label)
+    }.toArray
+    private lazy val extractors = fields.map(_._2).toArray
+    private lazy val defaults   = fields.map { (label, _) =>
+      annotations.get(label).flatMap(_.collectFirst { case GQLDefault(v) => v })
+    }.toArray
 
-    def extract(input: SymphonyQLInputValue): Either[ArgumentError, A] =
-      fields.view.map { (label, builder) =>
-        input match {
-          case SymphonyQLInputValue.ObjectValue(fields) =>
-            val labelList    = annotations.get(label)
-            lazy val default = labelList.flatMap(_.collectFirst { case GQLDefault(v) => v })
-            val finalLabel   = labelList.flatMap(_.collectFirst { case GQLName(name) => name }).getOrElse(label)
-            fields.get(finalLabel).fold(builder.defaultValue(default))(builder.extract)
-          case value                                    => builder.extract(value)
+    def extract(input: SymphonyQLInputValue): Either[ArgumentError, A] = {
+      val values = decode(input)
+      if (values ne null) Right(fromProduct(values)) else extractWithErrors(input)
+    }
+
+    override private[schema] def extractOrInvalid(input: SymphonyQLInputValue): Any = {
+      val values = decode(input)
+      if (values ne null) fromProduct(values) else ArgumentExtractor.Invalid
+    }
+
+    // decodes all the fields of an input object in one pass, null as soon as one of them cannot be extracted
+    private def decode(input: SymphonyQLInputValue): ArgExtractorDerivation.ArrayProduct =
+      input match {
+        case SymphonyQLInputValue.ObjectValue(inputFields) =>
+          val values = new Array[Any](names.length)
+          var i      = 0
+          while (i < values.length) {
+            val field = inputFields.getOrElse(names(i), null)
+            values(i) =
+              if (field ne null) extractors(i).extractOrInvalid(field)
+              else extractors(i).defaultValue(defaults(i)).getOrElse(ArgumentExtractor.Invalid)
+            i = if (ArgumentExtractor.isInvalid(values(i))) Int.MaxValue else i + 1
+          }
+          if (i == Int.MaxValue) null else new ArgExtractorDerivation.ArrayProduct(values)
+        case _                                             => null
+      }
+
+    // only called when decoding failed or the input is not an object, the errors of all the invalid fields are reported
+    private def extractWithErrors(input: SymphonyQLInputValue): Either[ArgumentError, A] = {
+      val values = new Array[Any](names.length)
+      val errors = List.newBuilder[ArgumentError]
+      for (i <- values.indices) {
+        val extracted = input match {
+          case SymphonyQLInputValue.ObjectValue(inputFields) =>
+            inputFields.get(names(i)).fold(extractors(i).defaultValue(defaults(i)))(extractors(i).extract)
+          case value                                         => extractors(i).extract(value)
         }
-      }.foldLeft[Either[ArgumentError, Tuple]](Right(EmptyTuple)) { (acc, item) =>
-        item match {
-          case Right(value) => acc.map(_ :* value)
-          case Left(e)      => Left(e)
+        extracted match {
+          case Right(value) => values(i) = value
+          case Left(e)      => errors += e
         }
-      }.map(fromProduct)
+      }
+      errors.result() match {
+        case Nil          => Right(fromProduct(new ArgExtractorDerivation.ArrayProduct(values)))
+        case error :: Nil => Left(error)
+        case errors       => Left(ArgumentError(errors.map(_.msg).mkString("; ")))
+      }
+    }
+  }
+}
+
+object ArgExtractorDerivation {
+
+  private[derivation] val emptyObject = SymphonyQLInputValue.ObjectValue(Map.empty)
+
+  // the decoded fields, read by the `fromProduct` of the mirror without being copied to a tuple
+  private[derivation] final class ArrayProduct(values: Array[Any]) extends Product {
+    override def productArity: Int            = values.length
+    override def productElement(n: Int): Any  = values(n)
+    override def canEqual(that: Any): Boolean = false
   }
 }
@@ -1,6 +1,7 @@
 package symphony.schema.derivation
 
 import magnolia1.TypeInfo
+import symphony.parser.adt.Directive
 import symphony.parser.adt.introspection.*
 import symphony.schema.*
 import symphony.annotations.scala.*
@@ -9,6 +10,12 @@ import scala.quoted.*
 
 object BaseDerivation extends BaseDerivation {
   inline def implicitExists[T]: Boolean = ${ implicitExistsImpl[T] }
+
+  /**
+   * Reads the field labelled `Label` of a case class through its accessor, the field at `index` of `productElement` is
+   * only read when the accessor is not accessible.
+   */
+  inline def fieldAccessor[A, Label](index: Int): A => Any = ${ fieldAccessorImpl[A, Label]('index) }
 }
 
 trait BaseDerivation {
@@ -21,6 +28,20 @@ trait BaseDerivation {
     }
   }
 
+  def fieldAccessorImpl[A: Type, Label: Type](index: Expr[Int])(using q: Quotes): Expr[A => Any] = {
+    import q.reflect.*
+    val name = TypeRepr.of[Label] match {
+      case ConstantType(StringConstant(name)) => name
+      case other                              => report.errorAndAbort(s"${other.show} is not a field label")
+    }
+    TypeRepr.of[A].typeSymbol.caseFields.find(_.name == name) match {
+      case Some(field) if !field.flags.is(Flags.Private) && !field.flags.is(Flags.Protected) =>
+        '{ (value: A) => ${ Select.unique('value.asTerm, name).asExprOf[Any] } }
+      case _                                                                                 =>
+        '{ (value: A) => value.asInstanceOf[Product].productElement($index) }
+    }
+  }
+
   def getName(info: TypeInfo): String =
     info.typeParams match {
       case Nil  => info.short
@@ -40,4 +61,7 @@ trait BaseDerivation {
 
   def getDescription(annotations: Seq[Any]): Option[String] =
     annotations.collectFirst { case GQLDescription(desc) => desc }
+
+  def getFieldDirectives(annotations: Seq[Any]): Option[List[Directive]] =
+    annotations.collectFirst { case GQLCost(weight, multipliers*) => List(CostDirective(weight, multipliers.toList)) }
 }
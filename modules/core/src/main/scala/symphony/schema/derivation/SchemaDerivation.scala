@@ -80,13 +80,17 @@ trait SchemaDerivation extends BaseDerivation {
               Types.mkInterface(typeName, typeDesc, commonFields, impl, Some(info.full))
             }
 
+          // indexed by ordinal, the members are a list
+          private lazy val enumStages = members.map { case (label, _, _, _) => PureStage(EnumValue(label)) }.toArray
+          private lazy val schemas    = members.map(_._3).toArray
+
           def analyze(value: A): Stage = {
-            val (label, _, schema, _) = members(m.ordinal(value))
-            if (isEnum) PureStage(EnumValue(label)) else schema.analyze(value)
+            val ordinal = m.ordinal(value)
+            if (isEnum) enumStages(ordinal) else schemas(ordinal).analyze(value)
           }
         }
       case m: Mirror.ProductOf[A] =>
-        lazy val fields           = recurse[m.MirroredElemLabels, m.MirroredElemTypes]()
+        lazy val fields           = recurseFields[A, m.MirroredElemLabels, m.MirroredElemTypes]()
         lazy val annotations      = Macro.anns[A]
         lazy val paramAnnotations = Macro.paramAnns[A].toMap
         lazy val info             = Macro.typeInfo[A]
@@ -123,7 +127,8 @@ trait SchemaDerivation extends BaseDerivation {
                   (_: __DeprecatedArgs) => schema.arguments,
                   () => if (schema.optional) schema.lazyType(isInput) else Types.mkNonNull(schema.lazyType(isInput)),
                   fieldAnnotations.collectFirst { case GQLDeprecated(_) => () }.isDefined,
-                  fieldAnnotations.collectFirst { case GQLDeprecated(reason) => reason }
+                  fieldAnnotations.collectFirst { case GQLDeprecated(reason) => reason },
+                  getFieldDirectives(fieldAnnotations)
                 )
               }
               Types.mkObject(
@@ -135,18 +140,18 @@ trait SchemaDerivation extends BaseDerivation {
               )
             }
 
+          private lazy val typeName: String = getName(annotations, info)
+
+          private lazy val resolvers: LazyFields.Resolvers[A] =
+            LazyFields.resolvers(fields.map { case (label, _, schema, field) =>
+              getName(paramAnnotations.getOrElse(label, Nil), label) -> ((value: A) => schema.analyze(field(value)))
+            }.toMap)
+
+          private lazy val enumStage = PureStage(EnumValue(typeName))
+
           def analyze(value: A): Stage =
-            if (fields.isEmpty) PureStage(EnumValue(getName(annotations, info)))
-            else {
-              val fieldsBuilder = Map.newBuilder[String, Stage]
-              fields.foreach { case (label, _, schema, index) =>
-                val fieldAnnotations = paramAnnotations.getOrElse(label, Nil)
-                fieldsBuilder += getName(fieldAnnotations, label) -> schema.analyze(
-                  value.asInstanceOf[Product].productElement(index)
-                )
-              }
-              ObjectStage(getName(annotations, info), fieldsBuilder.result())
-            }
+            if (fields.isEmpty) enumStage
+            else ObjectStage(typeName, LazyFields(value, resolvers))
         }
     }
 
@@ -159,4 +164,18 @@ trait SchemaDerivation extends BaseDerivation {
         (label, annotations, builder, index) :: recurse[names, ts](index + 1)
       case (_: EmptyTuple, _)                 => Nil
     }
+
+  // the fields of the case class `P`, each with a function reading it that is expanded to a direct field access
+  private inline def recurseFields[P, Label, A <: Tuple](
+    index: Int = 0
+  ): List[(String, List[Any], Schema[Any], P => Any)] =
+    inline erasedValue[(Label, A)] match {
+      case (_: (name *: names), _: (t *: ts)) =>
+        val label       = constValue[name].toString
+        val builder     = summonInline[Schema[t]].asInstanceOf[Schema[Any]]
+        val annotations = Macro.anns[t]
+        val field       = BaseDerivation.fieldAccessor[P, name](index)
+        (label, annotations, builder, field) :: recurseFields[P, names, ts](index + 1)
+      case (_: EmptyTuple, _)                 => Nil
+    }
 }
@@ -0,0 +1,54 @@
+package symphony.cache
+
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+
+class DocumentCacheSpec extends AnyFunSpec with Matchers {
+
+  describe("DocumentCache Spec") {
+    it("cache parsed documents") {
+      val cache  = new DocumentCache(16)
+      val first  = cache.parse("{ characters { name } }")
+      val second = cache.parse("{ characters { name } }")
+      first.document.isRight shouldEqual true
+      second should be theSameInstanceAs first
+      cache.stats shouldEqual CacheStats(1, 1, 0, 1)
+    }
+
+    it("cache parsing errors") {
+      val cache  = new DocumentCache(16)
+      val first  = cache.parse("{ characters { name }")
+      val second = cache.parse("{ characters { name }")
+      first.document.isLeft shouldEqual true
+      second should be theSameInstanceAs first
+      cache.stats.hitCount shouldEqual 1
+    }
+
+    it("validate cached documents once") {
+      val cache       = new DocumentCache(16)
+      var validations = 0
+      val validate    = (_: symphony.parser.adt.Document) => { validations += 1; Right(()) }
+      cache.parse("{ characters { name } }").validate(validate).isRight shouldEqual true
+      cache.parse("{ characters { name } }").validate(validate).isRight shouldEqual true
+      validations shouldEqual 1
+    }
+
+    it("evict least recently used documents") {
+      val cache = LruCache[String, Int](2)
+      cache.put("a", 1)
+      cache.put("b", 2)
+      cache.get("a") shouldEqual Some(1)
+      cache.put("c", 3)
+      cache.get("b") shouldEqual None
+      cache.get("a") shouldEqual Some(1)
+      cache.stats.evictionCount shouldEqual 1
+    }
+
+    it("disable cache") {
+      val cache = new DocumentCache(0)
+      cache.parse("{ characters { name } }")
+      cache.parse("{ characters { name } }")
+      cache.stats.size shouldEqual 0
+    }
+  }
+}
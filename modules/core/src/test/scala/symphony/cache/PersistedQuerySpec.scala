@@ -0,0 +1,64 @@
+package symphony.cache
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLInputValue.ObjectValue
+import symphony.parser.SymphonyQLValue.*
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class PersistedQuerySpec extends AnyFunSpec with Matchers {
+
+  final case class Queries(characters: List[String])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val query = "{ characters }"
+
+  private def persistedRequest(query: String, hash: String): SymphonyQLRequest =
+    SymphonyQLRequest(
+      query,
+      extensions = Some(
+        Map("persistedQuery" -> ObjectValue(Map("version" -> IntValue(1), "sha256Hash" -> StringValue(hash))))
+      )
+    )
+
+  private def run(graphql: SymphonyQL, request: SymphonyQLRequest): SymphonyQLResponse[SymphonyQLError] =
+    Await.result(graphql.runWith(request), 10.seconds)
+
+  describe("PersistedQuery Spec") {
+    it("register a persisted query after a miss") {
+      val graphql = SymphonyQL.newSymphonyQL().query(Queries(List("Naomi"))).build()
+      val hash    = PersistedQueryCache.sha256(query)
+      hash shouldEqual "baec095ec5443e29dda2778fd3d020bb0b3e54c5ca6b28a4903bc69a90b8cfaf"
+
+      intercept[SymphonyQLError.ValidationError](run(graphql, persistedRequest("", hash))) shouldEqual
+        PersistedQueryCache.NotFound
+      run(graphql, persistedRequest(query, hash)).data.toString shouldEqual """{"characters":["Naomi"]}"""
+      run(graphql, persistedRequest("", hash)).data.toString shouldEqual """{"characters":["Naomi"]}"""
+      graphql.persistedQueryCacheStats.size shouldEqual 1
+    }
+
+    it("reject queries that do not match their hash") {
+      val graphql = SymphonyQL.newSymphonyQL().query(Queries(List("Naomi"))).build()
+      val hash    = PersistedQueryCache.sha256("{ other }")
+      intercept[SymphonyQLError.ValidationError](run(graphql, persistedRequest(query, hash))) shouldEqual
+        PersistedQueryCache.HashMismatch
+      intercept[SymphonyQLError.ValidationError](run(graphql, persistedRequest("", hash))) shouldEqual
+        PersistedQueryCache.NotFound
+    }
+
+    it("disable persisted queries") {
+      val graphql = SymphonyQL.newSymphonyQL().query(Queries(List("Naomi"))).persistedQueryCacheSize(0).build()
+      val hash    = PersistedQueryCache.sha256(query)
+      intercept[SymphonyQLError.ValidationError](run(graphql, persistedRequest("", hash))) shouldEqual
+        PersistedQueryCache.NotSupported
+      run(graphql, persistedRequest(query, hash)).data.toString shouldEqual """{"characters":["Naomi"]}"""
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.annotations.scala.*
+import symphony.parser.*
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class ComplexitySpec extends AnyFunSpec with Matchers {
+
+  final case class Ship(name: String, @GQLCost(5) crew: List[String])
+  final case class ShipsArgs(first: Int)
+  final case class Queries(@GQLCost(2, "first") ships: ShipsArgs => List[Ship])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val ships = List(Ship("Rocinante", List("Holden")), Ship("Tachi", Nil))
+
+  private def newSymphonyQL(): SymphonyQL.SymphonyQLBuilder =
+    SymphonyQL.newSymphonyQL().query(Queries(args => ships.take(args.first))).reportComplexity(true)
+
+  private def runQuery(graphql: SymphonyQL, query: String): Future[SymphonyQLResponse[SymphonyQLError]] =
+    graphql.runWith(SymphonyQLRequest(query))
+
+  describe("Complexity Spec") {
+    it("report the complexity in extensions") {
+      val response = Await.result(runQuery(newSymphonyQL().build(), "{ ships(first: 3) { name crew } }"), 10.seconds)
+      response.extensions.map(_.toString) shouldEqual Some("""{"complexity":{"depth":2,"breadth":2,"cost":20}}""")
+    }
+
+    it("render the cost directive") {
+      val rendered = newSymphonyQL().build().render
+      rendered should include("directive @cost(weight: Int!, multipliers: [String!]) on FIELD_DEFINITION")
+      rendered should include("ships(first: Int!): [Ship!]! @cost(weight: 2, multipliers: [\"first\"])")
+    }
+
+    it("only define the cost directive in schemas using it") {
+      SymphonyQL.newSymphonyQL().query(Ship("Rocinante", Nil)).build().render should include("directive @cost")
+      SymphonyQL.newSymphonyQL().query(ShipsArgs(1)).build().render should not include "directive @cost"
+    }
+
+    it("reject operations exceeding the limits") {
+      val graphql = newSymphonyQL().maxCost(10).maxDepth(2).build()
+      Await.result(runQuery(graphql, "{ ships(first: 1) { name } }"), 10.seconds).data.toString shouldEqual
+        """{"ships":[{"name":"Rocinante"}]}"""
+      val error   = intercept[SymphonyQLError.ValidationError] {
+        Await.result(runQuery(graphql, "{ ships(first: 100) { crew } }"), 10.seconds)
+      }
+      error.msg shouldEqual "Query cost 502 exceeds the maximum cost 10."
+    }
+  }
+}
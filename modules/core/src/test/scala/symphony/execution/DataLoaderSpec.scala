@@ -0,0 +1,91 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.pattern
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.schema.*
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import scala.concurrent.*
+import scala.concurrent.duration.*
+import scala.jdk.CollectionConverters.*
+
+class DataLoaderSpec extends AnyFunSpec with Matchers {
+
+  final case class Customer(name: String)
+  final case class CustomerId(id: Int)
+  final case class Order(id: Int, customer: CustomerId)
+  final case class Queries(orders: () => Future[List[Order]])
+  final case class AsyncOrder(id: Int, customer: () => Future[CustomerId])
+  final case class AsyncQueries(orders: List[AsyncOrder])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val customers = Map(1 -> Customer("Amos Burton"), 2 -> Customer("Alex Kamal"))
+  private val orders    =
+    List(Order(1, CustomerId(1)), Order(2, CustomerId(2)), Order(3, CustomerId(1)), Order(4, CustomerId(3)))
+
+  private def runQuery(loader: DataLoader[CustomerId, Customer]): String = {
+    implicit val customerSchema: Schema[CustomerId] = Schema.mkBatched(loader)(Schema.derived[Customer])
+    val graphql                                     = SymphonyQL
+      .newSymphonyQL()
+      .query(Queries(() => Future.successful(orders)))
+      .build()
+    Await
+      .result(graphql.runWith(SymphonyQLRequest("{ orders { id customer { name } } }")), 10.seconds)
+      .data
+      .toString
+  }
+
+  private def recordingLoader(calls: ConcurrentLinkedQueue[Seq[Int]]): DataLoader[CustomerId, Customer] =
+    DataLoader { (keys: Seq[CustomerId]) =>
+      calls.add(keys.map(_.id))
+      Future.successful(keys.flatMap(key => customers.get(key.id).map(key -> _)).toMap)
+    }
+
+  private val expected =
+    """{"orders":[{"id":1,"customer":{"name":"Amos Burton"}},{"id":2,"customer":{"name":"Alex Kamal"}},{"id":3,"customer":{"name":"Amos Burton"}},{"id":4,"customer":null}]}"""
+
+  describe("DataLoader Spec") {
+    it("load distinct keys with a single call") {
+      val calls = new ConcurrentLinkedQueue[Seq[Int]]()
+      runQuery(recordingLoader(calls)) shouldEqual expected
+      calls.asScala.toList shouldEqual List(Seq(1, 2, 3))
+    }
+
+    it("split batches larger than maxBatchSize") {
+      val calls = new ConcurrentLinkedQueue[Seq[Int]]()
+      runQuery(recordingLoader(calls).withMaxBatchSize(2)) shouldEqual expected
+      calls.asScala.toList shouldEqual List(Seq(1, 2), Seq(3))
+    }
+
+    it("collect keys within a window") {
+      val calls = new ConcurrentLinkedQueue[Seq[Int]]()
+      runQuery(recordingLoader(calls).withWindow(5.millis)) shouldEqual expected
+      calls.asScala.toList shouldEqual List(Seq(1, 2, 3))
+    }
+
+    it("load the keys of parents resolved asynchronously with a single call") {
+      import actorSystem.dispatcher
+      val calls                                       = new ConcurrentLinkedQueue[Seq[Int]]()
+      val loader                                      = recordingLoader(calls)
+      implicit val customerSchema: Schema[CustomerId] = Schema.mkBatched(loader)(Schema.derived[Customer])
+      // the parents complete one after the other, each continuation requests a single key
+      val asyncOrders                                 = orders.map { order =>
+        AsyncOrder(order.id, () => pattern.after((order.id * 10).millis)(Future.successful(order.customer)))
+      }
+      val graphql                                     =
+        SymphonyQL.newSymphonyQL().query(AsyncQueries(asyncOrders)).build()
+      val response                                    =
+        Await.result(graphql.runWith(SymphonyQLRequest("{ orders { id customer { name } } }")), 10.seconds)
+      response.data.toString shouldEqual expected
+      calls.asScala.toList shouldEqual List(Seq(1, 2, 3))
+    }
+
+    it("reject a negative window") {
+      an[IllegalArgumentException] should be thrownBy recordingLoader(new ConcurrentLinkedQueue).withWindow(-1.millis)
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.schema.*
+
+import java.util.concurrent.atomic.AtomicInteger
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class ExecutionSchedulerSpec extends AnyFunSpec with Matchers {
+
+  final case class Item(id: Int, children: List[() => Future[Int]])
+  final case class Queries(items: List[() => Future[Item]])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val active    = new AtomicInteger
+  private val maxActive = new AtomicInteger
+
+  private def delayed[A](value: => A): Future[A] =
+    Future {
+      maxActive.accumulateAndGet(active.incrementAndGet(), math.max)
+      Thread.sleep(2)
+      active.decrementAndGet()
+      value
+    }(ExecutionContext.global)
+
+  private def queries(size: Int, children: Int): Queries =
+    Queries((1 to size).toList.map(id => () => delayed(Item(id, (1 to children).toList.map(c => () => delayed(c))))))
+
+  private def run(graphql: SymphonyQL, query: String): String =
+    Await.result(graphql.runWith(SymphonyQLRequest(query)), 30.seconds).data.toString
+
+  private def items(values: Seq[String]): String = values.mkString("{\"items\":[", ",", "]}")
+
+  describe("ExecutionScheduler Spec") {
+    it("bound the number of list elements in flight and keep their order") {
+      maxActive.set(0)
+      val graphql =
+        SymphonyQL.newSymphonyQL().query(queries(50, 0)).maxRequestInFlight(4).executionChunkSize(2).build()
+      run(graphql, "{ items { id } }") shouldEqual items((1 to 50).map(id => s"""{"id":$id}"""))
+      maxActive.get should be <= 4
+    }
+
+    it("resolve nested lists within the limits") {
+      maxActive.set(0)
+      val graphql =
+        SymphonyQL.newSymphonyQL().query(queries(10, 10)).maxRequestInFlight(2).maxGlobalInFlight(3).build()
+      val children = (1 to 10).mkString("[", ",", "]")
+      run(graphql, "{ items { id children } }") shouldEqual
+        items((1 to 10).map(id => s"""{"id":$id,"children":$children}"""))
+      graphql.executionInFlight shouldEqual 0
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package symphony.execution
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.stream.scaladsl.Source
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.parser.adt.introspection.*
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class ExecutorSpec extends AnyFunSpec with Matchers {
+
+  final case class Character(name: String, nicknames: List[String])
+  final case class CharacterArgs(name: String)
+  final case class Queries(
+    characters: () => List[Character],
+    character: CharacterArgs => Option[Character],
+    findCharacter: CharacterArgs => Future[Option[Character]],
+    allCharacters: Source[Character, NotUsed]
+  )
+
+  final case class Accounts(balances: List[() => Int])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val characters = List(
+    Character("James Holden", List("Jim", "Hoss")),
+    Character("Naomi Nagata", Nil)
+  )
+
+  val graphql: SymphonyQL = SymphonyQL
+    .newSymphonyQL()
+    .rootResolver(
+      SymphonyQLResolver(
+        Queries(
+          () => characters,
+          args => characters.find(_.name == args.name),
+          args => Future(characters.find(_.name == args.name))(ExecutionContext.global),
+          Source(characters)
+        ) -> Schema.derived[Queries]
+      )
+    )
+    .build()
+
+  private def runQuery(query: String, variables: Map[String, SymphonyQLInputValue] = Map.empty): String =
+    Await
+      .result(graphql.runWith(SymphonyQLRequest(query, variables = Some(variables))), 10.seconds)
+      .data
+      .toString
+
+  describe("Executor Spec") {
+    it("resolve aliases independently") {
+      runQuery("""{ a: character(name: "James Holden") { name } b: character(name: "Naomi Nagata") { name } }""")
+        .shouldEqual("""{"a":{"name":"James Holden"},"b":{"name":"Naomi Nagata"}}""")
+    }
+
+    it("inline fragments and merge fields") {
+      runQuery("""query {
+                |  characters { name ...Nick }
+                |  characters { ... on Character { __typename } }
+                |}
+                |fragment Nick on Character { nicknames }""".stripMargin)
+        .shouldEqual(
+          """{"characters":[{"name":"James Holden","nicknames":["Jim","Hoss"],"__typename":"Character"},{"name":"Naomi Nagata","nicknames":[],"__typename":"Character"}]}"""
+        )
+    }
+
+    it("bind variables and defaults") {
+      val query = """query Q($name: String = "Naomi Nagata") { character(name: $name) { name } }"""
+      runQuery(query) shouldEqual """{"character":{"name":"Naomi Nagata"}}"""
+      runQuery(query, Map("name" -> StringValue("James Holden"))) shouldEqual """{"character":{"name":"James Holden"}}"""
+    }
+
+    it("resolve futures and sources without streaming the response") {
+      runQuery("""{ findCharacter(name: "Naomi Nagata") { name } allCharacters { name } }""") shouldEqual
+        """{"findCharacter":{"name":"Naomi Nagata"},"allCharacters":[{"name":"James Holden"},{"name":"Naomi Nagata"}]}"""
+      graphql.render should include("findCharacter(name: String!): Character\n")
+    }
+
+    it("only evaluate selected fields") {
+      val evaluated              = new java.util.concurrent.atomic.AtomicInteger()
+      val schema: Schema[String] = Schema.mkObject(
+        "Lazy",
+        None,
+        _ =>
+          List(
+            __Field("value", None, _ => Nil, () => Schema.StringSchema.lazyType()) -> (v => PureStage(StringValue(v))),
+            __Field("remote", None, _ => Nil, () => Schema.StringSchema.lazyType()) -> { v =>
+              evaluated.incrementAndGet()
+              Stage.FutureStage(Future.successful(PureStage(StringValue(v))))
+            }
+          )
+      )
+      val lazyQL                 = SymphonyQL.newSymphonyQL().addQuery("lazy", schema).build()
+      val response               = Await.result(lazyQL.runWith(SymphonyQLRequest("{ value }")), 10.seconds)
+      response.data.toString shouldEqual """{"value":"lazy"}"""
+      evaluated.get() shouldEqual 0
+
+      val aliased = Await.result(
+        lazyQL.runWith(SymphonyQLRequest("{ a: remote b: remote ...Remote } fragment Remote on Lazy { remote }")),
+        10.seconds
+      )
+      aliased.data.toString shouldEqual """{"a":"lazy","b":"lazy","remote":"lazy"}"""
+      evaluated.get() shouldEqual 1
+    }
+
+    it("reuse the cached execution plan") {
+      val query = "{ characters { name } }"
+      runQuery(query)
+      val hits = graphql.documentCacheStats.hitCount
+      runQuery(query) shouldEqual """{"characters":[{"name":"James Holden"},{"name":"Naomi Nagata"}]}"""
+      graphql.documentCacheStats.hitCount shouldEqual hits + 1
+    }
+
+    it("run blocking resolvers on virtual threads") {
+      implicit val blockingInt: Schema[() => Int] = Schema.mkBlocking[Int]
+      val running                                 = new java.util.concurrent.atomic.AtomicInteger
+      val maxRunning                              = new java.util.concurrent.atomic.AtomicInteger
+      val virtual                                 = new java.util.concurrent.atomic.AtomicBoolean(true)
+      val balances                                = (1 to 8).toList.map { i => () =>
+        maxRunning.accumulateAndGet(running.incrementAndGet(), math.max)
+        if (!Thread.currentThread().isVirtual) virtual.set(false)
+        Thread.sleep(20)
+        running.decrementAndGet()
+        i
+      }
+      val accounts                                = SymphonyQL
+        .newSymphonyQL()
+        .rootResolver(SymphonyQLResolver(Accounts(balances) -> Schema.derived[Accounts]))
+        .blockingConcurrency(2)
+        .build()
+      try {
+        Await.result(accounts.runWith(SymphonyQLRequest("{ balances }")), 10.seconds).data.toString shouldEqual
+          """{"balances":[1,2,3,4,5,6,7,8]}"""
+        maxRunning.get() shouldEqual 2
+        virtual.get() shouldEqual true
+      } finally accounts.close()
+    }
+
+    it("fail interrupted blocking resolvers and release their permit") {
+      val executor = new BlockingExecutor(1)
+      try {
+        val interrupted = executor.submit(() => throw new InterruptedException("interrupted"))
+        // scala.concurrent boxes the InterruptedException into an ExecutionException
+        Await.ready(interrupted, 10.seconds).value.flatMap(_.failed.toOption).map(_.getCause) should matchPattern {
+          case Some(_: InterruptedException) =>
+        }
+        Await.result(executor.submit(() => 1), 10.seconds) shouldEqual 1
+      } finally executor.close()
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package symphony.execution
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.stream.scaladsl.*
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLOutputValue.*
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class IncrementalDeliverySpec extends AnyFunSpec with Matchers {
+
+  final case class Ship(name: String, crew: () => Future[Int])
+  final case class Queries(ship: Ship, ships: List[Ship], signals: Source[Int, NotUsed], derelict: Ship)
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private def delayed(crew: Int): () => Future[Int] =
+    () => Future { Thread.sleep(50); crew }(ExecutionContext.global)
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(
+      Queries(
+        Ship("Rocinante", delayed(4)),
+        List(Ship("Canterbury", delayed(1)), Ship("Tachi", delayed(2)), Ship("Donnager", delayed(3))),
+        Source(1 to 4),
+        Ship("Anubis", () => Promise[Int]().future)
+      )
+    )
+    .build()
+
+  private val deferQuery =
+    """query Ship {
+      |  ship {
+      |    name
+      |    ...Crew @defer(label: "crew")
+      |  }
+      |}
+      |fragment Crew on Ship {
+      |  crew
+      |}""".stripMargin
+
+  private def run(
+    query: String,
+    scope: RequestScope = new RequestScope()
+  ): (SymphonyQLResponse[SymphonyQLError], List[String], Boolean) = {
+    val response = Await.result(graphql.runIncrementalWith(SymphonyQLRequest(query), scope), 10.seconds)
+    val payloads = response.incremental.fold(Seq.empty[SymphonyQLOutputValue])(stream =>
+      Await.result(stream.stream.runWith(Sink.seq), 10.seconds)
+    )
+    val entries  = payloads.toList.flatMap {
+      case ObjectValue(fields) =>
+        fields.collect { case ("incremental", ListValue(values)) => values.map(_.toString) }.flatten
+      case _                   => Nil
+    }
+    (response, entries, payloads.lastOption.forall(_.toString.endsWith("\"hasNext\":false}")))
+  }
+
+  describe("IncrementalDelivery Spec") {
+    it("deliver the deferred fragments after the initial payload") {
+      val (response, entries, completed) = run(deferQuery)
+      response.toOutputValue.toString shouldEqual """{"data":{"ship":{"name":"Rocinante"}},"hasNext":true}"""
+      entries shouldEqual List("""{"data":{"crew":4},"path":["ship"],"label":"crew"}""")
+      completed shouldEqual true
+    }
+
+    it("deliver the elements of a streamed list after the initial count") {
+      val (response, entries, completed) = run("{ ships @stream(initialCount: 1) { name crew } }")
+      response.data.toString shouldEqual """{"ships":[{"name":"Canterbury","crew":1}]}"""
+      entries shouldEqual List(
+        """{"items":[{"name":"Tachi","crew":2},{"name":"Donnager","crew":3}],"path":["ships",1]}"""
+      )
+      completed shouldEqual true
+    }
+
+    it("stream the elements of a source one at a time") {
+      val (response, entries, completed) = run("""{ signals @stream(initialCount: 2, label: "signals") }""")
+      response.data.toString shouldEqual """{"signals":[1,2]}"""
+      entries shouldEqual List(
+        """{"items":[3],"path":["signals",2],"label":"signals"}""",
+        """{"items":[4],"path":["signals",3],"label":"signals"}"""
+      )
+      completed shouldEqual true
+    }
+
+    it("accept @defer and @stream without arguments") {
+      val (deferred, deferredEntries, _) = run("{ ship { name ... @defer { crew } } }")
+      deferred.data.toString shouldEqual """{"ship":{"name":"Rocinante"}}"""
+      deferredEntries shouldEqual List("""{"data":{"crew":4},"path":["ship"]}""")
+
+      val (streamed, streamedEntries, completed) = run("{ signals @stream }")
+      streamed.data.toString shouldEqual """{"signals":[]}"""
+      streamedEntries shouldEqual (0 until 4).map(i => s"""{"items":[${i + 1}],"path":["signals",$i]}""")
+      completed shouldEqual true
+    }
+
+    it("time out the deferred fragments and report their abandoned fields") {
+      val query                          = deferQuery.replace("ship {", "derelict {")
+      val (response, entries, completed) = run(query, new RequestScope(Some(200.millis)))
+      response.toOutputValue.toString shouldEqual """{"data":{"derelict":{"name":"Anubis"}},"hasNext":true}"""
+      entries shouldEqual List(
+        """{"data":{"crew":null},"errors":[{"message":"The request timed out after 200 milliseconds.","path":["derelict","crew"]}],"path":["derelict"],"label":"crew"}"""
+      )
+      completed shouldEqual true
+    }
+
+    it("execute the deferred fragments inline without incremental delivery") {
+      val response = Await.result(graphql.runWith(SymphonyQLRequest(deferQuery)), 10.seconds)
+      response.toOutputValue.toString shouldEqual """{"data":{"ship":{"name":"Rocinante","crew":4}}}"""
+      response.incremental shouldEqual None
+    }
+  }
+}
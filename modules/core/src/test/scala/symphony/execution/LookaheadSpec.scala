@@ -0,0 +1,83 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.schema.*
+
+import java.util.concurrent.atomic.AtomicReference
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class LookaheadSpec extends AnyFunSpec with Matchers {
+
+  final case class Origin(planet: String, station: String)
+  final case class NicknamesArgs(limit: Int)
+  final case class Character(name: String, age: Int, origin: Origin, nicknames: NicknamesArgs => List[String])
+  final case class CharacterArgs(name: String)
+  final case class Queries(
+    character: (CharacterArgs, Lookahead) => Option[Character],
+    characters: Lookahead => List[Character]
+  )
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val characters = List(
+    Character("Naomi", 34, Origin("Earth", "Tycho"), args => List("Nagata", "Naomi").take(args.limit)),
+    Character("Amos", 36, Origin("Earth", "Baltimore"), args => List("Burton").take(args.limit))
+  )
+
+  private val lookahead = new AtomicReference[Lookahead](Lookahead.empty)
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(
+      Queries(
+        (args, selection) => {
+          lookahead.set(selection)
+          characters.find(_.name == args.name)
+        },
+        selection => {
+          lookahead.set(selection)
+          characters
+        }
+      )
+    )
+    .build()
+
+  private def run(query: String, variables: Map[String, SymphonyQLInputValue] = Map.empty): String =
+    Await.result(graphql.runWith(SymphonyQLRequest(query, variables = Some(variables))), 10.seconds).data.toString
+
+  describe("Lookahead Spec") {
+    it("expose merged selections, aliases and bound arguments to resolvers") {
+      val query =
+        """query Character($limit: Int!) {
+          |  character(name: "Naomi") { name years: age origin { planet } ...Details }
+          |}
+          |fragment Details on Character { name origin { station } nicknames(limit: $limit) }""".stripMargin
+      run(query, Map("limit" -> IntValue(1))) shouldEqual
+        """{"character":{"name":"Naomi","years":34,"origin":{"planet":"Earth","station":"Tycho"},"nicknames":["Nagata"]}}"""
+
+      val selection = lookahead.get
+      selection.fields.map(f => f.name -> f.responseKey) shouldEqual
+        List("name" -> "name", "age" -> "years", "origin" -> "origin", "nicknames" -> "nicknames")
+      selection.field("origin").map(_.selection.names) shouldEqual Some(Set("planet", "station"))
+      selection.field("nicknames").map(_.arguments) shouldEqual Some(Map("limit" -> IntValue(1)))
+      selection.fieldsFor("Character").size shouldEqual 4
+      selection.contains("age") shouldEqual true
+      selection.field("origin").exists(_.selection.field("planet").exists(_.selection.isEmpty)) shouldEqual true
+    }
+
+    it("expose selections to resolvers without arguments") {
+      run("{ characters { name } }") shouldEqual """{"characters":[{"name":"Naomi"},{"name":"Amos"}]}"""
+      lookahead.get.names shouldEqual Set("name")
+
+      run("{ characters { __typename } }") shouldEqual
+        """{"characters":[{"__typename":"Character"},{"__typename":"Character"}]}"""
+      lookahead.get.isEmpty shouldEqual true
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.schema.*
+
+import java.util.concurrent.atomic.AtomicInteger
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class MemoizationSpec extends AnyFunSpec with Matchers {
+
+  final case class Limit(count: Int)
+  final case class Ship(name: String, crew: Limit => List[String])
+  final case class Station(name: String, docks: Limit => List[Int])
+  final case class Queries(ships: List[Ship], manifest: Limit => List[Int], stations: List[Station])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val extractions = new AtomicInteger
+  private val resolutions = new AtomicInteger
+  private val dockings    = new AtomicInteger
+
+  implicit val limitExtractor: ArgumentExtractor[Limit] = {
+    val derived = ArgumentExtractor.gen[Limit]
+    input => {
+      extractions.incrementAndGet()
+      derived.extract(input)
+    }
+  }
+
+  implicit val manifestSchema: Schema[Limit => List[Int]] = Schema.mkMemoized
+
+  private val crew = List("Holden", "Naomi", "Amos", "Alex")
+
+  private def station(name: String): Station =
+    Station(
+      name,
+      limit => {
+        dockings.incrementAndGet()
+        (1 to limit.count).toList
+      }
+    )
+
+  private val ceres = station("Ceres")
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(
+      Queries(
+        List("Rocinante", "Canterbury", "Tachi").map(name => Ship(name, limit => crew.take(limit.count))),
+        limit => {
+          resolutions.incrementAndGet()
+          (1 to limit.count).toList
+        },
+        List(ceres, station("Eros"), ceres)
+      )
+    )
+    .build()
+
+  private def run(query: String, variables: Map[String, SymphonyQLInputValue] = Map.empty): String =
+    Await.result(graphql.runWith(SymphonyQLRequest(query, variables = Some(variables))), 10.seconds).data.toString
+
+  describe("Memoization Spec") {
+    it("extract the arguments of a field once for all the elements of a list") {
+      val before = extractions.get
+      run("{ ships { name crew(count: 1) } }") shouldEqual
+        """{"ships":[{"name":"Rocinante","crew":["Holden"]},{"name":"Canterbury","crew":["Holden"]},{"name":"Tachi","crew":["Holden"]}]}"""
+      extractions.get - before shouldEqual 1
+
+      val query = "query Ships($count: Int!) { ships { crew(count: $count) } }"
+      run(query, Map("count" -> IntValue(2))) shouldEqual
+        """{"ships":[{"crew":["Holden","Naomi"]},{"crew":["Holden","Naomi"]},{"crew":["Holden","Naomi"]}]}"""
+      run(query, Map("count" -> IntValue(3))) shouldEqual
+        """{"ships":[{"crew":["Holden","Naomi","Amos"]},{"crew":["Holden","Naomi","Amos"]},{"crew":["Holden","Naomi","Amos"]}]}"""
+      extractions.get - before shouldEqual 3
+    }
+
+    it("extract the arguments of each request separately") {
+      val before = extractions.get
+      run("{ ships { crew(count: 4) } }")
+      run("{ ships { crew(count: 4) } }")
+      extractions.get - before shouldEqual 2
+    }
+
+    it("resolve memoized resolvers once per parent and arguments") {
+      val before = resolutions.get
+      run("{ first: manifest(count: 2) second: manifest(count: 2) third: manifest(count: 1) }") shouldEqual
+        """{"first":[1,2],"second":[1,2],"third":[1]}"""
+      resolutions.get - before shouldEqual 2
+
+      run("{ first: manifest(count: 2) second: manifest(count: 2) }")
+      resolutions.get - before shouldEqual 3
+    }
+
+    it("resolve memoized resolvers once for a parent appearing several times") {
+      val before = dockings.get
+      run("{ stations { name docks(count: 2) } }") shouldEqual
+        """{"stations":[{"name":"Ceres","docks":[1,2]},{"name":"Eros","docks":[1,2]},{"name":"Ceres","docks":[1,2]}]}"""
+      dockings.get - before shouldEqual 2
+    }
+  }
+}
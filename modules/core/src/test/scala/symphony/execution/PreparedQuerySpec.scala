@@ -0,0 +1,50 @@
+package symphony.execution
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.schema.*
+
+import java.util.Optional
+import scala.concurrent.*
+import scala.concurrent.duration.*
+import scala.jdk.FutureConverters.*
+
+class PreparedQuerySpec extends AnyFunSpec with Matchers {
+
+  final case class Character(name: String, age: Int)
+  final case class CharacterArgs(name: String)
+  final case class Queries(character: CharacterArgs => Option[Character])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val characters = List(Character("Naomi", 34), Character("Amos", 36))
+
+  private val graphql =
+    SymphonyQL.newSymphonyQL().query(Queries(args => characters.find(_.name == args.name))).build()
+
+  describe("PreparedQuery Spec") {
+    it("execute a prepared query with different variables") {
+      val prepared = graphql
+        .prepare("query Character($name: String!) { character(name: $name) { name age } }", Some("Character"))
+        .fold(throw _, identity)
+      val results  = characters.map { character =>
+        Await.result(prepared.execute(Map("name" -> StringValue(character.name))), 10.seconds).data.toString
+      }
+      results shouldEqual List("""{"character":{"name":"Naomi","age":34}}""", """{"character":{"name":"Amos","age":36}}""")
+      graphql.documentCacheStats.missCount shouldEqual 1
+    }
+
+    it("report preparation errors at prepare time") {
+      graphql.prepare("{ character(name: \"Naomi\") { unknown } }").isLeft shouldEqual true
+      graphql.prepare("{ character(name: ").isLeft shouldEqual true
+      graphql.prepare("query Named { character(name: \"Naomi\") { name } }", Some("B")) shouldEqual
+        Left(SymphonyQLError.ArgumentError("Unknown operation B."))
+      an[SymphonyQLError.ArgumentError] should be thrownBy
+        Await.result(graphql.prepare("{ character(name: \"Naomi\") { name } }", Optional.of("B")).asScala, 10.seconds)
+    }
+  }
+}
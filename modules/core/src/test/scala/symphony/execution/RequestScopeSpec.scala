@@ -0,0 +1,76 @@
+package symphony.execution
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.stream.scaladsl.Source
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.SymphonyQLError.ExecutionError
+import symphony.parser.SymphonyQLPathValue
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class RequestScopeSpec extends AnyFunSpec with Matchers {
+
+  final case class Ship(name: String, crew: () => Future[Int])
+  final case class Queries(ships: List[Ship], signals: Source[Int, NotUsed])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val never = Promise[Int]().future
+
+  private val ships = List(Ship("Rocinante", () => Future.successful(4)), Ship("Canterbury", () => never))
+
+  // signals that never complete, `started` completes once they are running
+  private val started = Promise[Unit]()
+  private val signals = Source.maybe[Int].mapMaterializedValue { _ =>
+    started.trySuccess(())
+    NotUsed
+  }
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(Queries(ships, signals))
+    .operationTimeout("Ships", 100.millis)
+    .operationTimeout("Crew", 1.minute)
+    .build()
+
+  describe("RequestScope Spec") {
+    it("return the partial data and the abandoned fields once the operation timed out") {
+      val response = Await.result(
+        graphql.runWith(SymphonyQLRequest("query Ships { ships { name crew } }")),
+        10.seconds
+      )
+      response.data.toString shouldEqual
+        """{"ships":[{"name":"Rocinante","crew":4},{"name":"Canterbury","crew":null}]}"""
+      response.errors shouldEqual List(
+        ExecutionError(
+          "The request timed out after 100 milliseconds.",
+          List(SymphonyQLPathValue.Key("ships"), SymphonyQLPathValue.Index(1), SymphonyQLPathValue.Key("crew"))
+        )
+      )
+    }
+
+    it("stop the sources of a cancelled request") {
+      val scope    = new RequestScope()
+      val response = graphql.runWith(SymphonyQLRequest("{ ships { name } signals }"), scope)
+      Await.result(started.future, 10.seconds)
+      scope.cancel()
+      Await.result(response, 10.seconds).data.toString shouldEqual
+        """{"ships":[{"name":"Rocinante"},{"name":"Canterbury"}],"signals":null}"""
+      scope.isCancelled shouldEqual true
+    }
+
+    it("use the timeout of the scope first") {
+      // the operation would only time out after the test
+      val response = Await.result(
+        graphql.runWith(SymphonyQLRequest("query Crew { ships { crew } }"), new RequestScope(Some(10.millis))),
+        10.seconds
+      )
+      response.errors.map(_.getMessage).distinct shouldEqual List("The request timed out after 10 milliseconds.")
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package symphony.execution
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.stream.scaladsl.*
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLOutputValue.*
+import symphony.schema.*
+
+import java.util.concurrent.atomic.AtomicInteger
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class StreamingSpec extends AnyFunSpec with Matchers {
+
+  final case class Row(id: Int, label: () => Future[String])
+  final case class Queries(count: Int, rows: Source[Row, NotUsed], signals: Source[Int, NotUsed])
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val resolved = new AtomicInteger
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(
+      Queries(
+        3,
+        Source(1 to 3).map(id =>
+          Row(id, () => Future { resolved.incrementAndGet(); s"row $id" }(ExecutionContext.global))
+        ),
+        Source.single(1).concat(Source.never)
+      )
+    )
+    .build()
+
+  private val query = "{ count rows { id label } }"
+
+  describe("Streaming Spec") {
+    it("resolve the elements of sources while they are pulled") {
+      val response = Await.result(graphql.runStreamingWith(SymphonyQLRequest(query)), 10.seconds)
+      resolved.get shouldEqual 0
+      val rows     = response.data match {
+        case ObjectValue(List("count" -> count, "rows" -> StreamValue(stream))) =>
+          count.toString shouldEqual "3"
+          Await.result(stream.runWith(Sink.seq), 10.seconds)
+        case other                                                              => fail(s"unexpected $other")
+      }
+      ListValue(rows.toList).toString shouldEqual
+        """[{"id":1,"label":"row 1"},{"id":2,"label":"row 2"},{"id":3,"label":"row 3"}]"""
+      resolved.get shouldEqual 3
+    }
+
+    it("stop the streams once the request timed out") {
+      val response = Await.result(
+        graphql.runStreamingWith(SymphonyQLRequest("{ signals }"), new RequestScope(Some(200.millis))),
+        10.seconds
+      )
+      val signals  = response.data match {
+        case ObjectValue(List("signals" -> StreamValue(stream))) => stream.runWith(Sink.seq)
+        case other                                               => fail(s"unexpected $other")
+      }
+      Await.ready(signals, 10.seconds).value.flatMap(_.failed.toOption).map(_.getMessage) shouldEqual
+        Some("The request timed out after 200 milliseconds.")
+    }
+
+    it("collect the sources without streaming") {
+      Await.result(graphql.runWith(SymphonyQLRequest(query)), 10.seconds).data.toString shouldEqual
+        """{"count":3,"rows":[{"id":1,"label":"row 1"},{"id":2,"label":"row 2"},{"id":3,"label":"row 3"}]}"""
+    }
+  }
+}
@@ -3,6 +3,7 @@ package symphony.schema.derivation
 import org.scalatest.funspec.AnyFunSpec
 import org.scalatest.matchers.should.Matchers
 import symphony.*
+import symphony.annotations.scala.*
 import symphony.parser.*
 import symphony.parser.adt.introspection.*
 import symphony.schema.*
@@ -53,6 +54,51 @@ class ArgumentExtractorSpec extends AnyFunSpec with Matchers {
       )
     }
 
+    it("decodes the fields of an input object") {
+      case class Tag(name: String, weight: Option[Double])
+      case class Filter(
+        @GQLName("nameLike") name: String,
+        @GQLDefault("10") limit: Int,
+        active: Option[Boolean],
+        tags: List[Tag]
+      )
+
+      val extractor = ArgumentExtractor[Filter]
+      val tag       = SymphonyQLInputValue.ObjectValue(Map("name" -> SymphonyQLValue.StringValue("belt")))
+
+      extractor.extract(
+        SymphonyQLInputValue.ObjectValue(
+          Map(
+            "nameLike" -> SymphonyQLValue.StringValue("Ro"),
+            "active"   -> SymphonyQLValue.BooleanValue(true),
+            "tags"     -> SymphonyQLInputValue.ListValue(List(tag))
+          )
+        )
+      ) shouldEqual Right(Filter("Ro", 10, Some(true), List(Tag("belt", None))))
+
+      extractor.extract(
+        SymphonyQLInputValue.ObjectValue(
+          Map(
+            "nameLike" -> SymphonyQLValue.StringValue("Ro"),
+            "limit"    -> SymphonyQLValue.StringValue("ten"),
+            "tags"     -> SymphonyQLInputValue.ListValue(Nil)
+          )
+        )
+      ) shouldEqual Left(SymphonyQLError.ArgumentError("Cannot build an Long from input \"ten\""))
+
+      extractor.extract(
+        SymphonyQLInputValue.ObjectValue(
+          Map(
+            "nameLike" -> SymphonyQLValue.IntValue(1),
+            "limit"    -> SymphonyQLValue.StringValue("ten"),
+            "tags"     -> SymphonyQLInputValue.ListValue(Nil)
+          )
+        )
+      ).left.map(_.msg) shouldEqual Left(
+        "Cannot build a String from input 1; Cannot build an Long from input \"ten\""
+      )
+    }
+
   }
 
 }
@@ -6,7 +6,7 @@ import symphony.*
 import symphony.schema.*
 import symphony.schema.derivation.*
 import symphony.annotations.scala.*
-import symphony.parser.DocumentRenderer
+import symphony.parser.{ DocumentRenderer, SymphonyQLValue }
 import symphony.parser.adt.introspection.*
 
 class SchemaSpec extends AnyFunSpec with Matchers {
@@ -15,6 +15,8 @@ class SchemaSpec extends AnyFunSpec with Matchers {
   case class UserComplex(id: Int, user: UserTest)
   case class UserParams(nameLike: String, active: Boolean)
 
+  case class Account(@GQLName("login") name: String, private val secret: String, active: Boolean)
+
   case class QueryTest(allUsers: Int => List[UserTest])
   case class MutationTest(
     id: UserComplex => Boolean,
@@ -211,6 +213,18 @@ class SchemaSpec extends AnyFunSpec with Matchers {
           |  e: String!
           |}""".stripMargin
     }
+
+    it("analyze the fields of a case class, private ones included") {
+      Schema.derived[Account].analyze(Account("naomi", "belt", true)) match {
+        case Stage.ObjectStage("Account", fields) =>
+          fields.toMap shouldEqual Map(
+            "login"  -> PureStage(SymphonyQLValue.StringValue("naomi")),
+            "secret" -> PureStage(SymphonyQLValue.StringValue("belt")),
+            "active" -> PureStage(SymphonyQLValue.BooleanValue.True)
+          )
+        case other                                => fail(s"unexpected $other")
+      }
+    }
   }
 
 }
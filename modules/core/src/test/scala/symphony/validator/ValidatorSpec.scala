@@ -0,0 +1,111 @@
+package symphony.validator
+
+import org.apache.pekko.actor.ActorSystem
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+import scala.util.*
+
+class ValidatorSpec extends AnyFunSpec with Matchers {
+
+  enum Origin {
+    case EARTH, MARS, BELT
+  }
+
+  final case class Character(name: String, origin: Origin, nicknames: List[String])
+  final case class CharacterArgs(name: String)
+  final case class FilterArgs(origin: Option[Origin])
+  final case class Queries(
+    character: CharacterArgs => Option[Character],
+    characters: FilterArgs => List[Character]
+  )
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val characters = List(
+    Character("James Holden", Origin.EARTH, List("Jim")),
+    Character("Naomi Nagata", Origin.BELT, Nil)
+  )
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(
+      Queries(
+        args => characters.find(_.name == args.name),
+        args => characters.filter(c => args.origin.forall(_ == c.origin))
+      )
+    )
+    .build()
+
+  private def validationError(query: String, variables: Map[String, SymphonyQLInputValue] = Map.empty): String =
+    Await.ready(graphql.runWith(SymphonyQLRequest(query, variables = Some(variables))), 10.seconds).value match {
+      case Some(Failure(error: SymphonyQLError.ValidationError)) => error.msg
+      case other                                                 => fail(s"Expected a validation error, got $other")
+    }
+
+  describe("Validator Spec") {
+    it("accept valid documents") {
+      val query     =
+        """query Characters($origin: Origin, $withName: Boolean!) {
+          |  characters(origin: $origin) { ...Names @include(if: $withName) origin __typename }
+          |  holden: character(name: "James Holden") { ... on Character { nicknames } }
+          |}
+          |
+          |fragment Names on Character { name }""".stripMargin
+      val variables = Map("origin" -> StringValue("BELT"), "withName" -> BooleanValue(true))
+      val response  = Await.result(graphql.runWith(SymphonyQLRequest(query, variables = Some(variables))), 10.seconds)
+      response.data.toString shouldEqual
+        """{"characters":[{"name":"Naomi Nagata","origin":"BELT","__typename":"Character"}],"holden":{"nicknames":["Jim"]}}"""
+    }
+
+    it("reject unknown fields and invalid selections") {
+      validationError("{ characters { age } }") shouldEqual "Field 'age' does not exist on type 'Character'."
+      validationError("{ characters }") shouldEqual
+        "Field 'characters' of type 'Character' must have a selection of subfields."
+      validationError("{ characters { name { length } } }") shouldEqual
+        "Field 'name' of type 'String' must not have a selection since it has no subfields."
+      validationError("{ characters { name } characters(origin: MARS) { name } }") shouldEqual
+        "Fields 'characters' conflict because they select different fields or arguments. Use different aliases on the fields to fetch both if this was intentional."
+    }
+
+    it("reject invalid arguments") {
+      validationError("{ character { name } }") shouldEqual
+        "Required argument 'name' is missing on field 'character' of type 'Queries'."
+      validationError("{ character(name: 1) { name } }") shouldEqual
+        "Value 1 is not a valid 'String' for argument 'name' on field 'character' of type 'Queries'."
+      validationError("{ characters(origin: PLUTO) { name } }") shouldEqual
+        "Value PLUTO is not a valid 'Origin' for argument 'origin' on field 'characters' of type 'Queries'."
+      validationError("{ characters(size: 1) { name } }") shouldEqual
+        "Argument 'size' is not defined on field 'characters' of type 'Queries'."
+    }
+
+    it("reject invalid fragments") {
+      validationError("{ characters { ...Names } }") shouldEqual "Fragment spread 'Names' is not defined."
+      validationError("{ characters { name } } fragment Names on Character { name }") shouldEqual
+        "Fragment 'Names' is not used in any spread."
+      validationError(
+        "{ characters { ...First } } fragment First on Character { ...Second } fragment Second on Character { ...First }"
+      ) shouldEqual "Fragment 'First' forms a cycle through First -> Second -> First."
+      validationError("{ characters { ... on Queries { __typename } } }") shouldEqual
+        "Inline fragment on type 'Queries' can never be spread on type 'Character'."
+    }
+
+    it("reject invalid variables and directives") {
+      validationError("query($name: String!) { character(name: $other) { name } }") shouldEqual
+        "Variable 'other' is not defined by anonymous operation."
+      validationError("query($name: String!) { characters { name } }") shouldEqual
+        "Variable 'name' is not used in anonymous operation."
+      validationError("query($name: String) { character(name: $name) { name } }") shouldEqual
+        "Variable 'name' of type 'String' is used in a position expecting type 'String!'."
+      validationError("query($c: Character) { characters { name } }") shouldEqual
+        "Type 'Character' of variable 'c' is not an input type."
+      validationError("{ characters { name @upper(strict: true) } }") shouldEqual "Directive 'upper' is not supported."
+    }
+  }
+}
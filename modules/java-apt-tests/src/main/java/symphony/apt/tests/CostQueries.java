@@ -0,0 +1,14 @@
+package symphony.apt.tests;
+
+import symphony.annotations.java.GQLCost;
+import symphony.apt.annotation.ObjectSchema;
+
+import java.util.List;
+import java.util.function.Function;
+
+@ObjectSchema
+record CostQueries(
+        @GQLCost(weight = 3, multipliers = {"value"}) Function<Integer, List<SimpleNestedObject>> nested,
+        @GQLCost(weight = 2) String name
+) {
+}
@@ -0,0 +1,14 @@
+package symphony.apt.tests;
+
+import symphony.apt.annotation.ObjectSchema;
+import symphony.execution.Lookahead;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@ObjectSchema
+record LookaheadQueries(
+        BiFunction<SimpleNestedObject, Lookahead, String> search,
+        Function<Lookahead, SimpleNestedObject> nested
+) {
+}
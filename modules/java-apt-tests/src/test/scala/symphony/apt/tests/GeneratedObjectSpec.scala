@@ -28,6 +28,13 @@ class GeneratedObjectSpec extends AnyFunSpec with Matchers {
       )
     }
 
+    it("interface schema stage") {
+      NestedInterfaceSchema.schema.analyze(new FooA("a", "b", "c")) should matchPattern {
+        case Stage.ObjectStage("FooA", _) =>
+      }
+      Mid2Schema.schema.analyze(new FooC("b", "d", "e")) should matchPattern { case Stage.ObjectStage("FooC", _) => }
+    }
+
     it("simple union schema") {
       val document = getDocument(SearchResultSchema.schema)
       val str      = DocumentRenderer.render(document).trim
@@ -264,6 +271,48 @@ class GeneratedObjectSpec extends AnyFunSpec with Matchers {
           |}""".stripMargin
     }
 
+    it("lookahead object schema") {
+      val document = getDocument(LookaheadQueriesSchema.schema)
+      val str      = DocumentRenderer.render(document).trim
+      str shouldEqual
+        """enum GQLOriginEnum {
+          |  "EARTH"
+          |  EARTH @deprecated(reason: "deprecated")
+          |  MARS
+          |  BELT
+          |}
+          |
+          |type LookaheadQueries {
+          |  search(originEnum: GQLOriginEnum!): String
+          |  nested: SimpleNestedObject!
+          |}
+          |
+          |type SimpleNestedObject {
+          |  originEnum: GQLOriginEnum!
+          |}""".stripMargin
+    }
+
+    it("cost object schema") {
+      val document = getDocument(CostQueriesSchema.schema)
+      val str      = DocumentRenderer.render(document).trim
+      str shouldEqual
+        """enum GQLOriginEnum {
+          |  "EARTH"
+          |  EARTH @deprecated(reason: "deprecated")
+          |  MARS
+          |  BELT
+          |}
+          |
+          |type CostQueries {
+          |  nested(value: Int): [SimpleNestedObject!]! @cost(weight: 3, multipliers: ["value"])
+          |  name: String @cost(weight: 2)
+          |}
+          |
+          |type SimpleNestedObject {
+          |  originEnum: GQLOriginEnum!
+          |}""".stripMargin
+    }
+
     it("complex object schema") {
       val document = getDocument(OutputObjectSchema.schema)
       val str      = DocumentRenderer.render(document).trim
@@ -0,0 +1,44 @@
+package symphony.apt.tests
+
+import com.squareup.javapoet.*
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.*
+import symphony.apt.Constant
+import symphony.apt.model.WrappedContext
+import symphony.apt.util.TypeUtils
+import symphony.execution.Lookahead
+import symphony.schema.{ ArgumentExtractor, Schema }
+
+import java.util.function.BiFunction
+
+class TypeUtilsSpec extends AnyFunSpec with Matchers {
+
+  private val string = ClassName.get(classOf[String])
+
+  private def biFunction(first: TypeName, second: TypeName): TypeName =
+    ParameterizedTypeName.get(ClassName.get(classOf[BiFunction[?, ?, ?]]), first, second, string)
+
+  private def schemaString(typeName: TypeName): String = {
+    val context = new WrappedContext(
+      typeName,
+      ClassName.get(classOf[Schema[?]]),
+      Constant.SCHEMA_SUFFIX,
+      ClassName.get(classOf[ArgumentExtractor[?]])
+    )
+    TypeUtils.buildSchemaWrappedString(context, new java.util.ArrayList[AnyRef]())
+  }
+
+  describe("TypeUtils Spec") {
+    it("build lookahead resolvers from BiFunctions taking a Lookahead") {
+      val lookahead = biFunction(string, ClassName.get(classOf[Lookahead]))
+      TypeUtils.isLookaheadBiFunction(lookahead) shouldEqual true
+      schemaString(lookahead) should startWith("$T.createLookaheadFunction(")
+    }
+
+    it("keep the other BiFunctions as they are") {
+      val other = biFunction(ClassName.get(classOf[Lookahead]), string)
+      TypeUtils.isLookaheadBiFunction(other) shouldEqual false
+      schemaString(other) shouldEqual "$T.$N"
+    }
+  }
+}
@@ -11,10 +11,12 @@ public final class Constant {
 
   public static final String NOT_USED_CLASS = "org.apache.pekko.NotUsed";
   public static final String JAVA_FUNCTION_CLASS = "java.util.function.Function";
+  public static final String JAVA_BIFUNCTION_CLASS = "java.util.function.BiFunction";
   public static final String JAVA_SUPPLIER_CLASS = "java.util.function.Supplier";
   public static final String JAVA_SOURCE_CLASS = "org.apache.pekko.stream.javadsl.Source";
   public static final String JAVA_OPTIONAL_CLASS = "java.util.Optional";
   public static final String JAVA_MAP_CLASS = "java.util.Map";
+  public static final String LOOKAHEAD_CLASS = "symphony.execution.Lookahead";
 
   public static final AddSuffix SCHEMA_SUFFIX = new AddSuffix("Schema");
   public static final AddSuffix INPUT_SCHEMA_SUFFIX = new AddSuffix("InputSchema");
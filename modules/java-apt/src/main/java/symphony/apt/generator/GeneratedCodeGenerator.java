@@ -10,6 +10,7 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import org.apache.commons.lang3.time.DateFormatUtils;
+import symphony.annotations.java.GQLCost;
 import symphony.annotations.java.GQLDeprecated;
 import symphony.annotations.java.GQLDescription;
 import symphony.annotations.java.GQLExcluded;
@@ -19,6 +20,7 @@ import symphony.apt.Constant;
 import symphony.apt.SymphonyQLProcessor;
 import symphony.apt.context.ProcessorContext;
 import symphony.apt.context.ProcessorContextHolder;
+import symphony.apt.model.TypeClassification;
 import symphony.apt.model.WrappedContext;
 import symphony.apt.util.MessageUtils;
 import symphony.apt.util.ModelUtils;
@@ -119,7 +121,7 @@ public abstract class GeneratedCodeGenerator implements CodeGenerator {
                                     .schema(%s)
                                     .description($L)
                                     .isDeprecated($L)
-                                    .deprecationReason($L)
+                                    .deprecationReason($L)$L
                                     .build();
                         }
                     },
@@ -142,7 +144,7 @@ public abstract class GeneratedCodeGenerator implements CodeGenerator {
                                     .schema(%s)
                                     .description($L)
                                     .isDeprecated($L)
-                                    .deprecationReason($L)
+                                    .deprecationReason($L)$L
                                     .build();
                         }
                     },
@@ -261,11 +263,14 @@ public abstract class GeneratedCodeGenerator implements CodeGenerator {
             var fieldValueType = fieldElement.asType().getKind().isPrimitive() ? TypeUtils.getTypeName(fieldElement, true) : type;
             var fieldFunctionType = ParameterizedTypeName.get(ClassName.get(Function.class), typeName, fieldValueType);
             var fieldValueArgs = List.of(fieldFunctionType, fieldValueType, typeName, name);
-            var annotationVarargs = getAnnotationVarargs(fieldElement);
+            var annotationVarargs = new ArrayList<>(getAnnotationVarargs(fieldElement));
+            annotationVarargs.add(getCost(fieldElement));
             var realName = getName(elementEntry.getValue()).orElse(elementEntry.getKey());
             var list = List.of(BUILD_FIELD_FUNCTION_TYPE, FIELD_CLASS, FIELD_BUILDER_CLASS, realName);
-            TypeUtils.classifyType(rawType);
-            return switch (TypeUtils.classifyType(rawType)) {
+            var classification = TypeUtils.isLookaheadBiFunction(type)
+                    ? TypeClassification.FUNCTION_PARAMETERIZED_TYPE
+                    : TypeUtils.classifyType(rawType);
+            return switch (classification) {
                 case DEFAULT_OR_PRIMITIVE_TYPE -> {
                     var args = new ArrayList<>(list);
                     args.addAll(List.of(SCHEMA_CLASS, ClassName.get("", type.toString())));
@@ -391,6 +396,16 @@ public abstract class GeneratedCodeGenerator implements CodeGenerator {
         return description != null ? CodeBlock.of("$S", description.value()) : CodeBlock.of("null");
     }
 
+    protected static CodeBlock getCost(Element element) {
+        var cost = TypeUtils.getAnnotation(GQLCost.class, element);
+        if (cost == null) return CodeBlock.of("");
+        var builder = CodeBlock.builder().add(".cost($L", cost.weight());
+        for (var multiplier : cost.multipliers()) {
+            builder.add(", $S", multiplier);
+        }
+        return builder.add(")").build();
+    }
+
     protected static CodeBlock getOrigin(Element element) {
         var typeName = TypeUtils.getTypeName(element);
         return CodeBlock.of("$S", typeName.toString());
@@ -42,6 +42,7 @@ public final class ModelUtils {
       if (m != null) {
         final var mElement = m.getElement();
         if (m.getReturnType().toString().startsWith(Constant.JAVA_FUNCTION_CLASS)
+            || m.getReturnType().toString().startsWith(Constant.JAVA_BIFUNCTION_CLASS)
             || m.getReturnType().toString().startsWith(Constant.JAVA_SUPPLIER_CLASS)) {
           return TypeUtils.hasAnyModifier(mElement, Modifier.PUBLIC);
         }
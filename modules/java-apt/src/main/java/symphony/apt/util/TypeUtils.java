@@ -298,6 +298,8 @@ public final class TypeUtils {
             args.add(wrappedContext.usedClassName);
             args.add(wrappedContext.typeName.toString());
             sb.append("($T) $T.getSchema($S)");
+        } else if (isLookaheadBiFunction(info)) {
+            return buildLookaheadWrappedString(wrappedContext, args);
         } else {
             switch (rawType) {
                 case "java.util.Map":
@@ -329,6 +331,9 @@ public final class TypeUtils {
                     sb.append("$T.createCompletionStage(");
                     break;
                 case "java.util.function.Function":
+                    if (isLookaheadFunction(info)) {
+                        return buildLookaheadWrappedString(wrappedContext, args);
+                    }
                     args.add(wrappedContext.usedClassName);
                     sb.append("$T.createFunction(");
                     break;
@@ -384,6 +389,52 @@ public final class TypeUtils {
         return sb.toString();
     }
 
+    private static boolean isLookaheadFunction(TypeName typeName) {
+        return typeName instanceof ParameterizedTypeName parameterizedTypeName
+                && parameterizedTypeName.typeArguments.getFirst().toString().equals(Constant.LOOKAHEAD_CLASS);
+    }
+
+    /**
+     * Whether {@code typeName} is a {@code BiFunction<A, Lookahead, B>}, the other BiFunctions are not resolvers.
+     */
+    public static boolean isLookaheadBiFunction(TypeName typeName) {
+        return typeName instanceof ParameterizedTypeName parameterizedTypeName
+                && parameterizedTypeName.rawType.toString().equals(Constant.JAVA_BIFUNCTION_CLASS)
+                && parameterizedTypeName.typeArguments.size() == 3
+                && parameterizedTypeName.typeArguments.get(1).toString().equals(Constant.LOOKAHEAD_CLASS);
+    }
+
+    /**
+     * Builds {@code Function<Lookahead, B>} into {@code createLookahead(schema of B)} and
+     * {@code BiFunction<A, Lookahead, B>} into {@code createLookaheadFunction(input schema of A, extractor of A, schema of B)}.
+     */
+    private static String buildLookaheadWrappedString(WrappedContext wrappedContext, List<Object> args) {
+        final var sb = new StringBuilder();
+        var typeArguments = ((ParameterizedTypeName) wrappedContext.typeName).typeArguments;
+        args.add(wrappedContext.usedClassName);
+        if (typeArguments.size() == 2) {
+            sb.append("$T.createLookahead(");
+        } else {
+            sb.append("$T.createLookaheadFunction(");
+            wrappedContext.typeName = typeArguments.getFirst();
+            wrappedContext.addSuffix = INPUT_SCHEMA_SUFFIX;
+            sb.append(buildSchemaWrappedString(wrappedContext, args));
+            sb.append(", ");
+            var argCtx = new WrappedContext(
+                    typeArguments.getFirst(),
+                    wrappedContext.extractorClassName,
+                    Constant.EXTRACTOR_SUFFIX_FUNCTION,
+                    wrappedContext.extractorClassName
+            );
+            sb.append(buildExtractorWrappedString(argCtx, args));
+            sb.append(", ");
+        }
+        wrappedContext.typeName = typeArguments.getLast();
+        wrappedContext.addSuffix = SCHEMA_SUFFIX;
+        sb.append(buildSchemaWrappedString(wrappedContext, args));
+        return sb.append(")").toString();
+    }
+
     public static String buildExtractorWrappedString(WrappedContext wrappedContext, List<Object> args) {
         final var sb = new StringBuilder();
         var info = wrappedContext.typeName;
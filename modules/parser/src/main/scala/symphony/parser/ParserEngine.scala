@@ -0,0 +1,21 @@
+package symphony.parser
+
+/**
+ * Selects how [[SymphonyQLParser]] parses executable documents. Both engines build the same documents and reject the
+ * same queries, usually at the same locations: a number directly followed by a name is reported at the name by
+ * `RecursiveDescent` and at the number by `Parboiled`.
+ */
+sealed trait ParserEngine
+
+object ParserEngine {
+
+  /**
+   * The parboiled2 grammar of [[symphony.parser.parsers.DefinitionParser]].
+   */
+  case object Parboiled extends ParserEngine
+
+  /**
+   * A hand-written tokenizer and recursive-descent parser, which reads the query once without backtracking.
+   */
+  case object RecursiveDescent extends ParserEngine
+}
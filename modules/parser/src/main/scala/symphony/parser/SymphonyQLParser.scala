@@ -14,7 +14,13 @@ object SymphonyQLParser {
   private def documentParser(input: ParserInput): DefinitionParser = new DefinitionParser(input)
 
   // ========================================Parser API===================================================================
-  def parseQuery(query: String): Either[ParsingError, Document] = {
+  def parseQuery(query: String, engine: ParserEngine = ParserEngine.Parboiled): Either[ParsingError, Document] =
+    engine match
+      case ParserEngine.Parboiled        => parseQueryWithParboiled(query)
+      case ParserEngine.RecursiveDescent =>
+        RecursiveDescentParser.parseDocument(query).map(parsed => Document(parsed.definitions, SourceMapper(query)))
+
+  private def parseQueryWithParboiled(query: String): Either[ParsingError, Document] = {
     val input        = ParserInput(query)
     val sourceMapper = SourceMapper(query)
     val parser       = SymphonyQLParser.documentParser(input)
@@ -27,7 +33,12 @@ object SymphonyQLParser {
       case Success(value)                  => Right(Document(value.definitions, SourceMapper(query)))
   }
 
-  def check(query: String): Option[String] = {
+  def check(query: String, engine: ParserEngine = ParserEngine.Parboiled): Option[String] =
+    engine match
+      case ParserEngine.Parboiled        => checkWithParboiled(query)
+      case ParserEngine.RecursiveDescent => RecursiveDescentParser.parseDocument(query).swap.toOption.map(_.msg)
+
+  private def checkWithParboiled(query: String): Option[String] = {
     val input  = ParserInput(query)
     val parser = SymphonyQLParser.documentParser(input)
     parser.document.run() match
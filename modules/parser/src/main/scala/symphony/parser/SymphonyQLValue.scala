@@ -11,15 +11,67 @@ sealed trait SymphonyQLOutputValue extends Serializable
 
 object SymphonyQLOutputValue {
 
-  final case class ListValue(values: List[SymphonyQLOutputValue]) extends SymphonyQLOutputValue {
+  /**
+   * A list of values, backed by a `List` or, for the lists built by the executor, by an indexed sequence.
+   */
+  sealed abstract class ListValue extends SymphonyQLOutputValue {
+
+    def values: List[SymphonyQLOutputValue]
+
+    def size: Int
+
+    def iterator: Iterator[SymphonyQLOutputValue]
+
     override def toString: String = ValueRenderer.outputListValueRenderer.renderCompact(this)
+
+    @transient override lazy val hashCode: Int = MurmurHash3.orderedHash(iterator)
+
+    override def equals(other: Any): Boolean =
+      other match {
+        case l: ListValue => (l eq this) || (l.size == size && l.iterator.sameElements(iterator))
+        case _            => false
+      }
+  }
+
+  object ListValue {
+
+    def apply(values: List[SymphonyQLOutputValue]): ListValue = new Linked(values)
+
+    /**
+     * A list backed by `values`, which must not be modified afterwards.
+     */
+    def indexed(values: IndexedSeq[SymphonyQLOutputValue]): ListValue = new Indexed(values)
+
+    def unapply(value: ListValue): Some[List[SymphonyQLOutputValue]] = Some(value.values)
+
+    private final class Linked(val values: List[SymphonyQLOutputValue]) extends ListValue {
+      override def size: Int                                 = values.size
+      override def iterator: Iterator[SymphonyQLOutputValue] = values.iterator
+    }
+
+    private final class Indexed(elements: IndexedSeq[SymphonyQLOutputValue]) extends ListValue {
+      override def values: List[SymphonyQLOutputValue]       = elements.toList
+      override def size: Int                                 = elements.size
+      override def iterator: Iterator[SymphonyQLOutputValue] = elements.iterator
+    }
   }
 
   final case class StreamValue(stream: Source[SymphonyQLOutputValue, NotUsed]) extends SymphonyQLOutputValue {
     override def toString: String = "<stream>"
   }
 
-  final case class ObjectValue(fields: List[(String, SymphonyQLOutputValue)]) extends SymphonyQLOutputValue {
+  /**
+   * An object, backed by a list of fields or, for the objects built by the executor, by the response keys of the
+   * execution plan and an indexed sequence of values. Use `cursor` to read the fields without building pairs.
+   */
+  sealed abstract class ObjectValue extends SymphonyQLOutputValue {
+
+    def fields: List[(String, SymphonyQLOutputValue)]
+
+    def size: Int
+
+    def cursor: ObjectValue.Cursor
+
     override def toString: String = ValueRenderer.outputObjectValueRenderer.renderCompact(this)
 
     @transient override lazy val hashCode: Int = MurmurHash3.unorderedHash(fields)
@@ -30,6 +82,75 @@ object SymphonyQLOutputValue {
         case _              => false
       }
   }
+
+  object ObjectValue {
+
+    def apply(fields: List[(String, SymphonyQLOutputValue)]): ObjectValue = new Linked(fields)
+
+    /**
+     * An object whose field `i` is named `names(i)`, `names` is shared by all the objects of the same selection and
+     * `values` must not be modified afterwards.
+     */
+    def indexed(names: IArray[String], values: IndexedSeq[SymphonyQLOutputValue]): ObjectValue =
+      new Indexed(names, values)
+
+    def unapply(value: ObjectValue): Some[List[(String, SymphonyQLOutputValue)]] = Some(value.fields)
+
+    /**
+     * The position in the fields of an object, before the first field until `next` is called.
+     */
+    abstract class Cursor {
+
+      /**
+       * Moves to the next field, returns `false` when there are no more fields.
+       */
+      def next(): Boolean
+
+      def name: String
+
+      def value: SymphonyQLOutputValue
+    }
+
+    private final class Linked(val fields: List[(String, SymphonyQLOutputValue)]) extends ObjectValue {
+      override def size: Int = fields.size
+
+      override def cursor: Cursor =
+        new Cursor {
+          private var remaining = fields
+          private var current   = remaining.headOption.orNull
+
+          override def next(): Boolean =
+            if (remaining.isEmpty) false
+            else {
+              current = remaining.head
+              remaining = remaining.tail
+              true
+            }
+
+          override def name: String                 = current._1
+          override def value: SymphonyQLOutputValue = current._2
+        }
+    }
+
+    private final class Indexed(names: IArray[String], values: IndexedSeq[SymphonyQLOutputValue])
+        extends ObjectValue {
+      override def fields: List[(String, SymphonyQLOutputValue)] = names.iterator.zip(values.iterator).toList
+      override def size: Int                                     = values.size
+
+      override def cursor: Cursor =
+        new Cursor {
+          private var index = -1
+
+          override def next(): Boolean = {
+            if (index < values.size) index += 1
+            index < values.size
+          }
+
+          override def name: String                 = names(index)
+          override def value: SymphonyQLOutputValue = values(index)
+        }
+    }
+  }
 }
 
 sealed trait SymphonyQLInputValue extends Serializable {
@@ -111,6 +232,13 @@ object SymphonyQLValue {
     override def toString: String = if (value) "true" else "false"
   }
 
+  object BooleanValue {
+    val True: BooleanValue  = new BooleanValue(true)
+    val False: BooleanValue = new BooleanValue(false)
+
+    def apply(value: Boolean): BooleanValue = if (value) True else False
+  }
+
   final case class EnumValue(value: String) extends SymphonyQLValue {
     override def toString: String      = s""""${value.replace("\"", "\\\"")}""""
     override def toInputString: String = ValueRenderer.enumInputValueRenderer.render(this)
@@ -142,6 +270,17 @@ object SymphonyQLValue {
       override def toString: String = value.toString
     }
 
+    object IntNumber {
+      private final val CacheLow  = -128
+      private final val CacheHigh = 1023
+
+      // small numbers (counts, list indexes in error paths, ...) are shared instead of allocated for each value
+      private val cache = Array.tabulate(CacheHigh - CacheLow + 1)(i => new IntNumber(i + CacheLow))
+
+      def apply(value: Int): IntNumber =
+        if (value >= CacheLow && value <= CacheHigh) cache(value - CacheLow) else new IntNumber(value)
+    }
+
     final case class LongNumber(value: Long) extends IntValue {
       override def toInt: Int       = value.toInt
       override def toLong: Long     = value
@@ -53,8 +53,8 @@ object ValueRenderer {
   lazy val outputValueRenderer: SymphonyQLRenderer[SymphonyQLOutputValue] =
     (value: SymphonyQLOutputValue, indent: Option[Int], write: StringBuilder) =>
       value match {
-        case SymphonyQLOutputValue.ListValue(values) =>
-          outputListValueRenderer.unsafeRender(SymphonyQLOutputValue.ListValue(values), indent, write)
+        case in: SymphonyQLOutputValue.ListValue     =>
+          outputListValueRenderer.unsafeRender(in, indent, write)
         case in: SymphonyQLOutputValue.ObjectValue   =>
           outputObjectValueRenderer.unsafeRender(in, indent, write)
         case StringValue(str)                        =>
@@ -85,18 +85,19 @@ object ValueRenderer {
     (value: SymphonyQLOutputValue.ObjectValue, indent: Option[Int], write: StringBuilder) => {
       write += '{'
       var first = true
-      value.fields.foreach { field =>
+      val cursor = value.cursor
+      while (cursor.next()) {
         if (first) first = false
         else {
           write += ','
           if (indent.nonEmpty) write += ' '
         }
         write += '"'
-        write ++= field._1
+        write ++= cursor.name
         write += '"'
         write += ':'
         if (indent.nonEmpty) write += ' '
-        outputValueRenderer.unsafeRender(field._2, indent, write)
+        outputValueRenderer.unsafeRender(cursor.value, indent, write)
       }
       write += '}'
     }
@@ -1,9 +1,21 @@
 package symphony.parser.adt.introspection
 
+import symphony.parser.adt.Definition.TypeSystemDefinition.DirectiveDefinition
+
 final case class __Directive(
   name: String,
   description: Option[String],
   locations: Set[__DirectiveLocation],
   args: __DeprecatedArgs => List[__InputValue],
   isRepeatable: Boolean
-)
+) {
+
+  def toDirectiveDefinition: DirectiveDefinition =
+    DirectiveDefinition(
+      description,
+      name,
+      args(__DeprecatedArgs(Some(true))).map(_.toInputValueDefinition),
+      isRepeatable,
+      locations.map(_.toDirectiveLocation)
+    )
+}
@@ -67,11 +67,11 @@ abstract class CommonParser extends Parser {
   }
 
   def exponentPart: Rule0 = rule {
-    exponentIndicator ~ ignored ~ sign.? ~ ignored ~ CharPredicate.Digit.+
+    exponentIndicator ~ sign.? ~ CharPredicate.Digit.+
   }
 
   def fractionalPart: Rule0 = rule {
-    "." ~ ignored ~ CharPredicate.Digit.+
+    "." ~ CharPredicate.Digit.+
   }
 
   // ========================================String Value===================================================================
@@ -113,6 +113,25 @@ abstract class CommonParser extends Parser {
       ~> (v => StringValue(v))
   }
 
+  def blockStringValue(rawValue: String): String = CommonParser.blockStringValue(rawValue)
+
+  // ========================================Value===================================================================
+  def name: Rule1[String] = rule {
+    capture(CommonParser.nameStart ~ CommonParser.nameContinue.*)
+  }
+
+  def operationType: Rule1[OperationType] = rule {
+    "query" ~ push(OperationType.Query) |
+      "mutation" ~ push(OperationType.Mutation) |
+      "subscription" ~ push(OperationType.Subscription)
+  }
+}
+
+object CommonParser {
+
+  private val nameStart: CharPredicate             = CharPredicate.Alpha ++ '_'
+  private[parsers] val nameContinue: CharPredicate = CharPredicate.AlphaNum ++ '_'
+
   def blockStringValue(rawValue: String): String = {
     val l1: List[String] = rawValue.split("\r?\n").toList
     val commonIndent     = l1 match {
@@ -134,19 +153,4 @@ abstract class CommonParser extends Parser {
     val l4               = l3.reverse.dropWhile("[ \t]*".r.replaceAllIn(_, "").isEmpty).reverse
     l4.mkString("\n")
   }
-
-  // ========================================Value===================================================================
-  def name: Rule1[String] = rule {
-    capture(
-      CharPredicate(
-        CharPredicate.ApplyMagnet.fromChar('_')
-      ).* ~ CharPredicate.Alpha ~ ignored ~ CharPredicate.AlphaNum.*
-    )
-  }
-
-  def operationType: Rule1[OperationType] = rule {
-    "query" ~ push(OperationType.Query) |
-      "mutation" ~ push(OperationType.Mutation) |
-      "subscription" ~ push(OperationType.Subscription)
-  }
 }
@@ -19,7 +19,7 @@ open class DefinitionParser(val input: ParserInput) extends SelectionParser { se
   }
 
   def variableDefinition: Rule1[VariableDefinition] = rule {
-    variableValue ~ ":" ~ ignored ~!~ type_ ~ ignored ~ defaultValue.? ~ ignored ~ directives.? ~> {
+    variableValue ~ ignored ~ ":" ~ ignored ~!~ type_ ~ ignored ~ defaultValue.? ~ ignored ~ directives.? ~> {
       (v, t, default, dirs) =>
         VariableDefinition(v.name, t, default, dirs.toList.flatten)
     }
@@ -0,0 +1,245 @@
+package symphony.parser.parsers
+
+import scala.util.control.NoStackTrace
+
+/**
+ * Splits a GraphQL document into tokens, one token at a time.
+ *
+ * The current token is described by `kind`, `start` and `end` (offsets in the input), and by `text` for names,
+ * numbers and strings, so that reading a token does not allocate anything else. Ignored tokens (white spaces, line
+ * terminators, comments, commas and the unicode BOM) are skipped by [[next]].
+ */
+private[parser] final class Lexer(input: String) {
+  import Lexer.*
+
+  private val length = input.length
+
+  var kind: Int    = SOF
+  var start: Int   = 0
+  var end: Int     = 0
+  var text: String = ""
+
+  def next(): Unit = {
+    var position = end
+    var skipping = true
+    while (skipping && position < length) {
+      input.charAt(position) match {
+        case ' ' | '\t' | ',' | '\n' | '\r' | '\uFEFF' => position += 1
+        case '#'                                      =>
+          while (position < length && input.charAt(position) != '\n' && input.charAt(position) != '\r')
+            position += 1
+        case _                                        => skipping = false
+      }
+    }
+    start = position
+    if (position >= length) {
+      kind = EOF
+      end = position
+    } else
+      input.charAt(position) match {
+        case '!'                                     => punctuator(BANG)
+        case '$'                                     => punctuator(DOLLAR)
+        case '&'                                     => punctuator(AMP)
+        case '('                                     => punctuator(PAREN_L)
+        case ')'                                     => punctuator(PAREN_R)
+        case ':'                                     => punctuator(COLON)
+        case '='                                     => punctuator(EQUALS)
+        case '@'                                     => punctuator(AT)
+        case '['                                     => punctuator(BRACKET_L)
+        case ']'                                     => punctuator(BRACKET_R)
+        case '{'                                     => punctuator(BRACE_L)
+        case '|'                                     => punctuator(PIPE)
+        case '}'                                     => punctuator(BRACE_R)
+        case '.'                                     =>
+          if (position + 2 < length && input.charAt(position + 1) == '.' && input.charAt(position + 2) == '.') {
+            kind = SPREAD
+            end = position + 3
+          } else fail(position, "'...'")
+        case '"'                                     =>
+          if (position + 2 < length && input.charAt(position + 1) == '"' && input.charAt(position + 2) == '"')
+            readBlockString(position + 3)
+          else readString(position + 1)
+        case c if c == '-' || (c >= '0' && c <= '9') => readNumber(position)
+        case c if c == '_' || isLetter(c)            =>
+          var i = position + 1
+          while (i < length && isNameContinue(input.charAt(i))) i += 1
+          kind = NAME
+          end = i
+          text = input.substring(position, i)
+        case _                                       => fail(position, "a token")
+      }
+  }
+
+  private def punctuator(tokenKind: Int): Unit = {
+    kind = tokenKind
+    end = start + 1
+  }
+
+  private def readNumber(from: Int): Unit = {
+    var i = from
+    if (input.charAt(i) == '-') i += 1
+    if (i < length && input.charAt(i) == '0') i += 1
+    else if (i < length && input.charAt(i) >= '1' && input.charAt(i) <= '9') i = digits(i)
+    else fail(i, "a digit")
+    var float = false
+    if (i < length && input.charAt(i) == '.') {
+      float = true
+      val fraction = i + 1
+      i = digits(fraction)
+      if (i == fraction) fail(i, "a digit")
+    }
+    if (i < length && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+      float = true
+      i += 1
+      if (i < length && (input.charAt(i) == '+' || input.charAt(i) == '-')) i += 1
+      val exponent = i
+      i = digits(exponent)
+      if (i == exponent) fail(i, "a digit")
+    }
+    if (i < length && (input.charAt(i) == '.' || input.charAt(i) == '_' || isLetter(input.charAt(i))))
+      fail(i, "a digit")
+    kind = if (float) FLOAT else INT
+    end = i
+    text = input.substring(from, i)
+  }
+
+  private def digits(from: Int): Int = {
+    var i = from
+    while (i < length && input.charAt(i) >= '0' && input.charAt(i) <= '9') i += 1
+    i
+  }
+
+  private def readString(from: Int): Unit = {
+    var i = from
+    // fast path for strings without escapes
+    while (i < length && isStringCharacter(input.charAt(i)) && input.charAt(i) != '\\') i += 1
+    if (i < length && input.charAt(i) == '"') {
+      text = input.substring(from, i)
+    } else {
+      val builder = new java.lang.StringBuilder().append(input, from, i)
+      var more    = true
+      while (more) {
+        if (i >= length) fail(i, "'\"'")
+        input.charAt(i) match {
+          case '"'                       => more = false
+          case '\\'                      =>
+            if (i + 1 >= length) fail(i + 1, "an escaped character")
+            input.charAt(i + 1) match {
+              case '"'  => builder.append('"')
+              case '\\' => builder.append('\\')
+              case '/'  => builder.append('/')
+              case 'b'  => builder.append('\b')
+              case 'f'  => builder.append('\f')
+              case 'n'  => builder.append('\n')
+              case 'r'  => builder.append('\r')
+              case 't'  => builder.append('\t')
+              case 'u'  =>
+                var code = 0
+                var j    = i + 2
+                while (j < i + 6) {
+                  val digit = if (j < length) Character.digit(input.charAt(j), 16) else -1
+                  if (digit < 0) fail(j, "a hexadecimal digit")
+                  code = code * 16 + digit
+                  j += 1
+                }
+                builder.append(code.toChar)
+                i += 4
+              case _    => fail(i + 1, "an escaped character")
+            }
+            i += 2
+          case c if isStringCharacter(c) =>
+            builder.append(c)
+            i += 1
+          case _                         => fail(i, "'\"'")
+        }
+      }
+      text = builder.toString
+    }
+    kind = STRING
+    end = i + 1
+  }
+
+  private def readBlockString(from: Int): Unit = {
+    val builder = new java.lang.StringBuilder
+    var i       = from
+    var more    = true
+    while (more) {
+      if (i >= length) fail(i, "'\"\"\"'")
+      if (input.startsWith("\"\"\"", i)) more = false
+      else if (input.startsWith("\\\"\"\"", i)) {
+        builder.append("\"\"\"")
+        i += 4
+      } else {
+        val c = input.charAt(i)
+        if (c < ' ' && c != '\t' && c != '\n' && c != '\r') fail(i, "'\"\"\"'")
+        builder.append(c)
+        i += 1
+      }
+    }
+    kind = STRING
+    end = i + 3
+    text = CommonParser.blockStringValue(builder.toString)
+  }
+
+  def fail(position: Int, expected: String): Nothing = throw LexerError(position, expected)
+}
+
+private[parser] object Lexer {
+
+  final val SOF       = 0
+  final val EOF       = 1
+  final val BANG      = 2
+  final val DOLLAR    = 3
+  final val AMP       = 4
+  final val PAREN_L   = 5
+  final val PAREN_R   = 6
+  final val SPREAD    = 7
+  final val COLON     = 8
+  final val EQUALS    = 9
+  final val AT        = 10
+  final val BRACKET_L = 11
+  final val BRACKET_R = 12
+  final val BRACE_L   = 13
+  final val PIPE      = 14
+  final val BRACE_R   = 15
+  final val NAME      = 16
+  final val INT       = 17
+  final val FLOAT     = 18
+  final val STRING    = 19
+
+  /**
+   * Raised with the offset of the first character that could not be read and a description of what was expected
+   * there.
+   */
+  final case class LexerError(position: Int, expected: String) extends RuntimeException with NoStackTrace
+
+  def describe(kind: Int): String =
+    kind match {
+      case EOF       => "end of input"
+      case BANG      => "'!'"
+      case DOLLAR    => "'$'"
+      case AMP       => "'&'"
+      case PAREN_L   => "'('"
+      case PAREN_R   => "')'"
+      case SPREAD    => "'...'"
+      case COLON     => "':'"
+      case EQUALS    => "'='"
+      case AT        => "'@'"
+      case BRACKET_L => "'['"
+      case BRACKET_R => "']'"
+      case BRACE_L   => "'{'"
+      case PIPE      => "'|'"
+      case BRACE_R   => "'}'"
+      case NAME      => "name"
+      case INT       => "int value"
+      case FLOAT     => "float value"
+      case STRING    => "string value"
+      case _         => "start of input"
+    }
+
+  private def isLetter(c: Char): Boolean = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+
+  private def isNameContinue(c: Char): Boolean = c == '_' || isLetter(c) || (c >= '0' && c <= '9')
+
+  private def isStringCharacter(c: Char): Boolean = c != '"' && c != '\n' && c != '\r' && (c >= ' ' || c == '\t')
+}
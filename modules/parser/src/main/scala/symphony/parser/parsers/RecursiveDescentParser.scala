@@ -0,0 +1,263 @@
+package symphony.parser.parsers
+
+import org.parboiled2.Position
+
+import symphony.parser.*
+import symphony.parser.SymphonyQLError.ParsingError
+import symphony.parser.SymphonyQLInputValue.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.parser.adt.*
+import symphony.parser.adt.Definition.ExecutableDefinition
+import symphony.parser.adt.Definition.ExecutableDefinition.*
+import symphony.parser.adt.Selection.*
+import symphony.parser.adt.Type.*
+import symphony.parser.parsers.Lexer.*
+
+/**
+ * Parses executable documents with a hand-written [[Lexer]] and one method per grammar rule.
+ *
+ * Every rule decides what to parse from the current token only, so the input is read once without backtracking and
+ * no intermediate rule results are allocated. It builds the same definitions as [[DefinitionParser]] and reports
+ * errors at the first character that cannot be parsed.
+ */
+private[parser] final class RecursiveDescentParser(input: String) {
+
+  private val lexer = new Lexer(input)
+
+  def document(): ParsedDocument = {
+    lexer.next()
+    val definitions = List.newBuilder[Definition]
+    while (lexer.kind != EOF) definitions += definition()
+    ParsedDocument(definitions.result())
+  }
+
+  // ========================================Executable Definitions===================================================================
+  private def definition(): ExecutableDefinition =
+    if (lexer.kind == BRACE_L) OperationDefinition(OperationType.Query, None, Nil, Nil, selectionSet())
+    else if (lexer.kind == NAME)
+      lexer.text match {
+        case "query"        => operationDefinition(OperationType.Query)
+        case "mutation"     => operationDefinition(OperationType.Mutation)
+        case "subscription" => operationDefinition(OperationType.Subscription)
+        case "fragment"     => fragmentDefinition()
+        case _              => unexpected("operationType, 'fragment' or '{'")
+      }
+    else unexpected("operationType, 'fragment' or '{'")
+
+  private def operationDefinition(operationType: OperationType): OperationDefinition = {
+    lexer.next()
+    val name                = if (lexer.kind == NAME) Some(this.name()) else None
+    val variableDefinitions = if (lexer.kind == PAREN_L) this.variableDefinitions() else Nil
+    OperationDefinition(operationType, name, variableDefinitions, directives(), selectionSet())
+  }
+
+  private def fragmentDefinition(): FragmentDefinition = {
+    lexer.next()
+    val name          = fragmentName()
+    keyword("on")
+    val typeCondition = namedType()
+    FragmentDefinition(name, typeCondition, directives(), selectionSet())
+  }
+
+  private def variableDefinitions(): List[VariableDefinition] = {
+    expect(PAREN_L)
+    val definitions = List.newBuilder[VariableDefinition]
+    while (lexer.kind != PAREN_R) {
+      if (lexer.kind != DOLLAR) unexpected("variableDefinition or ')'")
+      lexer.next()
+      val name         = this.name()
+      expect(COLON)
+      val variableType = type_()
+      val defaultValue =
+        if (lexer.kind == EQUALS) {
+          lexer.next()
+          Some(value())
+        } else None
+      definitions += VariableDefinition(name, variableType, defaultValue, directives())
+    }
+    lexer.next()
+    definitions.result()
+  }
+
+  // ========================================Selections===================================================================
+  private def selectionSet(): List[Selection] = {
+    expect(BRACE_L)
+    val selections = List.newBuilder[Selection]
+    while (lexer.kind != BRACE_R)
+      if (lexer.kind == NAME) selections += field()
+      else if (lexer.kind == SPREAD) selections += fragment()
+      else unexpected("selection or '}'")
+    lexer.next()
+    selections.result()
+  }
+
+  private def field(): Field = {
+    var alias: Option[String] = None
+    var name                  = this.name()
+    if (lexer.kind == COLON) {
+      lexer.next()
+      alias = Some(name)
+      name = this.name()
+    }
+    val arguments = if (lexer.kind == PAREN_L) this.arguments() else Map.empty[String, SymphonyQLInputValue]
+    val dirs      = directives()
+    Field(alias, name, arguments, dirs, if (lexer.kind == BRACE_L) selectionSet() else Nil)
+  }
+
+  private def fragment(): Selection = {
+    lexer.next()
+    if (lexer.kind == NAME && lexer.text != "on") FragmentSpread(name(), directives())
+    else {
+      val typeCondition =
+        if (lexer.kind == NAME) {
+          lexer.next()
+          Some(namedType())
+        } else None
+      InlineFragment(typeCondition, directives(), selectionSet())
+    }
+  }
+
+  private def fragmentName(): String =
+    if (lexer.kind == NAME && lexer.text == "on") unexpected("fragmentName")
+    else name()
+
+  private def arguments(): Map[String, SymphonyQLInputValue] = {
+    expect(PAREN_L)
+    val arguments = Map.newBuilder[String, SymphonyQLInputValue]
+    while (lexer.kind != PAREN_R) {
+      if (lexer.kind != NAME) unexpected("argument or ')'")
+      val name = this.name()
+      expect(COLON)
+      arguments += name -> value()
+    }
+    lexer.next()
+    arguments.result()
+  }
+
+  private def directives(): List[Directive] =
+    if (lexer.kind != AT) Nil
+    else {
+      val directives = List.newBuilder[Directive]
+      while (lexer.kind == AT) {
+        lexer.next()
+        val name = this.name()
+        directives += Directive(name, if (lexer.kind == PAREN_L) arguments() else Map.empty)
+      }
+      directives.result()
+    }
+
+  // ========================================Types===================================================================
+  private def type_(): Type =
+    if (lexer.kind == BRACKET_L) {
+      lexer.next()
+      val ofType = type_()
+      expect(BRACKET_R)
+      ListType(ofType, nonNull())
+    } else NamedType(name(), nonNull())
+
+  private def namedType(): NamedType = NamedType(name(), nonNull = false)
+
+  private def nonNull(): Boolean =
+    if (lexer.kind == BANG) {
+      lexer.next()
+      true
+    } else false
+
+  // ========================================Values===================================================================
+  private def value(): SymphonyQLInputValue =
+    lexer.kind match {
+      case DOLLAR    =>
+        lexer.next()
+        VariableValue(name())
+      case INT       => advance(IntValue.stringToIntValue(lexer.text))
+      case FLOAT     => advance(FloatValue(lexer.text))
+      case STRING    => advance(StringValue(lexer.text))
+      case NAME      =>
+        lexer.text match {
+          case "true"  => advance(BooleanValue(true))
+          case "false" => advance(BooleanValue(false))
+          case "null"  => advance(NullValue)
+          case other   => advance(EnumValue(other))
+        }
+      case BRACKET_L =>
+        lexer.next()
+        val values = List.newBuilder[SymphonyQLInputValue]
+        while (lexer.kind != BRACKET_R) values += value()
+        lexer.next()
+        ListValue(values.result())
+      case BRACE_L   =>
+        lexer.next()
+        val fields = Map.newBuilder[String, SymphonyQLInputValue]
+        while (lexer.kind != BRACE_R) {
+          if (lexer.kind != NAME) unexpected("objectField or '}'")
+          val name = this.name()
+          expect(COLON)
+          fields += name -> value()
+        }
+        lexer.next()
+        ObjectValue(fields.result())
+      case _         => unexpected("value")
+    }
+
+  // ========================================Tokens===================================================================
+  private def advance[A](result: A): A = {
+    lexer.next()
+    result
+  }
+
+  private def name(): String = {
+    if (lexer.kind != NAME) unexpected("name")
+    advance(lexer.text)
+  }
+
+  private def keyword(keyword: String): Unit =
+    if (lexer.kind == NAME && lexer.text == keyword) lexer.next()
+    else unexpected(s"'$keyword'")
+
+  private def expect(kind: Int): Unit =
+    if (lexer.kind == kind) lexer.next()
+    else unexpected(describe(kind))
+
+  private def unexpected(expected: String): Nothing = lexer.fail(lexer.start, expected)
+}
+
+private[parser] object RecursiveDescentParser {
+
+  def parseDocument(query: String): Either[ParsingError, ParsedDocument] =
+    try Right(new RecursiveDescentParser(query).document())
+    catch {
+      case LexerError(position, expected) => Left(error(query, position, expected))
+    }
+
+  /**
+   * Reports the error in the same format as parboiled2, with the line of the error and a caret below the column.
+   */
+  private def error(query: String, position: Int, expected: String): ParsingError = {
+    val lineStart = query.lastIndexOf('\n', position - 1) + 1
+    val lineEnd   = query.indexOf('\n', position) match {
+      case -1  => query.length
+      case end => end
+    }
+    var line      = 1
+    var i         = 0
+    while (i < lineStart) {
+      if (query.charAt(i) == '\n') line += 1
+      i += 1
+    }
+    val column    = position - lineStart + 1
+    val found     =
+      if (position < query.length) s"Invalid input '${escape(query.charAt(position))}'" else "Unexpected end of input"
+    ParsingError(
+      s"$found, expected $expected (line $line, column $column):\n${query.substring(lineStart, lineEnd)}\n${" " * (column - 1)}^",
+      Some(SourceMapper(query).getLocation(Position(position, line, column)))
+    )
+  }
+
+  private def escape(c: Char): String =
+    c match {
+      case '\t' => "\\t"
+      case '\r' => "\\r"
+      case '\n' => "\\n"
+      case _    => c.toString
+    }
+}
@@ -14,11 +14,11 @@ abstract class SelectionParser extends ValueParser {
 
   // ========================================Selections===================================================================
   def alias: Rule1[String] = rule {
-    name ~ ":" ~ ignored
+    name ~ ignored ~ ":" ~ ignored
   }
 
   def argument: Rule1[(String, SymphonyQLInputValue)] = rule {
-    name ~ ":" ~ ignored ~ value ~> { (n, v) =>
+    name ~ ignored ~ ":" ~ ignored ~ value ~> { (n, v) =>
       n -> v
     }
   }
@@ -27,8 +27,8 @@ abstract class SelectionParser extends ValueParser {
     "(" ~!~ ignored ~ argument.*.separatedBy(ignored) ~ ignored ~ ")" ~> (_.toMap)
   }
 
-  def directive: Rule1[Directive] = rule("@" ~ name ~ arguments ~> { (name, arguments) =>
-    Directive(name, arguments)
+  def directive: Rule1[Directive] = rule("@" ~ ignored ~ name ~ ignored ~ arguments.? ~> { (name, arguments) =>
+    Directive(name, arguments.getOrElse(Map.empty))
   })
 
   def directives: Rule1[List[Directive]] = rule {
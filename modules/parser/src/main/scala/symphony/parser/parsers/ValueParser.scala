@@ -14,7 +14,7 @@ abstract class ValueParser extends CommonParser {
 
   // ========================================Values===================================================================
   def booleanValue: Rule1[BooleanValue] = rule {
-    "true" ~ push(BooleanValue(true)) | "false" ~ push(BooleanValue(false))
+    ("true" ~ push(BooleanValue(true)) | "false" ~ push(BooleanValue(false))) ~ !CommonParser.nameContinue
   }
 
   def intValue: Rule1[IntValue] = rule {
@@ -22,15 +22,11 @@ abstract class ValueParser extends CommonParser {
   }
 
   def floatValue: Rule1[FloatValue] = rule {
-    capture(
-      (integerPart ~ ignored ~ fractionalPart) |
-        (integerPart ~ ignored ~ exponentPart) |
-        (integerPart ~ ignored ~ fractionalPart ~ ignored ~ exponentPart)
-    ) ~> { t => FloatValue(t) }
+    capture(integerPart ~ (fractionalPart ~ exponentPart.? | exponentPart)) ~> { t => FloatValue(t) }
   }
 
   def nullValue: Rule1[SymphonyQLInputValue] = rule {
-    str("null") ~> (() => NullValue)
+    str("null") ~ !CommonParser.nameContinue ~> (() => NullValue)
   }
 
   def enumValue: Rule1[SymphonyQLInputValue] = rule {
@@ -42,7 +38,7 @@ abstract class ValueParser extends CommonParser {
   }
 
   def objectField: Rule1[(String, SymphonyQLInputValue)] = rule {
-    name ~ ":" ~!~ ignored ~ value ~> { (n, v) => n -> v }
+    name ~ ignored ~ ":" ~!~ ignored ~ value ~> { (n, v) => n -> v }
   }
 
   def objectValue: Rule1[ObjectValue] = rule {
@@ -0,0 +1,156 @@
+package symphony.parser
+
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.*
+import symphony.parser.SymphonyQLError.ParsingError
+import symphony.parser.SymphonyQLInputValue.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.parser.adt.*
+import symphony.parser.adt.Selection.*
+
+class RecursiveDescentParserSpec extends AnyFunSpec with Matchers {
+
+  private def parse(query: String): Either[ParsingError, Document] =
+    SymphonyQLParser.parseQuery(query, ParserEngine.RecursiveDescent)
+
+  private val validQueries = List(
+    """{
+      |  hero {
+      |    name
+      |    # Queries can have comments!
+      |    friends {
+      |      name
+      |    }
+      |  }
+      |}""".stripMargin,
+    """mutation {
+      |  likeStory(storyID: 12345, big: 12345678901, bigger: 12345678901234567890, negative: -42) {
+      |    story { likeCount }
+      |  }
+      |}""".stripMargin,
+    """{
+      |  human(id: "1000\\", int: 3, float: -3.14, exp: 6e10, bool: true, nope: null, enum: YES, list: [1,2,3], obj: {
+      |   name: "name\u00e9\n", nested: { list: [[], [{ deep: false }]] }
+      |   }
+      |  ) {
+      |    name
+      |  }
+      |}""".stripMargin,
+    "{ sendEmail(message: \"\"\"\n  Hello,\n    World!\n\n  Yours,\n    GraphQL. \"\"\") }",
+    """query getProfile($devicePicSize: Int = 60, $ids: [ID!]!, $filter: Filter = { tags: ["a", "b"] }) @live(if: true) {
+      |  empireHero: user(id: $ids, filter: $filter) {
+      |    id
+      |    name @include(if: true) @skip(if: false)
+      |    profilePic(size: $devicePicSize)
+      |  }
+      |}""".stripMargin,
+    """query withFragments {
+      |  user(id: 4) {
+      |    friends(first: 10) {
+      |      ...friendFields
+      |    }
+      |    ... on User @include(if: true) {
+      |      mutualFriends(first: 10) { ...friendFields @skip(if: false) }
+      |    }
+      |    ... @include(if: true) { id }
+      |    ... { name }
+      |  }
+      |}
+      |
+      |fragment friendFields on User @tag(name: "friends") {
+      |  id,
+      |  name,
+      |  profilePic(size: 50)
+      |}""".stripMargin,
+    """subscription onEvent { events(types: [CREATED UPDATED]) { id } }""",
+    """query _Query($_id : ID, $ids: [ID]) { user_name : __user_profile(x : 1, id: $_id, ids: $ids) { id_2, _ } }""",
+    """{ numbers(a: 1.5e10, b: -0.25E-3, c: 2e+8, d: 0.5, e: [1.0e1 2]) }""",
+    """{ keywords(a: nullable, b: trueish, c: falsey, d: null, e: true, f: false) }""",
+    """query Q @live { a @cached b @include(if: true) @cached ... @defer { c } list @stream { d } }""",
+    ""
+  )
+
+  private val invalidQueries = List(
+    """{
+      |  hero {
+      |    name(
+      |  }
+      |}""".stripMargin,
+    "{ hero { name }",
+    "{ hero(id: ) { name } }",
+    "{ hero(id: 1 { name } }",
+    "query Hero { hero { ... } }",
+    "query Hero($id: ) { hero }",
+    "query Hero { hero } }",
+    "{ hero(list: [1, 2) }",
+    "{\n  hero ?\n}",
+    "{ hero(score: 1.e5) }",
+    "{ hero(score: 1.5e) }",
+    "{ hero @ }",
+    "{ hero @cached( }"
+  )
+
+  describe("RecursiveDescentParser Spec") {
+    it("builds the same documents as the parboiled2 parser") {
+      validQueries.foreach { query =>
+        val expected = SymphonyQLParser.parseQuery(query, ParserEngine.Parboiled)
+        withClue(query) {
+          expected.isRight shouldEqual true
+          parse(query) shouldEqual expected
+        }
+      }
+    }
+
+    it("reports parsing errors at the same locations as the parboiled2 parser") {
+      invalidQueries.foreach { query =>
+        val expected = SymphonyQLParser.parseQuery(query, ParserEngine.Parboiled).swap.toOption.flatMap(_.locationInfo)
+        withClue(query) {
+          expected.isDefined shouldEqual true
+          parse(query).swap.toOption.flatMap(_.locationInfo) shouldEqual expected
+        }
+      }
+    }
+
+    it("formats parsing errors like the parboiled2 parser") {
+      val query =
+        """{
+          |  hero {
+          |    name(
+          |  }
+          |}""".stripMargin
+      parse(query) shouldEqual Left(
+        ParsingError(
+          "Invalid input '}', expected argument or ')' (line 4, column 3):\n  }\n  ^",
+          Some(LocationInfo(4, 3))
+        )
+      )
+      SymphonyQLParser.check("{ hero", ParserEngine.RecursiveDescent) shouldEqual Some(
+        "Unexpected end of input, expected selection or '}' (line 1, column 7):\n{ hero\n      ^"
+      )
+    }
+
+    it("parses the GraphQL grammar with both engines") {
+      val query    =
+        "{ user_name: user_profile(score: 1.5e10, flag: nullable, code: \"\\u0041\") @cached(if: true) { id } }"
+      val expected = Right(
+        List(
+          Field(
+            Some("user_name"),
+            "user_profile",
+            Map(
+              "score" -> FloatValue("1.5e10"),
+              "flag"  -> EnumValue("nullable"),
+              "code"  -> StringValue("A")
+            ),
+            List(Directive("cached", Map("if" -> BooleanValue(true)))),
+            List(Field(None, "id", Map.empty, Nil, Nil))
+          )
+        )
+      )
+      parse(query).map(_.operationDefinitions.flatMap(_.selectionSet)) shouldEqual expected
+      SymphonyQLParser
+        .parseQuery(query, ParserEngine.Parboiled)
+        .map(_.operationDefinitions.flatMap(_.selectionSet)) shouldEqual expected
+    }
+  }
+}
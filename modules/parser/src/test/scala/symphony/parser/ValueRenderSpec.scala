@@ -35,6 +35,33 @@ class ValueRenderSpec extends AnyFunSpec with Matchers {
       outputValue shouldEqual """["string"]"""
     }
 
+    it("SymphonyQLOutputValue indexed ObjectValue and ListValue") {
+      val names   = IArray("name", "tags")
+      val indexed = SymphonyQLOutputValue.ObjectValue.indexed(
+        names,
+        Vector(StringValue("string"), SymphonyQLOutputValue.ListValue.indexed(Vector(StringValue("a"))))
+      )
+      val linked  = SymphonyQLOutputValue.ObjectValue(
+        List("name" -> StringValue("string"), "tags" -> SymphonyQLOutputValue.ListValue(List(StringValue("a"))))
+      )
+      indexed.toString shouldEqual """{"name":"string","tags":["a"]}"""
+      indexed shouldEqual linked
+      indexed.hashCode shouldEqual linked.hashCode
+      indexed match {
+        case SymphonyQLOutputValue.ObjectValue(List("name" -> _, "tags" -> SymphonyQLOutputValue.ListValue(tags))) =>
+          tags shouldEqual List(StringValue("a"))
+        case other                                                                                                 =>
+          fail(s"unexpected $other")
+      }
+    }
+
+    it("SymphonyQLOutputValue shared scalar instances") {
+      BooleanValue(true) should be theSameInstanceAs BooleanValue.True
+      BooleanValue(false) should be theSameInstanceAs BooleanValue.False
+      IntValue(42) should be theSameInstanceAs IntValue(42)
+      IntValue(1 << 20) shouldEqual IntValue(1 << 20)
+    }
+
     it("SymphonyQLOutputValue StreamValue toString") {
       val outputValue = SymphonyQLOutputValue.StreamValue(Source.single(SymphonyQLValue.StringValue("string"))).toString
       println(outputValue)
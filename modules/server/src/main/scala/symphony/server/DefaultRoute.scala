@@ -1,5 +1,6 @@
 package symphony.server
 
+import org.apache.pekko.NotUsed
 import org.apache.pekko.actor.ActorSystem
 import org.apache.pekko.http.scaladsl.marshallers.sprayjson.SprayJsonSupport
 import org.apache.pekko.http.scaladsl.marshalling.*
@@ -8,42 +9,127 @@ import org.apache.pekko.http.scaladsl.server.Directives.*
 import org.apache.pekko.http.scaladsl.server.Route
 import org.apache.pekko.http.scaladsl.unmarshalling.*
 import org.apache.pekko.http.scaladsl.server.*
+import org.apache.pekko.stream.scaladsl.Source
+import org.apache.pekko.util.ByteString
 import spray.json.*
 import symphony.*
+import symphony.execution.RequestScope
 import symphony.parser.*
 
+import scala.concurrent.Future
+
 trait DefaultRoute(symphonyQL: SymphonyQL) extends JsonFormats with SprayJsonSupport {
 
   implicit val actorSystem: ActorSystem
 
   def defaultExceptionHandler: ExceptionHandler =
     ExceptionHandler { case e: SymphonyQLError =>
-      complete(
-        HttpResponse(
-          StatusCodes.OK,
-          entity = HttpEntity(ContentTypes.`application/json`, e.toJson.toString)
-        )
-      )
+      complete(HttpResponse(StatusCodes.OK, entity = JsonOutputWriter.toEntity(e.toOutputValue)))
     }
 
+  /**
+   * Limits on the size and nesting of request bodies, checked while they are received and decoded.
+   */
+  def requestLimits: JsonRequestDecoder.Limits = JsonRequestDecoder.Limits()
+
+  /**
+   * Cancels the execution of a request when its client disconnects before the response is sent. The response is then
+   * started before the request is executed: all the errors are returned with the status 200, and the failures that are
+   * not GraphQL errors are logged and only reported as an internal error.
+   */
+  def cancelOnDisconnect: Boolean = false
+
+  /**
+   * Answers the requests accepting `multipart/mixed` with one part per payload, so the fragments deferred with `@defer`
+   * and the list elements streamed with `@stream` are sent as soon as they are resolved.
+   */
+  def incrementalDelivery: Boolean = true
+
+  /**
+   * Writes the elements of the `Source` fields of queries and mutations into the response while they are resolved,
+   * instead of collecting them first, see `SymphonyQL.runStreamingWith`. The response is always chunked, and a source
+   * failing after the response has started truncates it.
+   */
+  def streamingQueries: Boolean = false
+
   final implicit val symphonyQLRequestUnMarshaller: Unmarshaller[HttpEntity, SymphonyQLRequest] =
-    sprayJsValueUnmarshaller.map(json => symphonyQLRequestJsonFormat.read(json))
+    Unmarshaller
+      .withMaterializer[HttpEntity, SymphonyQLRequest](implicit ec =>
+        implicit materializer => entity => JsonRequestDecoder.decode(entity, requestLimits)
+      )
+      .forContentTypes(MediaTypes.`application/json`)
 
   final implicit val symphonyQLResponseMarshaller: ToResponseMarshaller[SymphonyQLResponse[SymphonyQLError]] =
     Marshaller.withFixedContentType[SymphonyQLResponse[SymphonyQLError], HttpResponse](ContentTypes.`application/json`)(
-      a =>
-        HttpResponse(status = StatusCodes.OK, entity = HttpEntity(ContentTypes.`application/json`, a.toJson.toString))
+      a => HttpResponse(status = StatusCodes.OK, entity = JsonOutputWriter.toEntity(a.toOutputValue))
     )
 
   val routes: Route = path("api" / "graphql") {
     handleExceptions(defaultExceptionHandler) {
       post {
-        entity(as[SymphonyQLRequest]) { symphonyQLRequest =>
-          complete {
-            symphonyQL.runWith(symphonyQLRequest)
-          }
+        (entity(as[SymphonyQLRequest]) & optionalHeaderValueByType(headers.Accept)) { (symphonyQLRequest, accept) =>
+          val multipart = incrementalDelivery && accept.exists(_.mediaRanges.exists(DefaultRoute.isMultipartMixed))
+          if (multipart || cancelOnDisconnect || streamingQueries) complete(streamed(symphonyQLRequest, multipart))
+          else
+            complete {
+              symphonyQL.runWith(symphonyQLRequest)
+            }
         }
       }
     }
   }
+
+  private def streamed(request: SymphonyQLRequest, multipart: Boolean): Future[HttpResponse] = {
+    import actorSystem.dispatcher
+    val scope    = new RequestScope()
+    val response =
+      if (multipart) symphonyQL.runIncrementalWith(request, scope)
+      else if (streamingQueries) symphonyQL.runStreamingWith(request, scope)
+      else symphonyQL.runWith(request, scope)
+
+    def payloads(response: SymphonyQLResponse[SymphonyQLError]): Source[SymphonyQLOutputValue, NotUsed] =
+      Source.single(response.toOutputValue) ++ response.incremental.fold(Source.empty[SymphonyQLOutputValue])(_.stream)
+
+    def chunked(payloads: Source[SymphonyQLOutputValue, NotUsed]): HttpResponse = {
+      val bytes   = payloads.flatMapConcat { value =>
+        val json = JsonOutputWriter.stream(value)
+        if (multipart) Source.single(DefaultRoute.partHeader) ++ json else json
+      }
+      val body    = if (multipart) bytes ++ Source.single(DefaultRoute.closingDelimiter) else bytes
+      val watched =
+        if (cancelOnDisconnect) body.watchTermination()((_, done) => done.onComplete(_ => scope.cancel())) else body
+      val content = if (multipart) DefaultRoute.multipartMixed else ContentTypes.`application/json`
+      HttpResponse(StatusCodes.OK, entity = HttpEntity.Chunked.fromData(content, watched))
+    }
+
+    // the other failures are handled like the ones of `runWith` unless the response has to be started first
+    if (cancelOnDisconnect)
+      Future.successful(chunked(Source.futureSource(response.map(payloads).recover {
+        case e: SymphonyQLError => Source.single(e.toOutputValue)
+        case e                  =>
+          actorSystem.log.error(e, "Error during processing of a GraphQL request")
+          Source.single(DefaultRoute.internalError)
+      }).mapMaterializedValue(_ => NotUsed)))
+    else response.map(response => chunked(payloads(response)))
+  }
+}
+
+object DefaultRoute {
+
+  private val multipartMixed: ContentType =
+    ContentType(MediaTypes.`multipart/mixed`.withParams(Map("boundary" -> "-", "deferSpec" -> "20220824")))
+
+  private val partHeader: ByteString = ByteString("\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n")
+
+  private val closingDelimiter: ByteString = ByteString("\r\n-----\r\n")
+
+  private val internalError: SymphonyQLOutputValue =
+    SymphonyQLError.ExecutionError("There was an internal server error.").toOutputValue
+
+  // only an explicit `multipart/mixed`, `*/*` still gets a single JSON response
+  private def isMultipartMixed(range: MediaRange): Boolean =
+    range match {
+      case MediaRange.One(mediaType, _) => mediaType.mainType == "multipart" && mediaType.subType == "mixed"
+      case _                            => false
+    }
 }
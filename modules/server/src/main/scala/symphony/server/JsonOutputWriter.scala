@@ -0,0 +1,282 @@
+package symphony.server
+
+import org.apache.pekko.NotUsed
+import org.apache.pekko.http.scaladsl.model.*
+import org.apache.pekko.stream.scaladsl.Source
+import org.apache.pekko.util.{ ByteString, ByteStringBuilder }
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+
+import java.nio.charset.StandardCharsets
+import scala.collection.AbstractIterator
+
+/**
+ * Serializes `SymphonyQLOutputValue` to UTF-8 JSON without building an intermediate JSON tree or String.
+ *
+ * Values are written into byte arrays of about `chunkSize` bytes that are handed to `ByteString` without copying, so a
+ * large response can be sent as a chunked entity while it is being serialized. Object fields keep their order.
+ */
+object JsonOutputWriter {
+
+  val DefaultChunkSize: Int = 8192
+
+  def chunks(value: SymphonyQLOutputValue, chunkSize: Int = DefaultChunkSize): Iterator[ByteString] =
+    new ChunkIterator(value, chunkSize)
+
+  def toByteString(value: SymphonyQLOutputValue): ByteString = {
+    val builder = new ByteStringBuilder
+    chunks(value).foreach(builder.append)
+    builder.result()
+  }
+
+  /**
+   * Serializes `value` like `chunks`, except that the elements of its `StreamValue`s are written as JSON arrays while
+   * they are pulled from their `Source`, so a response streaming millions of elements is written in constant memory.
+   * Small elements are batched into chunks of about `chunkSize` bytes when the client is slower than the stream.
+   */
+  def stream(value: SymphonyQLOutputValue, chunkSize: Int = DefaultChunkSize): Source[ByteString, NotUsed] =
+    if (!hasStream(value)) Source.fromIterator(() => chunks(value, chunkSize))
+    else streamValue(value, chunkSize).batchWeighted(chunkSize.toLong, _.length.toLong, identity)(_ ++ _)
+
+  // only called on values containing a stream, the other values are written in one piece
+  private def streamValue(value: SymphonyQLOutputValue, chunkSize: Int): Source[ByteString, NotUsed] =
+    value match {
+      case SymphonyQLOutputValue.ObjectValue(fields) =>
+        Source(fields.zipWithIndex).flatMapConcat { case ((name, field), i) =>
+          val key = (if (i == 0) OpenObject else Comma) ++ toByteString(StringValue(name)) ++ Colon
+          if (hasStream(field)) Source.single(key) ++ streamValue(field, chunkSize)
+          else Source.single(key ++ toByteString(field))
+        } ++ Source.single(CloseObject)
+      case SymphonyQLOutputValue.ListValue(values)   => streamArray(Source(values), chunkSize)
+      case SymphonyQLOutputValue.StreamValue(stream) => streamArray(stream, chunkSize)
+      case _                                         => Source.fromIterator(() => chunks(value, chunkSize))
+    }
+
+  private def streamArray(
+    values: Source[SymphonyQLOutputValue, NotUsed],
+    chunkSize: Int
+  ): Source[ByteString, NotUsed] =
+    Source.single(OpenArray) ++ values.zipWithIndex.flatMapConcat { case (value, i) =>
+      val separator = if (i == 0) ByteString.empty else Comma
+      if (hasStream(value)) Source.single(separator) ++ streamValue(value, chunkSize)
+      else Source.single(separator ++ toByteString(value))
+    } ++ Source.single(CloseArray)
+
+  private def hasStream(value: SymphonyQLOutputValue): Boolean =
+    value match {
+      case SymphonyQLOutputValue.StreamValue(_)      => true
+      case list: SymphonyQLOutputValue.ListValue     => list.iterator.exists(hasStream)
+      case obj: SymphonyQLOutputValue.ObjectValue    =>
+        val cursor = obj.cursor
+        var found  = false
+        while (!found && cursor.next()) found = hasStream(cursor.value)
+        found
+      case _                                         => false
+    }
+
+  private val OpenObject  = ByteString("{")
+  private val CloseObject = ByteString("}")
+  private val OpenArray   = ByteString("[")
+  private val CloseArray  = ByteString("]")
+  private val Comma       = ByteString(",")
+  private val Colon       = ByteString(":")
+
+  /**
+   * A strict entity when the value fits in a single chunk, a chunked entity serializing the rest on demand otherwise.
+   */
+  def toEntity(value: SymphonyQLOutputValue, chunkSize: Int = DefaultChunkSize): ResponseEntity = {
+    val iterator = chunks(value, chunkSize)
+    val first    = if (iterator.hasNext) iterator.next() else ByteString.empty
+    if (!iterator.hasNext) HttpEntity.Strict(ContentTypes.`application/json`, first)
+    else
+      HttpEntity.Chunked.fromData(
+        ContentTypes.`application/json`,
+        Source.single(first).concat(Source.fromIterator(() => iterator))
+      )
+  }
+
+  private sealed trait Frame {
+    var first: Boolean = true
+  }
+
+  private final class ListFrame(val values: Iterator[SymphonyQLOutputValue]) extends Frame
+
+  private final class ObjectFrame(val fields: SymphonyQLOutputValue.ObjectValue.Cursor) extends Frame {
+    // the value of the field whose name is being written
+    var value: SymphonyQLOutputValue = null
+  }
+
+  // the most bytes written for a char: an escape like \u001f
+  private val MaxCharSize = 6
+
+  private final class ChunkIterator(root: SymphonyQLOutputValue, chunkSize: Int)
+      extends AbstractIterator[ByteString] {
+
+    // the lists and objects being written, innermost first
+    private val stack            = new java.util.ArrayDeque[Frame]()
+    private var started          = false
+    private var buffer           = newBuffer()
+    private var position         = 0
+    private val hex: Array[Byte] = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII)
+
+    // the string being written and the index of its next char, long strings are split across chunks
+    private var string: String = null
+    private var index          = 0
+
+    override def hasNext: Boolean = !started || string != null || !stack.isEmpty
+
+    override def next(): ByteString = {
+      if (!hasNext) throw new NoSuchElementException("next on empty iterator")
+      if (!started) {
+        started = true
+        writeValue(root)
+      }
+      while (position < chunkSize && (string != null || !stack.isEmpty))
+        if (string != null) writeChars()
+        else
+          stack.peek() match {
+            case frame: ListFrame   =>
+              if (frame.values.hasNext) {
+                if (frame.first) frame.first = false else writeByte(',')
+                writeValue(frame.values.next())
+              } else {
+                stack.pop()
+                writeByte(']')
+              }
+            case frame: ObjectFrame =>
+              if (frame.value != null) {
+                val value = frame.value
+                frame.value = null
+                writeByte(':')
+                writeValue(value)
+              } else if (frame.fields.next()) {
+                if (frame.first) frame.first = false else writeByte(',')
+                writeString(frame.fields.name)
+                frame.value = frame.fields.value
+              } else {
+                stack.pop()
+                writeByte('}')
+              }
+          }
+      val chunk = ByteString.fromArrayUnsafe(buffer, 0, position)
+      buffer = newBuffer()
+      position = 0
+      chunk
+    }
+
+    // a char can always be written once the chunk is not full
+    private def newBuffer(): Array[Byte] = new Array[Byte](chunkSize + MaxCharSize)
+
+    private def writeValue(value: SymphonyQLOutputValue): Unit =
+      value match {
+        case obj: SymphonyQLOutputValue.ObjectValue    =>
+          writeByte('{')
+          stack.push(new ObjectFrame(obj.cursor))
+        case list: SymphonyQLOutputValue.ListValue     =>
+          writeByte('[')
+          stack.push(new ListFrame(list.iterator))
+        case StringValue(value)                        => writeString(value)
+        case EnumValue(value)                          => writeString(value)
+        case BooleanValue(value)                       => writeAscii(if (value) "true" else "false")
+        case NullValue                                 => writeAscii("null")
+        case IntValue.IntNumber(value)                 => writeAscii(Integer.toString(value))
+        case IntValue.LongNumber(value)                => writeAscii(java.lang.Long.toString(value))
+        case IntValue.BigIntNumber(value)              => writeAscii(value.toString)
+        case FloatValue.FloatNumber(value)             =>
+          if (value.isNaN || value.isInfinite) writeAscii("null") else writeAscii(java.lang.Float.toString(value))
+        case FloatValue.DoubleNumber(value)            =>
+          if (value.isNaN || value.isInfinite) writeAscii("null") else writeAscii(java.lang.Double.toString(value))
+        case FloatValue.BigDecimalNumber(value)        => writeAscii(value.toString)
+        case stream: SymphonyQLOutputValue.StreamValue => writeString(stream.toString)
+      }
+
+    private def ensure(size: Int): Unit =
+      if (position + size > buffer.length)
+        buffer = java.util.Arrays.copyOf(buffer, math.max(buffer.length * 2, position + size))
+
+    private def writeByte(b: Int): Unit = {
+      ensure(1)
+      buffer(position) = b.toByte
+      position += 1
+    }
+
+    private def writeAscii(s: String): Unit = {
+      ensure(s.length)
+      var i = 0
+      while (i < s.length) {
+        buffer(position) = s.charAt(i).toByte
+        position += 1
+        i += 1
+      }
+    }
+
+    /**
+     * Starts writing `s`, whose chars are written by `writeChars` until the chunk is full.
+     */
+    private def writeString(s: String): Unit = {
+      writeByte('"')
+      string = s
+      index = 0
+      writeChars()
+    }
+
+    private def writeChars(): Unit = {
+      val s = string
+      var i = index
+      while (i < s.length && position < chunkSize) {
+        val c = s.charAt(i)
+        if (c < 0x80) {
+          if (c >= 0x20 && c != '"' && c != '\\') {
+            buffer(position) = c.toByte
+            position += 1
+          } else writeEscaped(c)
+        } else if (c < 0x800) {
+          buffer(position) = (0xc0 | (c >> 6)).toByte
+          buffer(position + 1) = (0x80 | (c & 0x3f)).toByte
+          position += 2
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length && Character.isLowSurrogate(s.charAt(i + 1))) {
+          val codePoint = Character.toCodePoint(c, s.charAt(i + 1))
+          buffer(position) = (0xf0 | (codePoint >> 18)).toByte
+          buffer(position + 1) = (0x80 | ((codePoint >> 12) & 0x3f)).toByte
+          buffer(position + 2) = (0x80 | ((codePoint >> 6) & 0x3f)).toByte
+          buffer(position + 3) = (0x80 | (codePoint & 0x3f)).toByte
+          position += 4
+          i += 1
+        } else if (Character.isSurrogate(c)) writeEscaped(c)
+        else {
+          buffer(position) = (0xe0 | (c >> 12)).toByte
+          buffer(position + 1) = (0x80 | ((c >> 6) & 0x3f)).toByte
+          buffer(position + 2) = (0x80 | (c & 0x3f)).toByte
+          position += 3
+        }
+        i += 1
+      }
+      if (i < s.length) index = i
+      else {
+        string = null
+        writeByte('"')
+      }
+    }
+
+    private def writeEscaped(c: Char): Unit = {
+      buffer(position) = '\\'
+      c match {
+        case '"'  => buffer(position + 1) = '"'
+        case '\\' => buffer(position + 1) = '\\'
+        case '\b' => buffer(position + 1) = 'b'
+        case '\f' => buffer(position + 1) = 'f'
+        case '\n' => buffer(position + 1) = 'n'
+        case '\r' => buffer(position + 1) = 'r'
+        case '\t' => buffer(position + 1) = 't'
+        case _    =>
+          buffer(position + 1) = 'u'
+          buffer(position + 2) = hex((c >> 12) & 0xf)
+          buffer(position + 3) = hex((c >> 8) & 0xf)
+          buffer(position + 4) = hex((c >> 4) & 0xf)
+          buffer(position + 5) = hex(c & 0xf)
+          position += 4
+      }
+      position += 2
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package symphony.server
+
+import org.apache.pekko.http.scaladsl.model.HttpEntity
+import org.apache.pekko.stream.Materializer
+import org.apache.pekko.util.{ ByteString, ByteStringBuilder }
+import symphony.SymphonyQLRequest
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+
+import java.nio.charset.StandardCharsets
+import scala.concurrent.*
+import scala.util.Try
+
+/**
+ * Decodes GraphQL requests from JSON bodies in a single pass over the bytes, without building a JSON tree first.
+ *
+ * Integers are decoded to the narrowest of `IntNumber`, `LongNumber` and `BigIntNumber`, other numbers to
+ * `DoubleNumber` unless they have more significant digits than a double can hold.
+ */
+object JsonRequestDecoder {
+
+  /**
+   * @param maxBodySize
+   *   maximum size of a request body in bytes, checked while the body is received
+   * @param maxDepth
+   *   maximum nesting of arrays and objects in a request
+   */
+  final case class Limits(maxBodySize: Long = 8L * 1024 * 1024, maxDepth: Int = 64)
+
+  def decode(entity: HttpEntity, limits: Limits = Limits())(implicit
+    materializer: Materializer,
+    ec: ExecutionContext
+  ): Future[SymphonyQLRequest] =
+    entity match {
+      case HttpEntity.Strict(_, data) if data.length <= limits.maxBodySize =>
+        Future.fromTry(Try(decode(data, limits.maxDepth)))
+      case _                                                               =>
+        entity
+          .withSizeLimit(limits.maxBodySize)
+          .dataBytes
+          .runFold(new ByteStringBuilder)(_ ++= _)
+          .map(builder => decode(builder.result(), limits.maxDepth))
+    }
+
+  def decode(bytes: ByteString, maxDepth: Int): SymphonyQLRequest =
+    new Decoder(bytes.toArrayUnsafe(), maxDepth).request()
+
+  private final class Decoder(input: Array[Byte], maxDepth: Int) {
+    private var position = 0
+    private var depth    = 0
+
+    def request(): SymphonyQLRequest = {
+      var query: Option[String]                                 = None
+      var operationName: Option[String]                         = None
+      var variables: Option[Map[String, SymphonyQLInputValue]]  = None
+      var extensions: Option[Map[String, SymphonyQLInputValue]] = None
+      readObject { key =>
+        key match {
+          case "query"         => query = optional(readString())
+          case "operationName" => operationName = optional(readString())
+          case "variables"     => variables = optional(readFields())
+          case "extensions"    => extensions = optional(readFields())
+          case _               => readValue()
+        }
+      }
+      skipWhitespace()
+      if (position < input.length) fail("Unexpected content after the request")
+      // automatic persisted queries may be sent without their text
+      val persisted = extensions.exists(_.contains("persistedQuery"))
+      SymphonyQLRequest(
+        query.getOrElse(if (persisted) "" else fail("The query is missing")),
+        operationName,
+        variables,
+        extensions
+      )
+    }
+
+    private def optional[A](read: => A): Option[A] = {
+      skipWhitespace()
+      if (peek == 'n') {
+        readLiteral("null")
+        None
+      } else Some(read)
+    }
+
+    private def readFields(): Map[String, SymphonyQLInputValue] = {
+      val fields = Map.newBuilder[String, SymphonyQLInputValue]
+      readObject(key => fields += key -> readValue())
+      fields.result()
+    }
+
+    private def readObject(readField: String => Unit): Unit = {
+      expect('{')
+      enter()
+      skipWhitespace()
+      if (peek == '}') position += 1
+      else {
+        var more = true
+        while (more) {
+          skipWhitespace()
+          val key = readString()
+          skipWhitespace()
+          expect(':')
+          readField(key)
+          skipWhitespace()
+          if (peek == ',') position += 1
+          else {
+            expect('}')
+            more = false
+          }
+        }
+      }
+      depth -= 1
+    }
+
+    private def readValue(): SymphonyQLInputValue = {
+      skipWhitespace()
+      peek match {
+        case '{'                                     => SymphonyQLInputValue.ObjectValue(readFields())
+        case '['                                     => readList()
+        case '"'                                     => StringValue(readString())
+        case 't'                                     =>
+          readLiteral("true")
+          BooleanValue(true)
+        case 'f'                                     =>
+          readLiteral("false")
+          BooleanValue(false)
+        case 'n'                                     =>
+          readLiteral("null")
+          NullValue
+        case c if c == '-' || (c >= '0' && c <= '9') => readNumber()
+        case c                                       => fail(s"Unexpected character '$c'")
+      }
+    }
+
+    private def readList(): SymphonyQLInputValue = {
+      expect('[')
+      enter()
+      val values = List.newBuilder[SymphonyQLInputValue]
+      skipWhitespace()
+      if (peek == ']') position += 1
+      else {
+        var more = true
+        while (more) {
+          values += readValue()
+          skipWhitespace()
+          if (peek == ',') position += 1
+          else {
+            expect(']')
+            more = false
+          }
+        }
+      }
+      depth -= 1
+      SymphonyQLInputValue.ListValue(values.result())
+    }
+
+    private def readNumber(): SymphonyQLInputValue = {
+      val start    = position
+      var integral = true
+      var digits   = 0
+      if (peek == '-') position += 1
+      while (position < input.length && isDigit(input(position))) {
+        position += 1
+        digits += 1
+      }
+      if (digits == 0) fail("Invalid number")
+      if (position < input.length && input(position) == '.') {
+        integral = false
+        position += 1
+        val fraction = position
+        while (position < input.length && isDigit(input(position))) position += 1
+        if (position == fraction) fail("Invalid number")
+        digits += position - fraction
+      }
+      if (position < input.length && (input(position) == 'e' || input(position) == 'E')) {
+        integral = false
+        position += 1
+        if (position < input.length && (input(position) == '+' || input(position) == '-')) position += 1
+        val exponent = position
+        while (position < input.length && isDigit(input(position))) position += 1
+        if (position == exponent) fail("Invalid number")
+      }
+      val text = new String(input, start, position - start, StandardCharsets.US_ASCII)
+      if (integral) {
+        if (digits < 10) IntValue.IntNumber(text.toInt)
+        else if (digits < 19) {
+          val value = text.toLong
+          if (value.isValidInt) IntValue.IntNumber(value.toInt) else IntValue.LongNumber(value)
+        } else {
+          val value = BigInt(text)
+          if (value.isValidInt) IntValue.IntNumber(value.toInt)
+          else if (value.isValidLong) IntValue.LongNumber(value.toLong)
+          else IntValue.BigIntNumber(value)
+        }
+      } else {
+        val value = java.lang.Double.parseDouble(text)
+        if (digits <= 15 && !value.isInfinite) FloatValue.DoubleNumber(value)
+        else FloatValue.BigDecimalNumber(BigDecimal(text))
+      }
+    }
+
+    private def readString(): String = {
+      expect('"')
+      val start = position
+      // fast path for strings without escapes
+      while (position < input.length && input(position) != '"' && input(position) != '\\') position += 1
+      if (position < input.length && input(position) == '"') {
+        position += 1
+        new String(input, start, position - start - 1, StandardCharsets.UTF_8)
+      } else {
+        val builder = new java.lang.StringBuilder(new String(input, start, position - start, StandardCharsets.UTF_8))
+        var more    = true
+        while (more) {
+          if (position >= input.length) fail("Unterminated string")
+          input(position).toChar match {
+            case '"'  =>
+              position += 1
+              more = false
+            case '\\' =>
+              position += 1
+              if (position >= input.length) fail("Unterminated string")
+              input(position).toChar match {
+                case '"'  => builder.append('"')
+                case '\\' => builder.append('\\')
+                case '/'  => builder.append('/')
+                case 'b'  => builder.append('\b')
+                case 'f'  => builder.append('\f')
+                case 'n'  => builder.append('\n')
+                case 'r'  => builder.append('\r')
+                case 't'  => builder.append('\t')
+                case 'u'  =>
+                  if (position + 4 >= input.length) fail("Invalid unicode escape")
+                  val hex = new String(input, position + 1, 4, StandardCharsets.US_ASCII)
+                  builder.append(Try(Integer.parseInt(hex, 16)).getOrElse(fail("Invalid unicode escape")).toChar)
+                  position += 4
+                case c    => fail(s"Invalid escape '\\$c'")
+              }
+              position += 1
+            case _    =>
+              val segment = position
+              while (position < input.length && input(position) != '"' && input(position) != '\\') position += 1
+              builder.append(new String(input, segment, position - segment, StandardCharsets.UTF_8))
+          }
+        }
+        builder.toString
+      }
+    }
+
+    private def readLiteral(literal: String): Unit = {
+      var i = 0
+      while (i < literal.length) {
+        if (position >= input.length || input(position) != literal.charAt(i)) fail(s"Expected '$literal'")
+        position += 1
+        i += 1
+      }
+    }
+
+    private def enter(): Unit = {
+      depth += 1
+      if (depth > maxDepth) fail(s"The request is nested deeper than the maximum depth $maxDepth")
+    }
+
+    private def expect(c: Char): Unit = {
+      skipWhitespace()
+      if (position >= input.length || input(position) != c) fail(s"Expected '$c'")
+      position += 1
+    }
+
+    private def peek: Char = {
+      skipWhitespace()
+      if (position < input.length) input(position).toChar else fail("Unexpected end of input")
+    }
+
+    private def skipWhitespace(): Unit =
+      while (
+        position < input.length &&
+        (input(position) == ' ' || input(position) == '\n' || input(position) == '\r' || input(position) == '\t')
+      ) position += 1
+
+    private def isDigit(b: Byte): Boolean = b >= '0' && b <= '9'
+
+    private def fail(msg: String): Nothing =
+      throw SymphonyQLError.ArgumentError(s"Invalid json format: $msg at offset $position.")
+  }
+}
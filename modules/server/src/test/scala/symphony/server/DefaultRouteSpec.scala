@@ -0,0 +1,99 @@
+package symphony.server
+
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.http.scaladsl.model.*
+import org.apache.pekko.http.scaladsl.model.headers.Accept
+import org.apache.pekko.http.scaladsl.server.Route
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.*
+import spray.json.*
+import symphony.*
+import symphony.schema.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class DefaultRouteSpec extends AnyFunSpec with Matchers {
+
+  final case class Ship(name: String, crew: () => Future[Int])
+  final case class Queries(ship: Ship, broken: () => Future[Int])
+
+  implicit val system: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val graphql = SymphonyQL
+    .newSymphonyQL()
+    .query(
+      Queries(
+        Ship("Rocinante", () => Future { Thread.sleep(20); 4 }(ExecutionContext.global)),
+        () => Future.failed(new IllegalStateException("connection refused by db-1.internal"))
+      )
+    )
+    .build()
+
+  private val route = new DefaultRoute(graphql) {
+    override implicit val actorSystem: ActorSystem = system
+  }
+
+  private val handler = Route.toFunction(route.routes)
+
+  private val cancellingHandler = Route.toFunction(new DefaultRoute(graphql) {
+    override implicit val actorSystem: ActorSystem = system
+    override def cancelOnDisconnect: Boolean       = true
+  }.routes)
+
+  private val query =
+    "query Ship { ship { name ...Crew @defer(label: \"crew\") } } fragment Crew on Ship { crew }"
+
+  private def post(accept: List[MediaRange]): (ContentType, String) = {
+    val (_, contentType, body) = post(handler, query, accept)
+    contentType -> body
+  }
+
+  private def post(
+    handler: HttpRequest => Future[HttpResponse],
+    query: String,
+    accept: List[MediaRange]
+  ): (StatusCode, ContentType, String) = {
+    val body     = JsObject("query" -> JsString(query)).compactPrint
+    val request  = HttpRequest(
+      HttpMethods.POST,
+      "/api/graphql",
+      if (accept.isEmpty) Nil else List(Accept(accept)),
+      HttpEntity(ContentTypes.`application/json`, body)
+    )
+    val response = Await.result(handler(request), 10.seconds)
+    val strict   = Await.result(response.entity.toStrict(10.seconds), 10.seconds)
+    (response.status, strict.contentType, strict.data.utf8String)
+  }
+
+  private def part(json: String): String = s"\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n$json"
+
+  describe("DefaultRoute Spec") {
+    it("send the deferred fragments as parts of a multipart/mixed response") {
+      val (contentType, body) = post(List(MediaTypes.`multipart/mixed`, MediaTypes.`application/json`))
+      contentType.mediaType.toString should startWith("multipart/mixed")
+      body shouldEqual
+        part("""{"data":{"ship":{"name":"Rocinante"}},"hasNext":true}""") +
+        part("""{"incremental":[{"data":{"crew":4},"path":["ship"],"label":"crew"}],"hasNext":false}""") +
+        "\r\n-----\r\n"
+    }
+
+    it("execute the deferred fragments inline for the other requests") {
+      val (contentType, body) = post(List(MediaRanges.`*/*`))
+      contentType shouldEqual ContentTypes.`application/json`
+      body shouldEqual """{"data":{"ship":{"name":"Rocinante","crew":4}}}"""
+    }
+
+    it("fail with an internal server error when a resolver fails") {
+      val (status, _, body) = post(handler, "{ broken }", List(MediaTypes.`multipart/mixed`))
+      status shouldEqual StatusCodes.InternalServerError
+      body should not include "db-1.internal"
+    }
+
+    it("report resolver failures without their message once the response has started") {
+      val (status, _, body) = post(cancellingHandler, "{ broken }", Nil)
+      status shouldEqual StatusCodes.OK
+      body shouldEqual """{"message":"There was an internal server error."}"""
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package symphony.server
+
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.http.scaladsl.model.HttpEntity
+import org.apache.pekko.stream.scaladsl.*
+import org.apache.pekko.util.ByteString
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.*
+import spray.json.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+
+import scala.concurrent.Await
+import scala.concurrent.duration.*
+
+class JsonOutputWriterSpec extends AnyFunSpec with Matchers with JsonFormats {
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+
+  private val output = SymphonyQLOutputValue.ObjectValue(
+    List(
+      "string" -> StringValue("quote \" backslash \\ newline \n tab \t bell \u0007 \u00e9 \u20ac \ud83d\ude00"),
+      "int"    -> IntValue(12),
+      "long"   -> IntValue(Long.MaxValue),
+      "float"  -> FloatValue(12.5),
+      "enum"   -> EnumValue("EARTH"),
+      "null"   -> NullValue,
+      "list"   -> SymphonyQLOutputValue.ListValue(List(BooleanValue(true), BooleanValue(false))),
+      "empty"  -> SymphonyQLOutputValue.ObjectValue(Nil)
+    )
+  )
+
+  describe("JsonOutputWriter Spec") {
+    it("write the same JSON as the JSON formats") {
+      JsonOutputWriter.toByteString(output).utf8String.parseJson shouldEqual output.toJson
+    }
+
+    it("escape strings and keep the field order") {
+      JsonOutputWriter
+        .toByteString(SymphonyQLOutputValue.ObjectValue(List("b" -> StringValue("\"\\\u0001"), "a" -> NullValue)))
+        .utf8String shouldEqual """{"b":"\"\\\u0001","a":null}"""
+    }
+
+    it("split large values into chunks") {
+      val list   = SymphonyQLOutputValue.ListValue(List.fill(100)(output))
+      val chunks = JsonOutputWriter.chunks(list, 256).toList
+      chunks.size should be > 1
+      chunks.reduce(_ ++ _) shouldEqual JsonOutputWriter.toByteString(list)
+      JsonOutputWriter.toEntity(list, 256) shouldBe a[HttpEntity.Chunked]
+      JsonOutputWriter.toEntity(output) shouldBe a[HttpEntity.Strict]
+    }
+
+    it("split long strings into chunks") {
+      val string = ("\"\u00e9\ud83d\ude00 " * 1000) + "end"
+      val value  = SymphonyQLOutputValue.ObjectValue(List(string -> StringValue(string), "short" -> StringValue("s")))
+      val chunks = JsonOutputWriter.chunks(value, 256).toList
+      chunks.size should be > 40
+      all(chunks.map(_.length)) should be <= 256 + 6
+      chunks.reduce(_ ++ _).utf8String.parseJson shouldEqual value.toJson
+      JsonOutputWriter.chunks(StringValue(string), 256).reduce(_ ++ _).utf8String.parseJson shouldEqual JsString(string)
+    }
+
+    it("write the elements of streams as JSON arrays") {
+      val rows     = (1 to 1000).toList.map { i =>
+        SymphonyQLOutputValue.ObjectValue(List("id" -> IntValue(i), "name" -> StringValue(s"row $i")))
+      }
+      val streamed = SymphonyQLOutputValue.ObjectValue(
+        List(
+          "rows"   -> SymphonyQLOutputValue.StreamValue(Source(rows)),
+          "nested" -> SymphonyQLOutputValue.ListValue(List(SymphonyQLOutputValue.StreamValue(Source.empty), output))
+        )
+      )
+      val expected = SymphonyQLOutputValue.ObjectValue(
+        List(
+          "rows"   -> SymphonyQLOutputValue.ListValue(rows),
+          "nested" -> SymphonyQLOutputValue.ListValue(List(SymphonyQLOutputValue.ListValue(Nil), output))
+        )
+      )
+      val bytes    = JsonOutputWriter.stream(streamed, 256).runWith(Sink.fold(ByteString.empty)(_ ++ _))
+      Await.result(bytes, 10.seconds) shouldEqual JsonOutputWriter.toByteString(expected)
+    }
+  }
+}
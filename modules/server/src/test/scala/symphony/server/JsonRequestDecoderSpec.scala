@@ -0,0 +1,70 @@
+package symphony.server
+
+import org.apache.pekko.actor.ActorSystem
+import org.apache.pekko.http.scaladsl.model.*
+import org.apache.pekko.stream.scaladsl.Source
+import org.apache.pekko.util.ByteString
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.*
+import symphony.*
+import symphony.parser.*
+import symphony.parser.SymphonyQLValue.*
+
+import scala.concurrent.*
+import scala.concurrent.duration.*
+
+class JsonRequestDecoderSpec extends AnyFunSpec with Matchers {
+
+  implicit val actorSystem: ActorSystem = ActorSystem("symphonyActorSystem")
+  import actorSystem.dispatcher
+
+  private def decode(json: String): SymphonyQLRequest =
+    JsonRequestDecoder.decode(ByteString(json), 64)
+
+  describe("JsonRequestDecoder Spec") {
+    it("decode requests") {
+      decode(
+        """{"query":"query($id: ID) { character(id: $id) { name } }","operationName":null,"variables":{"id":"é\n"},"other":[1,{}]}"""
+      ) shouldEqual SymphonyQLRequest(
+        "query($id: ID) { character(id: $id) { name } }",
+        None,
+        Some(Map("id" -> StringValue("é\n"))),
+        None
+      )
+    }
+
+    it("decode persisted query requests without a query") {
+      decode(
+        """{"extensions":{"persistedQuery":{"version":1,"sha256Hash":"abc"}}}"""
+      ).query shouldEqual ""
+    }
+
+    it("use the narrowest number representation") {
+      val variables = decode(
+        """{"query":"{}","variables":{"a":1,"b":-3000000000,"c":123456789012345678901234,"d":1.5,"e":1e3,"f":0.12345678901234567890}}"""
+      ).variables.getOrElse(Map.empty)
+      variables("a") shouldEqual IntValue.IntNumber(1)
+      variables("b") shouldEqual IntValue.LongNumber(-3000000000L)
+      variables("c") shouldEqual IntValue.BigIntNumber(BigInt("123456789012345678901234"))
+      variables("d") shouldEqual FloatValue.DoubleNumber(1.5)
+      variables("e") shouldEqual FloatValue.DoubleNumber(1000d)
+      variables("f") shouldEqual FloatValue.BigDecimalNumber(BigDecimal("0.12345678901234567890"))
+    }
+
+    it("reject invalid requests") {
+      an[SymphonyQLError.ArgumentError] should be thrownBy decode("""{"operationName":"op"}""")
+      an[SymphonyQLError.ArgumentError] should be thrownBy decode("""{"query":"{}",}""")
+      an[SymphonyQLError.ArgumentError] should be thrownBy decode("""{"query":"{}"} {}""")
+      an[SymphonyQLError.ArgumentError] should be thrownBy
+        JsonRequestDecoder.decode(ByteString("""{"query":"{}","variables":{"a":[[[1]]]}}"""), 3)
+    }
+
+    it("limit the body size while streaming") {
+      val body   = ByteString("""{"query":"{ characters { name } }"}""")
+      val entity = HttpEntity(ContentTypes.`application/json`, body.length.toLong, Source(body.grouped(4).toList))
+      Await.result(JsonRequestDecoder.decode(entity), 10.seconds).query shouldEqual "{ characters { name } }"
+      an[EntityStreamSizeException] should be thrownBy
+        Await.result(JsonRequestDecoder.decode(entity, JsonRequestDecoder.Limits(maxBodySize = 16)), 10.seconds)
+    }
+  }
+}
@@ -1,3 +1,50 @@
 package symphony.validator
 
-object DirectiveValidator {}
+import symphony.parser.adt.Directive
+import symphony.parser.adt.introspection.*
+
+object DirectiveValidator {
+
+  private[validator] def validateDirectives(
+    context: ValidationContext,
+    directives: List[Directive],
+    location: __DirectiveLocation,
+    scope: Scope
+  ): Unit =
+    if (directives.nonEmpty) {
+      directives.foreach { directive =>
+        context.schema.directive(directive.name) match {
+          case None                                                 =>
+            context.fail(
+              s"Directive '${directive.name}' is not supported.",
+              "GraphQL servers define what directives they support. For each usage of a directive, the directive must be available on that server."
+            )
+          case Some(definition) if !definition.locations(location) =>
+            context.fail(
+              s"Directive '${directive.name}' is not allowed on $location.",
+              "GraphQL servers define what directives they support and where they support them. For each usage of a directive, the directive must be used in a location that the server has declared support for."
+            )
+          case Some(definition)                                     =>
+            ValueValidator.validateArguments(
+              context,
+              directive.arguments,
+              definition.args(__DeprecatedArgs(Some(true))),
+              s"directive '${directive.name}'",
+              scope
+            )
+        }
+      }
+      directives
+        .groupBy(_.name)
+        .collectFirst {
+          case (name, occurrences) if occurrences.size > 1 && context.schema.directive(name).exists(!_.isRepeatable) =>
+            name
+        }
+        .foreach(name =>
+          context.fail(
+            s"Directive '$name' is defined more than once on $location.",
+            "Directives are used to describe some metadata or behavioral change on the definition they apply to. When more than one directive of the same name is used, the expected metadata or behavior becomes ambiguous, therefore only one of each non-repeatable directive is allowed per location."
+          )
+        )
+    }
+}
@@ -1,3 +1,113 @@
 package symphony.validator
 
-object FieldValidator {}
+import symphony.parser.adt.Selection
+import symphony.parser.adt.Selection.*
+import symphony.parser.adt.introspection.*
+
+import scala.collection.mutable
+
+object FieldValidator {
+
+  /**
+   * Validates a field selected on `parentType` and its arguments, returns the named type of the field when its
+   * selections should be validated.
+   */
+  private[validator] def validateField(
+    context: ValidationContext,
+    field: Field,
+    parentType: __Type,
+    scope: Scope
+  ): Option[__Type] = {
+    val parentName = parentType.name.getOrElse("")
+    if (field.name == "__typename") {
+      if (field.selectionSet.nonEmpty) leafWithSelections(context, field, "String")
+      None
+    } else
+      context.schema.field(parentName, field.name) match {
+        case None             =>
+          context.fail(
+            s"Field '${field.name}' does not exist on type '$parentName'.",
+            "The target field of a field selection must be defined on the scoped type of the selection set. There are no limitations on alias names."
+          )
+          None
+        case Some(definition) =>
+          ValueValidator.validateArguments(
+            context,
+            field.arguments,
+            definition.allArgs,
+            s"field '${field.name}' of type '$parentName'",
+            scope
+          )
+          val fieldType = context.schema.namedType(definition._type)
+          if (SchemaView.isLeaf(fieldType)) {
+            if (field.selectionSet.nonEmpty) leafWithSelections(context, field, fieldType.name.getOrElse(""))
+            None
+          } else if (field.selectionSet.isEmpty) {
+            context.fail(
+              s"Field '${field.name}' of type '${fieldType.name.getOrElse("")}' must have a selection of subfields.",
+              "Leaf selections on objects, interfaces, and unions without subfields are disallowed."
+            )
+            None
+          } else Some(fieldType)
+      }
+  }
+
+  private def leafWithSelections(context: ValidationContext, field: Field, typeName: String): Unit =
+    context.fail(
+      s"Field '${field.name}' of type '$typeName' must not have a selection since it has no subfields.",
+      "Field selections on scalars or enums are never allowed, because they are the leaf nodes of any GraphQL operation."
+    )
+
+  /**
+   * Checks that the fields of a selection set sharing a response name, including the fields of its fragments, select
+   * the same field with the same arguments whenever they can apply to the same object.
+   */
+  private[validator] def validateFieldsCanMerge(
+    context: ValidationContext,
+    selectionSet: List[Selection],
+    parentType: __Type
+  ): Unit =
+    if (selectionSet.lengthCompare(1) > 0 || selectionSet.exists(!_.isInstanceOf[Field])) {
+      val fields = mutable.LinkedHashMap.empty[String, List[(__Type, Field)]]
+      collectFields(context, selectionSet, parentType, fields, mutable.Set.empty)
+      fields.foreach { case (responseName, candidates) =>
+        candidates match {
+          case (firstType, first) :: others =>
+            others.foreach { case (otherType, other) =>
+              val sameParent =
+                firstType.name == otherType.name ||
+                  firstType.kind != __TypeKind.OBJECT || otherType.kind != __TypeKind.OBJECT
+              if (sameParent && (first.name != other.name || first.arguments != other.arguments))
+                context.fail(
+                  s"Fields '$responseName' conflict because they select different fields or arguments. Use different aliases on the fields to fetch both if this was intentional.",
+                  "If multiple field selections with the same response names are encountered during execution, the field and arguments to execute and the resulting value should be unambiguous."
+                )
+            }
+          case Nil                          => ()
+        }
+      }
+    }
+
+  private def collectFields(
+    context: ValidationContext,
+    selectionSet: List[Selection],
+    parentType: __Type,
+    fields: mutable.LinkedHashMap[String, List[(__Type, Field)]],
+    visited: mutable.Set[String]
+  ): Unit =
+    selectionSet.foreach {
+      case field: Field                                 =>
+        val responseName = field.alias.getOrElse(field.name)
+        fields.update(responseName, fields.getOrElse(responseName, Nil) :+ (parentType -> field))
+      case InlineFragment(typeCondition, _, selections) =>
+        val tpe = typeCondition.flatMap(t => context.schema.tpe(t.name)).getOrElse(parentType)
+        collectFields(context, selections, tpe, fields, visited)
+      case FragmentSpread(name, _) if visited.add(name) =>
+        context.fragments.get(name).foreach { fragment =>
+          context.schema
+            .tpe(fragment.typeCondition.name)
+            .foreach(collectFields(context, fragment.selectionSet, _, fields, visited))
+        }
+      case _: FragmentSpread                            => ()
+    }
+}
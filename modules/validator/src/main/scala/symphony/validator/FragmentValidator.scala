@@ -1,3 +1,124 @@
 package symphony.validator
 
-object FragmentValidator {}
+import symphony.parser.adt.Definition.ExecutableDefinition.FragmentDefinition
+import symphony.parser.adt.Selection.*
+import symphony.parser.adt.Type.NamedType
+import symphony.parser.adt.introspection.*
+
+import scala.collection.mutable
+
+object FragmentValidator {
+
+  private[validator] def validateFragmentNames(context: ValidationContext): Unit =
+    context.document.fragmentDefinitions
+      .groupBy(_.name)
+      .collectFirst { case (name, fragments) if fragments.size > 1 => name }
+      .foreach(name =>
+        context.fail(
+          s"Fragment '$name' is defined more than once.",
+          "Fragment definitions are referenced in fragment spreads by name. To avoid ambiguity, each fragment's name must be unique within a document."
+        )
+      )
+
+  /**
+   * Validates the type condition of a fragment definition, returns the type its selections apply to.
+   */
+  private[validator] def validateFragmentDefinition(
+    context: ValidationContext,
+    fragment: FragmentDefinition
+  ): Option[__Type] =
+    validateTypeCondition(context, fragment.typeCondition, s"fragment '${fragment.name}'")
+
+  /**
+   * Validates an inline fragment selected on `parentType`, returns the type its selections apply to.
+   */
+  private[validator] def validateInlineFragment(
+    context: ValidationContext,
+    fragment: InlineFragment,
+    parentType: __Type
+  ): Option[__Type] =
+    fragment.typeCondition match {
+      case None            => Some(parentType)
+      case Some(condition) =>
+        validateTypeCondition(context, condition, "inline fragment").filter { tpe =>
+          val possible = canSpread(context, tpe, parentType)
+          if (!possible)
+            impossibleSpread(context, "Inline fragment", tpe, parentType)
+          possible
+        }
+    }
+
+  private[validator] def validateFragmentSpread(
+    context: ValidationContext,
+    spread: FragmentSpread,
+    parentType: __Type,
+    scope: Scope
+  ): Unit =
+    context.fragments.get(spread.name) match {
+      case None           =>
+        context.fail(
+          s"Fragment spread '${spread.name}' is not defined.",
+          "Named fragment spreads must refer to fragments defined within the document. It is a validation error if the target of a spread is not defined."
+        )
+      case Some(fragment) =>
+        scope.spreads += spread.name
+        context.schema.tpe(fragment.typeCondition.name).foreach { tpe =>
+          if (!canSpread(context, tpe, parentType))
+            impossibleSpread(context, s"Fragment '${spread.name}'", tpe, parentType)
+        }
+    }
+
+  /**
+   * Rejects fragments that are not used by any operation and fragments spreading themselves.
+   */
+  private[validator] def validateFragmentUsages(context: ValidationContext, used: collection.Set[String]): Unit = {
+    context.document.fragmentDefinitions.find(f => !used.contains(f.name)).foreach { fragment =>
+      context.fail(
+        s"Fragment '${fragment.name}' is not used in any spread.",
+        "Defined fragments must be used within a document."
+      )
+    }
+    val done = mutable.Set.empty[String]
+    def visit(name: String, path: List[String]): Unit =
+      if (!context.failed && !done.contains(name)) {
+        if (path.contains(name))
+          context.fail(
+            s"Fragment '$name' forms a cycle through ${(name :: path).reverse.mkString(" -> ")}.",
+            "The graph of fragment spreads must not form any cycles including spreading itself. Otherwise an operation could infinitely spread or infinitely execute on cycles in the underlying data."
+          )
+        else {
+          context.fragmentScopes.get(name).foreach(_.spreads.foreach(visit(_, name :: path)))
+          done += name
+        }
+      }
+    context.document.fragmentDefinitions.foreach(fragment => visit(fragment.name, Nil))
+  }
+
+  private def validateTypeCondition(context: ValidationContext, condition: NamedType, where: String): Option[__Type] =
+    context.schema.tpe(condition.name) match {
+      case None                                      =>
+        context.fail(
+          s"Type '${condition.name}' of $where is not defined in the schema.",
+          "Fragments must be specified on types that exist in the schema."
+        )
+        None
+      case Some(tpe) if !SchemaView.isComposite(tpe) =>
+        context.fail(
+          s"Type '${condition.name}' of $where is not an object, interface or union.",
+          "Fragments can only be declared on unions, interfaces, and objects."
+        )
+        None
+      case some                                      => some
+    }
+
+  private def canSpread(context: ValidationContext, fragmentType: __Type, parentType: __Type): Boolean = {
+    val parentTypes = context.schema.possibleTypes(parentType.name.getOrElse(""))
+    context.schema.possibleTypes(fragmentType.name.getOrElse("")).exists(parentTypes.contains)
+  }
+
+  private def impossibleSpread(context: ValidationContext, what: String, tpe: __Type, parentType: __Type): Unit =
+    context.fail(
+      s"$what on type '${tpe.name.getOrElse("")}' can never be spread on type '${parentType.name.getOrElse("")}'.",
+      "Fragments are declared on a type and will only apply when the runtime object type matches the type condition. They also are spread within the context of a parent type. A fragment spread is only valid if its type condition could ever apply within the parent type."
+    )
+}
@@ -0,0 +1,102 @@
+package symphony.validator
+
+import symphony.parser.adt.OperationType
+import symphony.parser.adt.Type
+import symphony.parser.adt.introspection.*
+
+/**
+ * A name-indexed view of a schema used to validate documents.
+ *
+ * It is built once per schema: the fields, input fields and possible types of every type are looked up by name instead
+ * of being recomputed from the `__Type` functions for each document. `metaFields` are added to the query type, such as
+ * the `__schema` and `__type` introspection fields.
+ */
+final class SchemaView(
+  val queryType: __Type,
+  val mutationType: Option[__Type],
+  val subscriptionType: Option[__Type],
+  types: Map[String, __Type],
+  directives: List[__Directive],
+  metaFields: List[__Field] = Nil
+) {
+
+  val typesByName: Map[String, __Type] = SchemaView.builtInScalars ++ types
+
+  private val fieldsByType: Map[String, Map[String, __Field]] =
+    typesByName.collect {
+      case (name, tpe) if tpe.kind == __TypeKind.OBJECT || tpe.kind == __TypeKind.INTERFACE =>
+        val fields = if (queryType.name.contains(name)) tpe.allFields ++ metaFields else tpe.allFields
+        name -> fields.map(f => f.name -> f).toMap
+    }
+
+  private val inputFieldsByType: Map[String, Map[String, __InputValue]] =
+    typesByName.collect {
+      case (name, tpe) if tpe.kind == __TypeKind.INPUT_OBJECT => name -> tpe.allInputFields.map(f => f.name -> f).toMap
+    }
+
+  private val possibleTypesByType: Map[String, Set[String]] = {
+    val implementations = typesByName.values
+      .filter(_.kind == __TypeKind.OBJECT)
+      .flatMap(tpe => tpe.interfaces().getOrElse(Nil).flatMap(_.name).map(_ -> tpe.name.getOrElse("")))
+      .groupMap(_._1)(_._2)
+    typesByName.collect {
+      case (name, tpe) if tpe.kind == __TypeKind.OBJECT                                     => name -> Set(name)
+      case (name, tpe) if tpe.kind == __TypeKind.INTERFACE || tpe.kind == __TypeKind.UNION =>
+        name -> (tpe.possibleTypes.getOrElse(Nil).flatMap(_.name) ++ implementations.getOrElse(name, Nil)).toSet
+    }
+  }
+
+  private val directivesByName: Map[String, __Directive] = directives.map(d => d.name -> d).toMap
+
+  def rootType(operationType: OperationType): Option[__Type] =
+    operationType match {
+      case OperationType.Query        => Some(queryType)
+      case OperationType.Mutation     => mutationType
+      case OperationType.Subscription => subscriptionType
+    }
+
+  def tpe(name: String): Option[__Type] = typesByName.get(name)
+
+  def field(typeName: String, fieldName: String): Option[__Field] =
+    fieldsByType.get(typeName).flatMap(_.get(fieldName))
+
+  def inputFields(typeName: String): Map[String, __InputValue] = inputFieldsByType.getOrElse(typeName, Map.empty)
+
+  def possibleTypes(typeName: String): Set[String] = possibleTypesByType.getOrElse(typeName, Set.empty)
+
+  def directive(name: String): Option[__Directive] = directivesByName.get(name)
+
+  /**
+   * The named type of a field or an argument, without its list and non-null wrappers.
+   */
+  def namedType(tpe: __Type): __Type = {
+    val inner = SchemaView.unwrap(tpe)
+    inner.name.flatMap(typesByName.get).getOrElse(inner)
+  }
+
+  /**
+   * Resolves the type of a variable definition, `None` if its named type does not exist.
+   */
+  def resolve(tpe: Type): Option[__Type] =
+    tpe match {
+      case Type.NamedType(name, nonNull)  => typesByName.get(name).map(t => if (nonNull) t.nonNull else t)
+      case Type.ListType(ofType, nonNull) => resolve(ofType).map(t => if (nonNull) t.list.nonNull else t.list)
+    }
+}
+
+object SchemaView {
+
+  private val builtInScalars: Map[String, __Type] =
+    List("Boolean", "Float", "ID", "Int", "String").map(name => name -> __Type(__TypeKind.SCALAR, Some(name))).toMap
+
+  private[validator] def unwrap(tpe: __Type): __Type = tpe.ofType.fold(tpe)(unwrap)
+
+  private[validator] def isLeaf(tpe: __Type): Boolean =
+    tpe.kind == __TypeKind.SCALAR || tpe.kind == __TypeKind.ENUM
+
+  private[validator] def isComposite(tpe: __Type): Boolean =
+    tpe.kind == __TypeKind.OBJECT || tpe.kind == __TypeKind.INTERFACE || tpe.kind == __TypeKind.UNION
+
+  private[validator] def isInput(tpe: __Type): Boolean =
+    isLeaf(tpe) || tpe.kind == __TypeKind.INPUT_OBJECT
+}
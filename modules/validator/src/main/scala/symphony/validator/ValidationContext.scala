@@ -0,0 +1,39 @@
+package symphony.validator
+
+import symphony.parser.SymphonyQLError.ValidationError
+import symphony.parser.adt.Definition.ExecutableDefinition.FragmentDefinition
+import symphony.parser.adt.Document
+import symphony.parser.adt.introspection.__Type
+
+import scala.collection.mutable
+
+/**
+ * The state of a single validation pass, the first error found stops the traversal.
+ */
+private[validator] final class ValidationContext(val document: Document, val schema: SchemaView) {
+
+  val fragments: Map[String, FragmentDefinition] =
+    document.fragmentDefinitions.map(f => f.name -> f).toMap
+
+  /**
+   * Fragments spread and variables used directly in each operation (by index) and fragment (by name).
+   */
+  val operationScopes: mutable.ArrayBuffer[Scope]   = mutable.ArrayBuffer.empty
+  val fragmentScopes: mutable.HashMap[String, Scope] = mutable.HashMap.empty
+
+  private var error: ValidationError = null
+
+  def failed: Boolean = error ne null
+
+  def fail(msg: String, explanatoryText: String): Unit =
+    if (error eq null) error = ValidationError(msg, explanatoryText)
+
+  def result: Either[ValidationError, Unit] = if (error eq null) Right(()) else Left(error)
+}
+
+private[validator] final case class VariableUsage(name: String, tpe: __Type, hasLocationDefault: Boolean)
+
+private[validator] final class Scope {
+  val spreads: mutable.LinkedHashSet[String] = mutable.LinkedHashSet.empty
+  val usages: mutable.ArrayBuffer[VariableUsage] = mutable.ArrayBuffer.empty
+}
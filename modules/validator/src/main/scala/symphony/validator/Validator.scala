@@ -1,3 +1,158 @@
 package symphony.validator
 
-object Validator {}
+import symphony.parser.SymphonyQLError.ValidationError
+import symphony.parser.adt.*
+import symphony.parser.adt.Definition.ExecutableDefinition.*
+import symphony.parser.adt.Selection.*
+import symphony.parser.adt.introspection.*
+
+import scala.collection.mutable
+
+/**
+ * Validates executable documents against a [[SchemaView]].
+ *
+ * Every definition of the document is visited once: each selection set is checked against its parent type while the
+ * fragments spread and the variables used are recorded, and the rules spanning several definitions (variables used
+ * through fragments, unused fragments, fragment cycles) are checked from these records at the end.
+ */
+object Validator {
+
+  def validate(document: Document, schema: SchemaView): Either[ValidationError, Unit] = {
+    val context = new ValidationContext(document, schema)
+    validateOperationNames(context)
+    FragmentValidator.validateFragmentNames(context)
+    document.definitions.foreach { definition =>
+      if (!context.failed) definition match {
+        case operation: OperationDefinition => validateOperation(context, operation)
+        case fragment: FragmentDefinition   =>
+          val scope = new Scope
+          context.fragmentScopes.update(fragment.name, scope)
+          DirectiveValidator.validateDirectives(
+            context,
+            fragment.directives,
+            __DirectiveLocation.FRAGMENT_DEFINITION,
+            scope
+          )
+          FragmentValidator
+            .validateFragmentDefinition(context, fragment)
+            .foreach(validateSelectionSet(context, fragment.selectionSet, _, scope))
+        case _                              =>
+          context.fail(
+            "Type system definitions are not allowed in an executable document.",
+            "GraphQL execution will only consider the executable definitions Operation and Fragment."
+          )
+      }
+    }
+    if (!context.failed) {
+      val used = mutable.Set.empty[String]
+      document.operationDefinitions.zip(context.operationScopes).foreach { case (operation, scope) =>
+        val fragments = reachableFragments(context, scope)
+        used ++= fragments
+        VariableValidator.validateVariableUsages(
+          context,
+          operation,
+          scope.usages ++ fragments.flatMap(context.fragmentScopes.get).flatMap(_.usages)
+        )
+      }
+      FragmentValidator.validateFragmentUsages(context, used)
+    }
+    context.result
+  }
+
+  private[validator] def validateSelectionSet(
+    context: ValidationContext,
+    selectionSet: List[Selection],
+    parentType: __Type,
+    scope: Scope
+  ): Unit = {
+    selectionSet.foreach { selection =>
+      if (!context.failed) selection match {
+        case field: Field             =>
+          DirectiveValidator.validateDirectives(context, field.directives, __DirectiveLocation.FIELD, scope)
+          FieldValidator
+            .validateField(context, field, parentType, scope)
+            .foreach(validateSelectionSet(context, field.selectionSet, _, scope))
+        case spread: FragmentSpread   =>
+          DirectiveValidator.validateDirectives(
+            context,
+            spread.directives,
+            __DirectiveLocation.FRAGMENT_SPREAD,
+            scope
+          )
+          FragmentValidator.validateFragmentSpread(context, spread, parentType, scope)
+        case fragment: InlineFragment =>
+          DirectiveValidator.validateDirectives(context, fragment.dirs, __DirectiveLocation.INLINE_FRAGMENT, scope)
+          FragmentValidator
+            .validateInlineFragment(context, fragment, parentType)
+            .foreach(validateSelectionSet(context, fragment.selectionSet, _, scope))
+      }
+    }
+    if (!context.failed) FieldValidator.validateFieldsCanMerge(context, selectionSet, parentType)
+  }
+
+  private def validateOperation(context: ValidationContext, operation: OperationDefinition): Unit = {
+    val scope = new Scope
+    context.operationScopes += scope
+    val location = operation.operationType match {
+      case OperationType.Query        => __DirectiveLocation.QUERY
+      case OperationType.Mutation     => __DirectiveLocation.MUTATION
+      case OperationType.Subscription => __DirectiveLocation.SUBSCRIPTION
+    }
+    DirectiveValidator.validateDirectives(context, operation.directives, location, scope)
+    VariableValidator.validateVariableDefinitions(context, operation, scope)
+    context.schema.rootType(operation.operationType) match {
+      case None           =>
+        context.fail(
+          s"${operation.operationType} operations are not supported by this schema.",
+          "The root operation type of an operation must be defined in the schema."
+        )
+      case Some(rootType) =>
+        if (operation.operationType == OperationType.Subscription) validateSubscription(context, operation)
+        validateSelectionSet(context, operation.selectionSet, rootType, scope)
+    }
+  }
+
+  private def validateOperationNames(context: ValidationContext): Unit = {
+    val operations = context.document.operationDefinitions
+    if (operations.size > 1 && operations.exists(_.name.isEmpty))
+      context.fail(
+        "An anonymous operation must be the only operation of a document.",
+        "GraphQL allows a short-hand form for defining query operations when only that one operation exists in the document."
+      )
+    operations
+      .flatMap(_.name)
+      .groupBy(identity)
+      .collectFirst { case (name, occurrences) if occurrences.size > 1 => name }
+      .foreach(name =>
+        context.fail(
+          s"Operation '$name' is defined more than once.",
+          "Each named operation definition must be unique within a document when referred to by its name."
+        )
+      )
+  }
+
+  private def validateSubscription(context: ValidationContext, operation: OperationDefinition): Unit = {
+    def responseNames(selectionSet: List[Selection], visited: Set[String]): List[String] =
+      selectionSet.flatMap {
+        case field: Field                                       => List(field.alias.getOrElse(field.name))
+        case fragment: InlineFragment                           => responseNames(fragment.selectionSet, visited)
+        case FragmentSpread(name, _) if !visited.contains(name) =>
+          context.fragments.get(name).toList.flatMap(f => responseNames(f.selectionSet, visited + name))
+        case _: FragmentSpread                                  => Nil
+      }
+
+    if (responseNames(operation.selectionSet, Set.empty).distinct.size != 1)
+      context.fail(
+        s"Subscription '${operation.name.getOrElse("")}' must select exactly one top level field.",
+        "Subscription operations must have exactly one root field."
+      )
+  }
+
+  private def reachableFragments(context: ValidationContext, scope: Scope): collection.Set[String] = {
+    val reached = mutable.LinkedHashSet.empty[String]
+    def visit(name: String): Unit =
+      if (reached.add(name)) context.fragmentScopes.get(name).foreach(_.spreads.foreach(visit))
+    scope.spreads.foreach(visit)
+    reached
+  }
+}
@@ -0,0 +1,164 @@
+package symphony.validator
+
+import symphony.parser.SymphonyQLInputValue
+import symphony.parser.SymphonyQLInputValue.*
+import symphony.parser.SymphonyQLValue.*
+import symphony.parser.adt.introspection.*
+
+private[validator] object ValueValidator {
+
+  def validateArguments(
+    context: ValidationContext,
+    arguments: Map[String, SymphonyQLInputValue],
+    definitions: List[__InputValue],
+    owner: String,
+    scope: Scope
+  ): Unit = {
+    arguments.foreach { case (name, value) =>
+      definitions.find(_.name == name) match {
+        case Some(definition) =>
+          validateValue(
+            context,
+            value,
+            definition._type,
+            s"argument '$name' on $owner",
+            Some(scope),
+            definition.defaultValue.isDefined
+          )
+        case None             =>
+          context.fail(
+            s"Argument '$name' is not defined on $owner.",
+            "Every argument provided to a field or directive must be defined in the set of possible arguments of that field or directive."
+          )
+      }
+    }
+    definitions.foreach { definition =>
+      if (isRequired(definition) && !arguments.contains(definition.name))
+        context.fail(
+          s"Required argument '${definition.name}' is missing on $owner.",
+          "Arguments can be required. An argument is required if the argument type is non-null and does not have a default value."
+        )
+    }
+  }
+
+  /**
+   * Checks that a literal value can be coerced to `tpe`, variables are recorded in `scope` and rejected without one.
+   */
+  def validateValue(
+    context: ValidationContext,
+    value: SymphonyQLInputValue,
+    tpe: __Type,
+    where: String,
+    scope: Option[Scope],
+    hasLocationDefault: Boolean = false
+  ): Unit =
+    value match {
+      case VariableValue(name) =>
+        scope match {
+          case Some(s) => s.usages += VariableUsage(name, tpe, hasLocationDefault)
+          case None    =>
+            context.fail(
+              s"Variable '$name' is not allowed in $where.",
+              "Default values of variables must be constant values."
+            )
+        }
+      case NullValue           =>
+        if (tpe.kind == __TypeKind.NON_NULL)
+          context.fail(
+            s"Expected a non-null value for $where, found null.",
+            "Input values must be compatible with the type of the argument, input field or variable they are provided to."
+          )
+      case _                   =>
+        tpe.kind match {
+          case __TypeKind.NON_NULL     =>
+            tpe.ofType.foreach(validateValue(context, value, _, where, scope))
+          case __TypeKind.LIST         =>
+            (value, tpe.ofType) match {
+              case (ListValue(values), Some(ofType)) =>
+                values.foreach(validateValue(context, _, ofType, where, scope))
+              case (other, Some(ofType))             => validateValue(context, other, ofType, where, scope)
+              case _                                 => ()
+            }
+          case __TypeKind.INPUT_OBJECT =>
+            value match {
+              case ObjectValue(fields) => validateInputObject(context, fields, tpe, where, scope)
+              case other               => mismatch(context, other, tpe, where)
+            }
+          case __TypeKind.ENUM         =>
+            value match {
+              case EnumValue(name) if isEnumValue(tpe, name)   => ()
+              case StringValue(name) if isEnumValue(tpe, name) => ()
+              case other                                       => mismatch(context, other, tpe, where)
+            }
+          case __TypeKind.SCALAR       =>
+            if (!isScalarValue(tpe.name.getOrElse(""), value)) mismatch(context, value, tpe, where)
+          case _                       => ()
+        }
+    }
+
+  private def validateInputObject(
+    context: ValidationContext,
+    fields: Map[String, SymphonyQLInputValue],
+    tpe: __Type,
+    where: String,
+    scope: Option[Scope]
+  ): Unit = {
+    val typeName    = tpe.name.getOrElse("")
+    val definitions = context.schema.inputFields(typeName)
+    fields.foreach { case (name, value) =>
+      definitions.get(name) match {
+        case Some(definition) =>
+          validateValue(
+            context,
+            value,
+            definition._type,
+            s"field '$name' of $where",
+            scope,
+            definition.defaultValue.isDefined
+          )
+        case None             =>
+          context.fail(
+            s"Input field '$name' is not defined on type '$typeName' in $where.",
+            "Every input field provided in an input object value must be defined in the set of possible fields of that input object's expected type."
+          )
+      }
+    }
+    definitions.values.foreach { definition =>
+      if (isRequired(definition) && !fields.contains(definition.name))
+        context.fail(
+          s"Required input field '${definition.name}' of type '$typeName' is missing in $where.",
+          "Input object fields may be required. An input field is required if it has a non-null type and does not have a default value."
+        )
+    }
+  }
+
+  private def isRequired(definition: __InputValue): Boolean =
+    definition._type.kind == __TypeKind.NON_NULL && definition.defaultValue.isEmpty
+
+  private def isEnumValue(tpe: __Type, name: String): Boolean =
+    tpe.enumValues(__DeprecatedArgs(Some(true))).getOrElse(Nil).exists(_.name == name)
+
+  private def isScalarValue(name: String, value: SymphonyQLInputValue): Boolean =
+    (name, value) match {
+      case ("Int", v: IntValue)                               => v.toBigInt.isValidInt
+      case ("Int", _)                                         => false
+      case ("Long" | "BigInt", _: IntValue)                   => true
+      case ("Long" | "BigInt", _)                             => false
+      case ("Float" | "Double" | "BigDecimal", _: IntValue)   => true
+      case ("Float" | "Double" | "BigDecimal", _: FloatValue) => true
+      case ("Float" | "Double" | "BigDecimal", _)             => false
+      case ("String", _: StringValue)                         => true
+      case ("String", _)                                      => false
+      case ("ID", _: StringValue | _: IntValue)               => true
+      case ("ID", _)                                          => false
+      case ("Boolean", _: BooleanValue)                       => true
+      case ("Boolean", _)                                     => false
+      case _                                                  => true
+    }
+
+  private def mismatch(context: ValidationContext, value: SymphonyQLInputValue, tpe: __Type, where: String): Unit =
+    context.fail(
+      s"Value ${value.toInputString} is not a valid '${tpe.name.getOrElse("")}' for $where.",
+      "Input values must be compatible with the type of the argument, input field or variable they are provided to."
+    )
+}
@@ -1,3 +1,100 @@
 package symphony.validator
 
-object VariableValidator {}
+import symphony.parser.SymphonyQLValue.NullValue
+import symphony.parser.adt.Definition.ExecutableDefinition.OperationDefinition
+import symphony.parser.adt.Type
+import symphony.parser.adt.Type.*
+import symphony.parser.adt.VariableDefinition
+import symphony.parser.adt.introspection.*
+
+object VariableValidator {
+
+  private[validator] def validateVariableDefinitions(
+    context: ValidationContext,
+    operation: OperationDefinition,
+    scope: Scope
+  ): Unit = {
+    operation.variableDefinitions
+      .groupBy(_.name)
+      .collectFirst { case (name, definitions) if definitions.size > 1 => name }
+      .foreach(name =>
+        context.fail(
+          s"Variable '$name' is defined more than once.",
+          "If any operation defines more than one variable with the same name, it is ambiguous and invalid."
+        )
+      )
+    operation.variableDefinitions.foreach { definition =>
+      DirectiveValidator.validateDirectives(
+        context,
+        definition.directives,
+        __DirectiveLocation.VARIABLE_DEFINITION,
+        scope
+      )
+      context.schema.resolve(definition.variableType) match {
+        case Some(tpe) if SchemaView.isInput(context.schema.namedType(tpe)) =>
+          definition.defaultValue.foreach(
+            ValueValidator.validateValue(context, _, tpe, s"default value of variable '${definition.name}'", None)
+          )
+        case _                                                              =>
+          context.fail(
+            s"Type '${Type.innerType(definition.variableType)}' of variable '${definition.name}' is not an input type.",
+            "Variables can only be input types. Objects, unions, and interfaces cannot be used as inputs."
+          )
+      }
+    }
+  }
+
+  /**
+   * Checks the variables used by an operation and by the fragments it spreads against its variable definitions.
+   */
+  private[validator] def validateVariableUsages(
+    context: ValidationContext,
+    operation: OperationDefinition,
+    usages: Iterable[VariableUsage]
+  ): Unit = {
+    val definitions   = operation.variableDefinitions.map(d => d.name -> d).toMap
+    val operationName = operation.name.fold("anonymous operation")(name => s"operation '$name'")
+    usages.foreach { usage =>
+      definitions.get(usage.name) match {
+        case None                                                   =>
+          context.fail(
+            s"Variable '${usage.name}' is not defined by $operationName.",
+            "Variables are scoped on a per-operation basis. That means that any variable used within the context of an operation must be defined at the top level of that operation."
+          )
+        case Some(definition) if !isUsageAllowed(definition, usage) =>
+          context.fail(
+            s"Variable '${usage.name}' of type '${definition.variableType}' is used in a position expecting type '${usage.tpe.toType()}'.",
+            "Variable usages must be compatible with the arguments they are passed to."
+          )
+        case _                                                      => ()
+      }
+    }
+    val used = usages.iterator.map(_.name).toSet
+    operation.variableDefinitions.find(d => !used.contains(d.name)).foreach { definition =>
+      context.fail(
+        s"Variable '${definition.name}' is not used in $operationName.",
+        "All variables defined by an operation must be used in that operation or a fragment transitively included by that operation. Unused variables cause a validation error."
+      )
+    }
+  }
+
+  private def isUsageAllowed(definition: VariableDefinition, usage: VariableUsage): Boolean = {
+    val locationType = usage.tpe.toType()
+    if (locationType.nonNull && definition.variableType.nullable) {
+      val hasNonNullDefault = definition.defaultValue.exists(_ != NullValue)
+      (hasNonNullDefault || usage.hasLocationDefault) &&
+      areTypesCompatible(definition.variableType, locationType.toNullable)
+    } else areTypesCompatible(definition.variableType, locationType)
+  }
+
+  private def areTypesCompatible(variableType: Type, locationType: Type): Boolean =
+    if (locationType.nonNull)
+      variableType.nonNull && areTypesCompatible(variableType.toNullable, locationType.toNullable)
+    else if (variableType.nonNull) areTypesCompatible(variableType.toNullable, locationType)
+    else
+      (variableType, locationType) match {
+        case (ListType(variableItem, _), ListType(locationItem, _))   => areTypesCompatible(variableItem, locationItem)
+        case (NamedType(variableName, _), NamedType(locationName, _)) => variableName == locationName
+        case _                                                        => false
+      }
+}